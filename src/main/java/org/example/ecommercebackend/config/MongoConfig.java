@@ -20,6 +20,8 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
  * MongoDB Configuration class.
  * Configures MongoDB connection and customizes the MongoTemplate.
  * ENFORCES Atlas connection - will NOT connect to localhost.
+ * Only the test profile turns this off (mongodb.atlas-only=false), to run against a
+ * throwaway MongoDB container.
  */
 @Configuration
 @EnableMongoRepositories(basePackages = "org.example.ecommercebackend.repository")
@@ -32,12 +34,16 @@ public class MongoConfig {
      * Prevents Spring Boot from auto-detecting localhost.
      */
     @Bean
-    public MongoClient mongoClient() {
-        String mongoUri = System.getProperty("spring.data.mongodb.uri");
-        
+    public MongoClient mongoClient(@Value("${spring.data.mongodb.uri:}") String mongoUri,
+                                   @Value("${mongodb.atlas-only:true}") boolean atlasOnly) {
         if (mongoUri == null || mongoUri.isEmpty()) {
             throw new IllegalStateException("MongoDB URI not configured. Check .env file.");
         }
+
+        if (!atlasOnly) {
+            logger.warn("Atlas-only check disabled, connecting to: {}", mongoUri.replaceAll("//[^@]+@", "//"));
+            return MongoClients.create(mongoUri);
+        }
         
         if (mongoUri.contains("localhost") || mongoUri.contains("127.0.0.1")) {
             throw new IllegalStateException("Localhost connections not allowed. Only Atlas connections permitted.");
@@ -0,0 +1,13 @@
+package org.example.ecommercebackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class to enable scheduled background tasks.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Scheduling support is enabled via @EnableScheduling annotation
+}
@@ -0,0 +1,52 @@
+package org.example.ecommercebackend.controller;
+
+import jakarta.validation.Valid;
+import org.example.ecommercebackend.dto.request.CreateOrderRequest;
+import org.example.ecommercebackend.dto.response.OrderIntentResponse;
+import org.example.ecommercebackend.service.AsyncCheckoutService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for asynchronous checkout.
+ * Only registered when checkout.async.enabled is true.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@ConditionalOnProperty(name = "checkout.async.enabled", havingValue = "true")
+public class AsyncCheckoutController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncCheckoutController.class);
+
+    private final AsyncCheckoutService asyncCheckoutService;
+
+    public AsyncCheckoutController(AsyncCheckoutService asyncCheckoutService) {
+        this.asyncCheckoutService = asyncCheckoutService;
+    }
+
+    /**
+     * Accept a checkout of the user's cart for background processing.
+     * POST /api/orders/async
+     */
+    @PostMapping("/async")
+    public ResponseEntity<OrderIntentResponse> createOrderAsync(@Valid @RequestBody CreateOrderRequest request) {
+        logger.info("Received request to create order asynchronously for user: {}", request.getUserId());
+        OrderIntentResponse response = asyncCheckoutService.submit(request);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Poll the status of an asynchronous checkout.
+     * GET /api/orders/intents/{intentId}
+     */
+    @GetMapping("/intents/{intentId}")
+    public ResponseEntity<OrderIntentResponse> getIntent(@PathVariable String intentId) {
+        logger.debug("Received request to get order intent: {}", intentId);
+        OrderIntentResponse response = asyncCheckoutService.getIntent(intentId);
+        return ResponseEntity.ok(response);
+    }
+}
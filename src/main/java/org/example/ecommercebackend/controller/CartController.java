@@ -1,9 +1,12 @@
 package org.example.ecommercebackend.controller;
 
 import jakarta.validation.Valid;
+import org.example.ecommercebackend.dto.request.AddToCartBatchRequest;
 import org.example.ecommercebackend.dto.request.AddToCartRequest;
+import org.example.ecommercebackend.dto.response.CartBatchResponse;
 import org.example.ecommercebackend.dto.response.CartItemResponse;
 import org.example.ecommercebackend.dto.response.MessageResponse;
+import org.example.ecommercebackend.exception.BadRequestException;
 import org.example.ecommercebackend.service.CartService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,8 +14,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /**
  * REST Controller for Cart operations.
  * Handles HTTP requests for cart management.
@@ -23,6 +24,10 @@ public class CartController {
 
     private static final Logger logger = LoggerFactory.getLogger(CartController.class);
 
+    private static final String VIEW_ITEMS = "items";
+
+    private static final String VIEW_TOTALS = "totals";
+
     private final CartService cartService;
 
     public CartController(CartService cartService) {
@@ -43,14 +48,35 @@ public class CartController {
     }
 
     /**
-     * Get user's cart.
-     * GET /api/cart/{userId}
+     * Add several items to a user's cart at once; each line is added or rejected on its own.
+     * POST /api/cart/add-batch
+     */
+    @PostMapping("/add-batch")
+    public ResponseEntity<CartBatchResponse> addToCartBatch(
+            @Valid @RequestBody AddToCartBatchRequest request) {
+
+        logger.info("Received request to add {} item(s) to cart", request.getItems().size());
+        CartBatchResponse response = cartService.addToCartBatch(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get user's cart: its lines (default), or the lines with cart totals.
+     * GET /api/cart/{userId}?view=items|totals
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<List<CartItemResponse>> getCart(@PathVariable String userId) {
-        logger.info("Received request to get cart for user: {}", userId);
-        List<CartItemResponse> cartItems = cartService.getCartByUserId(userId);
-        return ResponseEntity.ok(cartItems);
+    public ResponseEntity<?> getCart(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = VIEW_ITEMS) String view) {
+
+        logger.info("Received request to get cart for user: {}, view: {}", userId, view);
+
+        Object cart = switch (view) {
+            case VIEW_ITEMS -> cartService.getCartByUserId(userId);
+            case VIEW_TOTALS -> cartService.getCartViewByUserId(userId);
+            default -> throw new BadRequestException("view must be '" + VIEW_ITEMS + "' or '" + VIEW_TOTALS + "'");
+        };
+        return ResponseEntity.ok(cart);
     }
 
     /**
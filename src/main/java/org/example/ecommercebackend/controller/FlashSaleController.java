@@ -0,0 +1,57 @@
+package org.example.ecommercebackend.controller;
+
+import jakarta.validation.Valid;
+import org.example.ecommercebackend.dto.request.FlashSalePurchaseRequest;
+import org.example.ecommercebackend.dto.response.FlashSaleTicketResponse;
+import org.example.ecommercebackend.model.enums.FlashSaleTicketStatus;
+import org.example.ecommercebackend.service.FlashSaleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for flash-sale purchases.
+ * Handles HTTP requests for queued purchase attempts and ticket polling.
+ */
+@RestController
+@RequestMapping("/api/flash-sale")
+public class FlashSaleController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlashSaleController.class);
+
+    private final FlashSaleService flashSaleService;
+
+    public FlashSaleController(FlashSaleService flashSaleService) {
+        this.flashSaleService = flashSaleService;
+    }
+
+    /**
+     * Submit a purchase attempt for a flash-sale product.
+     * POST /api/flash-sale/{productId}/purchase
+     */
+    @PostMapping("/{productId}/purchase")
+    public ResponseEntity<FlashSaleTicketResponse> purchase(
+            @PathVariable String productId,
+            @Valid @RequestBody FlashSalePurchaseRequest request) {
+
+        logger.info("Received flash sale purchase for product: {}, user: {}", productId, request.getUserId());
+        FlashSaleTicketResponse response = flashSaleService.submitPurchase(productId, request);
+        HttpStatus status = response.getStatus() == FlashSaleTicketStatus.QUEUED
+                ? HttpStatus.ACCEPTED
+                : HttpStatus.OK;
+        return new ResponseEntity<>(response, status);
+    }
+
+    /**
+     * Poll a purchase ticket.
+     * GET /api/flash-sale/tickets/{ticketId}
+     */
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<FlashSaleTicketResponse> getTicket(@PathVariable String ticketId) {
+        logger.debug("Received request to get flash sale ticket: {}", ticketId);
+        FlashSaleTicketResponse response = flashSaleService.getTicket(ticketId);
+        return ResponseEntity.ok(response);
+    }
+}
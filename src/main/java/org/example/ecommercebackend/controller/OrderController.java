@@ -2,15 +2,20 @@ package org.example.ecommercebackend.controller;
 
 import jakarta.validation.Valid;
 import org.example.ecommercebackend.dto.request.CreateOrderRequest;
+import org.example.ecommercebackend.dto.response.CursorPageResponse;
 import org.example.ecommercebackend.dto.response.OrderResponse;
+import org.example.ecommercebackend.exception.BadRequestException;
+import org.example.ecommercebackend.model.Order;
+import org.example.ecommercebackend.service.IdempotencyService;
 import org.example.ecommercebackend.service.OrderService;
+import org.example.ecommercebackend.util.EntityTags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST Controller for Order operations.
@@ -22,44 +27,106 @@ public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String VIEW_FULL = "full";
+
+    private static final String VIEW_SUMMARY = "summary";
+
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           IdempotencyService idempotencyService) {
         this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * Create a new order from user's cart.
      * POST /api/orders
+     * An optional Idempotency-Key header makes retries return the original order.
      */
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
-            @Valid @RequestBody CreateOrderRequest request) {
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
         logger.info("Received request to create order for user: {}", request.getUserId());
-        OrderResponse response = orderService.createOrder(request);
+
+        if (idempotencyKey == null) {
+            OrderResponse response = orderService.createOrder(request);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        OrderResponse response = idempotencyService.executeOnce(
+                idempotencyKey, request.getUserId(), orderId -> orderService.createOrder(request, orderId));
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     /**
      * Get order by ID.
      * GET /api/orders/{orderId}
+     * Conditional requests (If-None-Match / If-Modified-Since) for an unchanged order
+     * get a 304 after reading only the order's status and updatedAt.
      */
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderResponse> getOrderById(@PathVariable String orderId) {
+    public ResponseEntity<OrderResponse> getOrderById(@PathVariable String orderId, WebRequest webRequest) {
         logger.info("Received request to get order: {}", orderId);
+
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Order version = orderService.getOrderVersionById(orderId);
+            String eTag = EntityTags.weak(version.getUpdatedAt(), version.getStatus());
+            // Also sets the ETag and Last-Modified headers when the order has changed
+            if (eTag != null && webRequest.checkNotModified(eTag, version.getUpdatedAt().toEpochMilli())) {
+                return null;
+            }
+            return ResponseEntity.ok(orderService.getOrderById(orderId));
+        }
+
         OrderResponse response = orderService.getOrderById(orderId);
-        return ResponseEntity.ok(response);
+        String eTag = EntityTags.weak(response.getUpdatedAt(), response.getStatus());
+        if (eTag == null) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(response.getUpdatedAt())
+                .body(response);
     }
 
     /**
-     * Get all orders for a user.
-     * GET /api/orders/user/{userId}
+     * Get a page of a user's orders, newest first.
+     * GET /api/orders/user/{userId}?cursor=&limit=&view=full|summary
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByUserId(@PathVariable String userId) {
-        logger.info("Received request to get orders for user: {}", userId);
-        List<OrderResponse> orders = orderService.getOrdersByUserId(userId);
+    public ResponseEntity<CursorPageResponse<?>> getOrdersByUserId(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+
+        logger.info("Received request to get orders for user: {}, view: {}", userId, view);
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        CursorPageResponse<?> orders = switch (view) {
+            case VIEW_FULL -> orderService.getOrdersByUserId(userId, cursor, limit);
+            case VIEW_SUMMARY -> orderService.getOrderSummariesByUserId(userId, cursor, limit);
+            default -> throw new BadRequestException("view must be '" + VIEW_FULL + "' or '" + VIEW_SUMMARY + "'");
+        };
         return ResponseEntity.ok(orders);
     }
 
@@ -2,15 +2,33 @@ package org.example.ecommercebackend.controller;
 
 import jakarta.validation.Valid;
 import org.example.ecommercebackend.dto.request.CreateProductRequest;
+import org.example.ecommercebackend.dto.response.CursorPageResponse;
+import org.example.ecommercebackend.dto.response.PageResponse;
+import org.example.ecommercebackend.dto.response.ProductImportResponse;
+import org.example.ecommercebackend.dto.response.ProductCacheStatsResponse;
 import org.example.ecommercebackend.dto.response.ProductResponse;
+import org.example.ecommercebackend.dto.response.ProductSuggestionResponse;
+import org.example.ecommercebackend.exception.BadRequestException;
+import org.example.ecommercebackend.model.enums.ProductImportFormat;
+import org.example.ecommercebackend.model.enums.ProductSort;
+import org.example.ecommercebackend.service.ProductImportService;
 import org.example.ecommercebackend.service.ProductService;
+import org.example.ecommercebackend.service.SerializedProduct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * REST Controller for Product operations.
@@ -22,10 +40,28 @@ public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    private static final String CSV = "text/csv";
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int DEFAULT_SUGGEST_LIMIT = 10;
+
+    private static final int MAX_SUGGEST_LIMIT = 50;
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -42,45 +78,215 @@ public class ProductController {
     }
 
     /**
-     * Get all products.
-     * GET /api/products
+     * Bulk insert or update products by SKU from an NDJSON or CSV body.
+     * POST /api/products/import
+     */
+    @PostMapping(value = "/import", consumes = {NDJSON, CSV})
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV));
+        ProductImportFormat format = csv ? ProductImportFormat.CSV : ProductImportFormat.NDJSON;
+        logger.info("Received request to import products as {}", format);
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    /**
+     * Get all products, or one page at a time in _id order.
+     * GET /api/products                   (all products, as a list)
+     * GET /api/products?size=20&cursor=   (keyset pagination)
+     * GET /api/products?page=0&size=20    (offset pagination)
      */
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        logger.info("Received request to fetch all products");
-        List<ProductResponse> products = productService.getAllProducts();
+    public ResponseEntity<?> getProducts(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+
+        if (page == null && size == null && cursor == null) {
+            logger.info("Received request to fetch all products");
+            List<ProductResponse> products = productService.getAllProducts();
+            return ResponseEntity.ok(products);
+        }
+
+        logger.info("Received request to fetch products - page: {}, size: {}, cursor: {}", page, size, cursor);
+
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page != null && cursor != null) {
+            throw new BadRequestException("Use either page or cursor, not both");
+        }
+
+        if (page != null) {
+            if (page < 0) {
+                throw new BadRequestException("page must not be negative");
+            }
+            PageResponse<ProductResponse> products = productService.getProductsPage(page, pageSize);
+            return ResponseEntity.ok(products);
+        }
+
+        CursorPageResponse<ProductResponse> products = productService.getProductsAfter(cursor, pageSize);
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Stream the whole catalog as newline-delimited JSON, one product per line.
+     * GET /api/products with Accept: application/x-ndjson
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        logger.info("Received request to stream all products");
+
+        StreamingResponseBody body = outputStream -> productService.streamAllProducts(product -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(product));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    /**
+     * Browse the catalog with filters, in price or newest-first order (keyset pagination).
+     * GET /api/products/catalog?inStock=true&minPrice=10&maxPrice=50&sort=price_asc&size=20&cursor=
+     * sort is one of price_asc, price_desc or newest (default).
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getCatalog(
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) String cursor) {
+
+        logger.info("Received request to browse catalog - inStock: {}, minPrice: {}, maxPrice: {}, sort: {}",
+                inStock, minPrice, maxPrice, sort);
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((minPrice != null && minPrice < 0) || (maxPrice != null && maxPrice < 0)) {
+            throw new BadRequestException("Prices must not be negative");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+
+        ProductSort productSort;
+        try {
+            productSort = ProductSort.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("sort must be one of price_asc, price_desc or newest");
+        }
+
+        return ResponseEntity.ok(productService.getCatalogPage(inStock, minPrice, maxPrice, productSort, cursor, size));
+    }
+
     /**
      * Get a product by ID.
      * GET /api/products/{id}
+     * The body is written from pre-serialized JSON (gzip when the client accepts it).
+     * The response carries a weak ETag and Last-Modified; conditional requests for an
+     * unchanged product get a 304 without a body.
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable String id) {
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getProductById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
         logger.info("Received request to fetch product with ID: {}", id);
-        ProductResponse product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        SerializedProduct product = productService.getSerializedProductById(id);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        // The tag includes stock: hot-product stock changes without updatedAt moving
+        if (product.getETag() != null) {
+            response.eTag(product.getETag()).lastModified(product.getUpdatedAt());
+        }
+
+        // Compressed only once a client asks for gzip
+        byte[] gzip = acceptsGzip(acceptEncoding) ? product.getGzip() : null;
+        if (gzip != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return response.body(product.getJson());
     }
 
     /**
-     * Search products by name.
-     * GET /api/products/search?q=laptop
+     * Search products by name, best matches first.
+     * GET /api/products/search?q=laptop&page=0&size=20
      */
     @GetMapping("/search")
-    public ResponseEntity<List<ProductResponse>> searchProducts(
-            @RequestParam("q") String query) {
+    public ResponseEntity<PageResponse<ProductResponse>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
         
         logger.info("Received request to search products with query: {}", query);
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0) {
+            throw new BadRequestException("page must not be negative");
+        }
         
         // Validate search query
         if (query == null || query.trim().isEmpty()) {
             logger.warn("Empty search query received");
-            return ResponseEntity.ok(List.of());
+            return ResponseEntity.ok(new PageResponse<>(List.of(), page, size, 0, 0));
         }
         
-        List<ProductResponse> products = productService.searchProductsByName(query.trim());
-        logger.info("Found {} products matching query: {}", products.size(), query);
+        PageResponse<ProductResponse> products = productService.searchProductsByName(query.trim(), page, size);
+        logger.info("Found {} products matching query: {}", products.getTotalElements(), query);
         return ResponseEntity.ok(products);
     }
+
+    /**
+     * Autocomplete product names as the user types.
+     * GET /api/products/suggest?prefix=lap&limit=10
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionResponse>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "" + DEFAULT_SUGGEST_LIMIT) int limit) {
+
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SUGGEST_LIMIT);
+        }
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
+    }
+
+    /**
+     * Get product cache metrics.
+     * GET /api/products/cache/stats
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ProductCacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" means gzip is not acceptable
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
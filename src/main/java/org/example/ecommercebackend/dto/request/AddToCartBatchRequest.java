@@ -0,0 +1,32 @@
+package org.example.ecommercebackend.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request DTO for adding several items to one user's cart at once.
+ */
+public class AddToCartBatchRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 100, message = "At most 100 items can be added at once")
+    private List<@Valid AddToCartRequest> items;
+
+    public AddToCartBatchRequest() {
+    }
+
+    public AddToCartBatchRequest(List<AddToCartRequest> items) {
+        this.items = items;
+    }
+
+    public List<AddToCartRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<AddToCartRequest> items) {
+        this.items = items;
+    }
+}
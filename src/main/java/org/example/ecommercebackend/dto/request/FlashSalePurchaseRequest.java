@@ -0,0 +1,44 @@
+package org.example.ecommercebackend.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request DTO for a flash-sale purchase attempt.
+ */
+public class FlashSalePurchaseRequest {
+
+    @NotBlank(message = "User ID is required")
+    private String userId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 10, message = "Quantity cannot exceed 10 per purchase")
+    private Integer quantity;
+
+    public FlashSalePurchaseRequest() {
+    }
+
+    public FlashSalePurchaseRequest(String userId, Integer quantity) {
+        this.userId = userId;
+        this.quantity = quantity;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.ecommercebackend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * One product of a bulk import. Validated like CreateProductRequest, plus a
+ * required SKU that identifies the product to insert or update.
+ */
+public class ProductImportRow extends CreateProductRequest {
+
+    @NotBlank(message = "SKU is required")
+    private String sku;
+
+    public ProductImportRow() {
+    }
+
+    public ProductImportRow(String sku, String name, String description, Double price, Integer stock) {
+        super(name, description, price, stock);
+        this.sku = sku;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.ecommercebackend.dto.response;
+
+/**
+ * Response DTO for the outcome of one line of a batch add-to-cart.
+ * Added lines carry the cart item as it now stands; rejected lines carry the reason.
+ */
+public class CartBatchLineResponse {
+
+    private int index;
+    private String productId;
+    private boolean added;
+    private CartItemResponse item;
+    private String error;
+
+    public CartBatchLineResponse() {
+    }
+
+    public CartBatchLineResponse(int index, String productId, boolean added, CartItemResponse item, String error) {
+        this.index = index;
+        this.productId = productId;
+        this.added = added;
+        this.item = item;
+        this.error = error;
+    }
+
+    /**
+     * Factory method for a line that was added to the cart.
+     */
+    public static CartBatchLineResponse added(int index, CartItemResponse item) {
+        return new CartBatchLineResponse(index, item.getProductId(), true, item, null);
+    }
+
+    /**
+     * Factory method for a line that was rejected.
+     */
+    public static CartBatchLineResponse rejected(int index, String productId, String error) {
+        return new CartBatchLineResponse(index, productId, false, null, error);
+    }
+
+    // Getters and Setters
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public boolean isAdded() {
+        return added;
+    }
+
+    public void setAdded(boolean added) {
+        this.added = added;
+    }
+
+    public CartItemResponse getItem() {
+        return item;
+    }
+
+    public void setItem(CartItemResponse item) {
+        this.item = item;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
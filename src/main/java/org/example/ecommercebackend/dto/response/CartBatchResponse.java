@@ -0,0 +1,48 @@
+package org.example.ecommercebackend.dto.response;
+
+import java.util.List;
+
+/**
+ * Response DTO for a batch add-to-cart: counts plus one result per request line, in request order.
+ */
+public class CartBatchResponse {
+
+    private int added;
+    private int rejected;
+    private List<CartBatchLineResponse> lines;
+
+    public CartBatchResponse() {
+    }
+
+    public CartBatchResponse(List<CartBatchLineResponse> lines) {
+        this.lines = lines;
+        this.added = (int) lines.stream().filter(CartBatchLineResponse::isAdded).count();
+        this.rejected = lines.size() - this.added;
+    }
+
+    // Getters and Setters
+
+    public int getAdded() {
+        return added;
+    }
+
+    public void setAdded(int added) {
+        this.added = added;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<CartBatchLineResponse> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<CartBatchLineResponse> lines) {
+        this.lines = lines;
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.ecommercebackend.dto.response;
 
 import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.model.Product;
 
 import java.time.Instant;
 
@@ -14,6 +15,7 @@ public class CartItemResponse {
     private String productId;
     private Integer quantity;
     private ProductInfo product;
+    private Double lineTotal;
     private Instant createdAt;
     private Instant updatedAt;
 
@@ -48,10 +50,14 @@ public class CartItemResponse {
 
     /**
      * Factory method to create CartItemResponse with product info.
+     * The line total is set when the product's price is known.
      */
     public static CartItemResponse fromEntityWithProduct(CartItem cartItem, ProductInfo product) {
         CartItemResponse response = fromEntity(cartItem);
         response.setProduct(product);
+        if (product != null && product.getPrice() != null) {
+            response.setLineTotal(product.getPrice() * cartItem.getQuantity());
+        }
         return response;
     }
 
@@ -97,6 +103,14 @@ public class CartItemResponse {
         this.product = product;
     }
 
+    public Double getLineTotal() {
+        return lineTotal;
+    }
+
+    public void setLineTotal(Double lineTotal) {
+        this.lineTotal = lineTotal;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -132,6 +146,10 @@ public class CartItemResponse {
             this.stock = stock;
         }
 
+        public static ProductInfo fromEntity(Product product) {
+            return new ProductInfo(product.getId(), product.getName(), product.getPrice(), product.getStock());
+        }
+
         public String getId() {
             return id;
         }
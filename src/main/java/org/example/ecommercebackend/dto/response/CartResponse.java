@@ -0,0 +1,72 @@
+package org.example.ecommercebackend.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response DTO for a user's cart: its lines with product details, plus totals.
+ * Lines whose product no longer exists have no product and no line total.
+ */
+public class CartResponse {
+
+    private String userId;
+    private List<CartItemResponse> items = new ArrayList<>();
+    private int totalQuantity;
+    private double totalAmount;
+
+    public CartResponse() {
+    }
+
+    public CartResponse(String userId, List<CartItemResponse> items, int totalQuantity, double totalAmount) {
+        this.userId = userId;
+        this.items = items;
+        this.totalQuantity = totalQuantity;
+        this.totalAmount = totalAmount;
+    }
+
+    /**
+     * Factory method to create a CartResponse, summing the totals from the lines.
+     */
+    public static CartResponse fromItems(String userId, List<CartItemResponse> items) {
+        int totalQuantity = items.stream().mapToInt(CartItemResponse::getQuantity).sum();
+        double totalAmount = items.stream()
+                .filter(item -> item.getLineTotal() != null)
+                .mapToDouble(CartItemResponse::getLineTotal)
+                .sum();
+        return new CartResponse(userId, items, totalQuantity, totalAmount);
+    }
+
+    // Getters and Setters
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public List<CartItemResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CartItemResponse> items) {
+        this.items = items;
+    }
+
+    public int getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(int totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.ecommercebackend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.ecommercebackend.model.FlashSaleTicket;
+import org.example.ecommercebackend.model.enums.FlashSaleTicketStatus;
+
+import java.time.Instant;
+
+/**
+ * Response DTO for flash-sale ticket data.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FlashSaleTicketResponse {
+
+    private String ticketId;
+    private String productId;
+    private String userId;
+    private Integer quantity;
+    private FlashSaleTicketStatus status;
+    private String orderId;
+    private String message;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public FlashSaleTicketResponse() {
+    }
+
+    public FlashSaleTicketResponse(String ticketId, String productId, String userId, Integer quantity,
+                                   FlashSaleTicketStatus status, String orderId, String message,
+                                   Instant createdAt, Instant updatedAt) {
+        this.ticketId = ticketId;
+        this.productId = productId;
+        this.userId = userId;
+        this.quantity = quantity;
+        this.status = status;
+        this.orderId = orderId;
+        this.message = message;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Factory method to create FlashSaleTicketResponse from a FlashSaleTicket.
+     */
+    public static FlashSaleTicketResponse fromTicket(FlashSaleTicket ticket) {
+        return new FlashSaleTicketResponse(
+                ticket.getId(),
+                ticket.getProductId(),
+                ticket.getUserId(),
+                ticket.getQuantity(),
+                ticket.getStatus(),
+                ticket.getOrderId(),
+                ticket.getMessage(),
+                ticket.getCreatedAt(),
+                ticket.getUpdatedAt()
+        );
+    }
+
+    // Getters and Setters
+
+    public String getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(String ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public FlashSaleTicketStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(FlashSaleTicketStatus status) {
+        this.status = status;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
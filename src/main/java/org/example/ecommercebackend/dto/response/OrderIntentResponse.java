@@ -0,0 +1,109 @@
+package org.example.ecommercebackend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.ecommercebackend.model.OrderIntent;
+import org.example.ecommercebackend.model.enums.OrderIntentStatus;
+
+import java.time.Instant;
+
+/**
+ * Response DTO for asynchronous checkout (order intent) data.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderIntentResponse {
+
+    private String intentId;
+    private String userId;
+    private OrderIntentStatus status;
+    private String orderId;
+    private String failureReason;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public OrderIntentResponse() {
+    }
+
+    public OrderIntentResponse(String intentId, String userId, OrderIntentStatus status, String orderId,
+                               String failureReason, Instant createdAt, Instant updatedAt) {
+        this.intentId = intentId;
+        this.userId = userId;
+        this.status = status;
+        this.orderId = orderId;
+        this.failureReason = failureReason;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Factory method to create OrderIntentResponse from OrderIntent entity.
+     */
+    public static OrderIntentResponse fromEntity(OrderIntent intent) {
+        return new OrderIntentResponse(
+                intent.getId(),
+                intent.getUserId(),
+                intent.getStatus(),
+                intent.getOrderId(),
+                intent.getFailureReason(),
+                intent.getCreatedAt(),
+                intent.getUpdatedAt()
+        );
+    }
+
+    // Getters and Setters
+
+    public String getIntentId() {
+        return intentId;
+    }
+
+    public void setIntentId(String intentId) {
+        this.intentId = intentId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public OrderIntentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderIntentStatus status) {
+        this.status = status;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.ecommercebackend.dto.response;
+
+import org.example.ecommercebackend.model.enums.OrderStatus;
+import org.example.ecommercebackend.repository.OrderSummary;
+
+import java.time.Instant;
+
+/**
+ * Compact response DTO for order history listings.
+ */
+public class OrderSummaryResponse {
+
+    private String id;
+    private OrderStatus status;
+    private Double totalAmount;
+    private Integer itemCount;
+    private Instant createdAt;
+
+    public OrderSummaryResponse() {
+    }
+
+    public OrderSummaryResponse(String id, OrderStatus status, Double totalAmount,
+                                Integer itemCount, Instant createdAt) {
+        this.id = id;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.itemCount = itemCount;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Factory method to create OrderSummaryResponse from an OrderSummary projection.
+     */
+    public static OrderSummaryResponse fromSummary(OrderSummary summary) {
+        return new OrderSummaryResponse(
+                summary.getId(),
+                summary.getStatus(),
+                summary.getTotalAmount(),
+                summary.getItemCount(),
+                summary.getCreatedAt()
+        );
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
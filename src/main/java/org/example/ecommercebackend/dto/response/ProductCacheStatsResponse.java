@@ -0,0 +1,105 @@
+package org.example.ecommercebackend.dto.response;
+
+/**
+ * Response DTO for product cache metrics.
+ */
+public class ProductCacheStatsResponse {
+
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long stockRefreshes;
+    private long serializedHits;
+    private long serializedMisses;
+
+    public ProductCacheStatsResponse() {
+    }
+
+    public ProductCacheStatsResponse(int size, int maxSize, long hits, long misses, double hitRate,
+                                     long evictions, long stockRefreshes) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.evictions = evictions;
+        this.stockRefreshes = stockRefreshes;
+    }
+
+    // Getters and Setters
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public long getStockRefreshes() {
+        return stockRefreshes;
+    }
+
+    public void setStockRefreshes(long stockRefreshes) {
+        this.stockRefreshes = stockRefreshes;
+    }
+
+    public long getSerializedHits() {
+        return serializedHits;
+    }
+
+    public void setSerializedHits(long serializedHits) {
+        this.serializedHits = serializedHits;
+    }
+
+    public long getSerializedMisses() {
+        return serializedMisses;
+    }
+
+    public void setSerializedMisses(long serializedMisses) {
+        this.serializedMisses = serializedMisses;
+    }
+}
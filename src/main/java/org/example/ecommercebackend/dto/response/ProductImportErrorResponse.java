@@ -0,0 +1,46 @@
+package org.example.ecommercebackend.dto.response;
+
+/**
+ * Response DTO for a row rejected by a bulk product import.
+ */
+public class ProductImportErrorResponse {
+
+    private long row;
+    private String sku;
+    private String message;
+
+    public ProductImportErrorResponse() {
+    }
+
+    public ProductImportErrorResponse(long row, String sku, String message) {
+        this.row = row;
+        this.sku = sku;
+        this.message = message;
+    }
+
+    // Getters and Setters
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.ecommercebackend.dto.response;
+
+import java.util.List;
+
+/**
+ * Response DTO for the outcome of a bulk product import.
+ * Only the first rejected rows are listed in errors; failed counts all of them.
+ */
+public class ProductImportResponse {
+
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private List<ProductImportErrorResponse> errors;
+    private long durationMs;
+
+    public ProductImportResponse() {
+    }
+
+    public ProductImportResponse(long rowsRead, long inserted, long updated, long failed,
+                                 List<ProductImportErrorResponse> errors, long durationMs) {
+        this.rowsRead = rowsRead;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.failed = failed;
+        this.errors = errors;
+        this.durationMs = durationMs;
+    }
+
+    // Getters and Setters
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<ProductImportErrorResponse> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ProductImportErrorResponse> errors) {
+        this.errors = errors;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+}
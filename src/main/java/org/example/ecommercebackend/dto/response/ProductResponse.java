@@ -10,6 +10,7 @@ import java.time.Instant;
 public class ProductResponse {
 
     private String id;
+    private String sku;
     private String name;
     private String description;
     private Double price;
@@ -20,9 +21,10 @@ public class ProductResponse {
     public ProductResponse() {
     }
 
-    public ProductResponse(String id, String name, String description, Double price, 
+    public ProductResponse(String id, String sku, String name, String description, Double price, 
                            Integer stock, Instant createdAt, Instant updatedAt) {
         this.id = id;
+        this.sku = sku;
         this.name = name;
         this.description = description;
         this.price = price;
@@ -37,6 +39,7 @@ public class ProductResponse {
     public static ProductResponse fromEntity(Product product) {
         return new ProductResponse(
                 product.getId(),
+                product.getSku(),
                 product.getName(),
                 product.getDescription(),
                 product.getPrice(),
@@ -56,6 +59,14 @@ public class ProductResponse {
         this.id = id;
     }
 
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
     public String getName() {
         return name;
     }
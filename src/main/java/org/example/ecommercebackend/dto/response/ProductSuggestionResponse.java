@@ -0,0 +1,46 @@
+package org.example.ecommercebackend.dto.response;
+
+/**
+ * Response DTO for a single autocomplete suggestion.
+ */
+public class ProductSuggestionResponse {
+
+    private String id;
+    private String name;
+    private Integer stock;
+
+    public ProductSuggestionResponse() {
+    }
+
+    public ProductSuggestionResponse(String id, String name, Integer stock) {
+        this.id = id;
+        this.name = name;
+        this.stock = stock;
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+}
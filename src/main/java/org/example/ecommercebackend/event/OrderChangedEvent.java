@@ -0,0 +1,21 @@
+package org.example.ecommercebackend.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Application event published when orders (or the payments of orders) were
+ * written, possibly by another node. Listeners holding order data evict it.
+ */
+public class OrderChangedEvent {
+
+    private final Set<String> orderIds;
+
+    public OrderChangedEvent(Collection<String> orderIds) {
+        this.orderIds = Set.copyOf(orderIds);
+    }
+
+    public Set<String> getOrderIds() {
+        return orderIds;
+    }
+}
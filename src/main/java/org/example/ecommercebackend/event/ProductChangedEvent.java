@@ -0,0 +1,61 @@
+package org.example.ecommercebackend.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Application event published after products are written.
+ * Stock-only changes (reservations, releases) are flagged so listeners that
+ * only care about catalog fields (name, description, price) can skip them.
+ * Bulk writes that touch too many products to list publish a catalog-wide event instead.
+ */
+public class ProductChangedEvent {
+
+    private final Set<String> productIds;
+
+    private final boolean stockOnly;
+
+    private final boolean allProducts;
+
+    private ProductChangedEvent(Collection<String> productIds, boolean stockOnly, boolean allProducts) {
+        this.productIds = Set.copyOf(productIds);
+        this.stockOnly = stockOnly;
+        this.allProducts = allProducts;
+    }
+
+    /**
+     * Products were created or their catalog fields changed.
+     */
+    public static ProductChangedEvent productsChanged(Collection<String> productIds) {
+        return new ProductChangedEvent(productIds, false, false);
+    }
+
+    /**
+     * Any product may have been created or changed; listeners should reload everything.
+     */
+    public static ProductChangedEvent allProductsChanged() {
+        return new ProductChangedEvent(Set.of(), false, true);
+    }
+
+    /**
+     * Only the stock of the products changed.
+     */
+    public static ProductChangedEvent stockChanged(Collection<String> productIds) {
+        return new ProductChangedEvent(productIds, true, false);
+    }
+
+    public Set<String> getProductIds() {
+        return productIds;
+    }
+
+    public boolean isStockOnly() {
+        return stockOnly;
+    }
+
+    /**
+     * True for catalog-wide changes, in which case getProductIds() is empty.
+     */
+    public boolean isAllProducts() {
+        return allProducts;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.ecommercebackend.exception;
+
+/**
+ * Exception thrown when the asynchronous checkout queue cannot accept more intents.
+ * Results in HTTP 503 Service Unavailable response.
+ */
+public class CheckoutQueueFullException extends RuntimeException {
+
+    public CheckoutQueueFullException() {
+        super("Too many pending checkouts, please try again shortly");
+    }
+}
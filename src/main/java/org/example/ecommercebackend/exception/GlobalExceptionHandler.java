@@ -101,6 +101,44 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handle IdempotencyConflictException - returns 409 Conflict
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflictException(
+            IdempotencyConflictException ex, WebRequest request) {
+        
+        logger.warn("Idempotency conflict: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(getRequestPath(request))
+                .build();
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handle CheckoutQueueFullException - returns 503 Service Unavailable
+     */
+    @ExceptionHandler(CheckoutQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleCheckoutQueueFullException(
+            CheckoutQueueFullException ex, WebRequest request) {
+        
+        logger.warn("Checkout queue full: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(getRequestPath(request))
+                .build();
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Handle PaymentProcessingException - returns 500 Internal Server Error
      */
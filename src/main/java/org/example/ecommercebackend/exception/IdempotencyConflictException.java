@@ -0,0 +1,20 @@
+package org.example.ecommercebackend.exception;
+
+/**
+ * Exception thrown when a request reuses an Idempotency-Key whose original
+ * request is still being processed and did not finish in time.
+ * Results in HTTP 409 Conflict response.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyConflictException(String idempotencyKey) {
+        super(String.format("A request with Idempotency-Key '%s' is still being processed", idempotencyKey));
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
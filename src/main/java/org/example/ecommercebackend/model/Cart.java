@@ -0,0 +1,63 @@
+package org.example.ecommercebackend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cart entity holding a user's whole shopping cart in one document.
+ * The _id is the user ID, so every cart read and write is a single-document
+ * operation on the _id index. Used when cart.store=document.
+ */
+@Document(collection = "carts")
+public class Cart {
+
+    @Id
+    private String id;  // The user ID
+
+    private List<CartLine> items = new ArrayList<>();
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public Cart() {
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<CartLine> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CartLine> items) {
+        this.items = items;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
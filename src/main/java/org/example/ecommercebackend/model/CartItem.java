@@ -10,6 +10,8 @@ import java.time.Instant;
 
 /**
  * CartItem entity representing items in a user's shopping cart.
+ * Carts whose newest line has been idle for longer than cart.expiry.idle-days are
+ * removed, all lines together, by CartExpirySweeper.
  */
 @Document(collection = "cart_items")
 @CompoundIndex(name = "user_product_idx", def = "{'userId': 1, 'productId': 1}", unique = true)
@@ -0,0 +1,62 @@
+package org.example.ecommercebackend.model;
+
+import java.time.Instant;
+
+/**
+ * CartLine representing one product in a cart.
+ * Embedded within the Cart document.
+ */
+public class CartLine {
+
+    private String productId;
+
+    private Integer quantity;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public CartLine() {
+    }
+
+    public CartLine(String productId, Integer quantity, Instant createdAt, Instant updatedAt) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.ecommercebackend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * ChangeStreamCheckpoint entity holding the last change stream resume token
+ * processed by one node, so the node can resume where it left off after a restart.
+ * The id is the node id.
+ */
+@Document(collection = "change_stream_checkpoints")
+public class ChangeStreamCheckpoint {
+
+    @Id
+    private String id;
+
+    private String resumeToken;  // Resume token as extended JSON
+
+    private Instant updatedAt;
+
+    public ChangeStreamCheckpoint() {
+    }
+
+    public ChangeStreamCheckpoint(String id, String resumeToken) {
+        this.id = id;
+        this.resumeToken = resumeToken;
+        this.updatedAt = Instant.now();
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getResumeToken() {
+        return resumeToken;
+    }
+
+    public void setResumeToken(String resumeToken) {
+        this.resumeToken = resumeToken;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.ecommercebackend.model;
+
+import org.example.ecommercebackend.model.enums.FlashSaleTicketStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * FlashSaleTicket representing one purchase attempt in a flash-sale admission queue.
+ * Tickets are held in memory only; confirmed purchases are persisted as orders.
+ */
+public class FlashSaleTicket {
+
+    private final String id;
+
+    private final String productId;
+
+    private final String userId;
+
+    private final int quantity;
+
+    private final Instant createdAt;
+
+    private volatile FlashSaleTicketStatus status;
+
+    private volatile String orderId;
+
+    private volatile String message;
+
+    private volatile Instant updatedAt;
+
+    public FlashSaleTicket(String productId, String userId, int quantity) {
+        this.id = UUID.randomUUID().toString();
+        this.productId = productId;
+        this.userId = userId;
+        this.quantity = quantity;
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+        this.status = FlashSaleTicketStatus.QUEUED;
+    }
+
+    // Getters
+
+    public String getId() {
+        return id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public FlashSaleTicketStatus getStatus() {
+        return status;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Check if the ticket has reached a final state.
+     */
+    public boolean isFinished() {
+        return this.status != FlashSaleTicketStatus.QUEUED;
+    }
+
+    /**
+     * Mark the ticket as confirmed with the created order.
+     */
+    public void markAsConfirmed(String orderId) {
+        this.orderId = orderId;
+        this.message = "Purchase confirmed";
+        finish(FlashSaleTicketStatus.CONFIRMED);
+    }
+
+    /**
+     * Mark the ticket as finished without a purchase.
+     */
+    public void markAsUnfulfilled(FlashSaleTicketStatus status, String message) {
+        this.message = message;
+        finish(status);
+    }
+
+    private void finish(FlashSaleTicketStatus status) {
+        this.updatedAt = Instant.now();
+        this.status = status;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.ecommercebackend.model;
+
+import org.example.ecommercebackend.model.enums.IdempotencyStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * IdempotencyRecord entity tracking the outcome of an order creation request
+ * submitted with an Idempotency-Key header.
+ * The id is the user-scoped key, so the _id index guarantees one record per key;
+ * records are removed by the TTL index on expiresAt.
+ * The order ID is assigned when the key is first claimed and the order is created with
+ * it, so a request taking over a stale claim can find an order placed under it.
+ */
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private IdempotencyStatus status;
+
+    private String orderId;
+
+    private Instant createdAt;
+
+    private Instant claimedAt;
+
+    @Indexed(name = "idempotency_expiry_ttl_idx", expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String id, String userId, String orderId, Instant claimedAt, Instant expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.status = IdempotencyStatus.IN_PROGRESS;
+        this.orderId = orderId;
+        this.createdAt = Instant.now();
+        this.claimedAt = claimedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public IdempotencyStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(IdempotencyStatus status) {
+        this.status = status;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(Instant claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Check if the original request has completed.
+     */
+    public boolean isCompleted() {
+        return this.status == IdempotencyStatus.COMPLETED;
+    }
+}
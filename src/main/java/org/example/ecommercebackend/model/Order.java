@@ -4,7 +4,7 @@ import org.example.ecommercebackend.model.enums.OrderStatus;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -13,14 +13,16 @@ import java.util.List;
 
 /**
  * Order entity representing a customer's order.
+ * The compound index serves order history pages newest-first per user;
+ * its userId prefix also covers plain lookups by user.
  */
 @Document(collection = "orders")
+@CompoundIndex(name = "user_created_id_idx", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
 public class Order {
 
     @Id
     private String id;
 
-    @Indexed
     private String userId;
 
     private Double totalAmount;
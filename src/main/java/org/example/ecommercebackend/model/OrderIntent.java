@@ -0,0 +1,149 @@
+package org.example.ecommercebackend.model;
+
+import org.example.ecommercebackend.model.enums.OrderIntentStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * OrderIntent entity representing a checkout accepted for asynchronous processing.
+ * The order created for an intent reuses the intent's id, so a retried intent
+ * can never produce a second order.
+ *
+ * A worker claims an intent (PENDING to PROCESSING) before checking it out; the claim
+ * carries the worker's claim ID and a lease, and only an expired lease can be reclaimed.
+ */
+@Document(collection = "order_intents")
+public class OrderIntent {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    @Indexed(name = "intent_status_idx")
+    private OrderIntentStatus status;
+
+    private String orderId;
+
+    private String failureReason;
+
+    private String claimId;
+
+    private Instant leaseExpiresAt;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public OrderIntent() {
+    }
+
+    public OrderIntent(String userId) {
+        this.userId = userId;
+        this.status = OrderIntentStatus.PENDING;
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public OrderIntentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderIntentStatus status) {
+        this.status = status;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public String getClaimId() {
+        return claimId;
+    }
+
+    public void setClaimId(String claimId) {
+        this.claimId = claimId;
+    }
+
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Check if the intent is still waiting to be processed.
+     */
+    public boolean isPending() {
+        return this.status == OrderIntentStatus.PENDING;
+    }
+
+    /**
+     * Mark the intent as completed with the created order.
+     */
+    public void markAsCompleted(String orderId) {
+        this.status = OrderIntentStatus.COMPLETED;
+        this.orderId = orderId;
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Mark the intent as failed with a reason for the client.
+     */
+    public void markAsFailed(String failureReason) {
+        this.status = OrderIntentStatus.FAILED;
+        this.failureReason = failureReason;
+        this.updatedAt = Instant.now();
+    }
+}
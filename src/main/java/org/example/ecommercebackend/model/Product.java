@@ -3,19 +3,32 @@ package org.example.ecommercebackend.model;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
 /**
  * Product entity representing items available for purchase.
+ * The compound indexes serve the catalog query: each one leads with a sort key
+ * (price, or createdAt for newest first) and carries the filtered fields after _id,
+ * so price and stock filters are checked on index keys and no query sorts in memory.
  */
 @Document(collection = "products")
+@CompoundIndexes({
+        @CompoundIndex(name = "catalog_price_idx", def = "{'price': 1, '_id': 1, 'stock': 1}"),
+        @CompoundIndex(name = "catalog_newest_idx", def = "{'createdAt': -1, '_id': -1, 'price': 1, 'stock': 1}")
+})
 public class Product {
 
     @Id
     private String id;
 
+    @Indexed(unique = true, sparse = true)
+    private String sku;  // Supplier SKU; the upsert key for bulk imports
+
     private String name;
 
     private String description;
@@ -24,6 +37,8 @@ public class Product {
 
     private Integer stock;
 
+    private Long inventoryJournalSeq;  // Last write-behind journal sequence applied to stock
+
     @CreatedDate
     private Instant createdAt;
 
@@ -50,6 +65,14 @@ public class Product {
         this.id = id;
     }
 
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
     public String getName() {
         return name;
     }
@@ -82,6 +105,14 @@ public class Product {
         this.stock = stock;
     }
 
+    public Long getInventoryJournalSeq() {
+        return inventoryJournalSeq;
+    }
+
+    public void setInventoryJournalSeq(Long inventoryJournalSeq) {
+        this.inventoryJournalSeq = inventoryJournalSeq;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,117 @@
+package org.example.ecommercebackend.model;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * StockHold entity representing a time-boxed reservation of product stock
+ * made when a user adds the product to their cart; one per user and product.
+ * Expired holds are ignored by every read and removed by the TTL index on expiresAt.
+ */
+@Document(collection = "stock_holds")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_product_hold_idx", def = "{'userId': 1, 'productId': 1}", unique = true),
+        @CompoundIndex(name = "product_expiry_idx", def = "{'productId': 1, 'expiresAt': 1}")
+})
+public class StockHold {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String productId;
+
+    private Integer quantity;
+
+    @Indexed(name = "hold_expiry_ttl_idx", expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    @CreatedDate
+    private Instant createdAt;
+
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    public StockHold() {
+    }
+
+    public StockHold(String userId, String productId, Integer quantity, Instant expiresAt) {
+        this.userId = userId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Check if the hold is still active at the given time.
+     */
+    public boolean isActive(Instant now) {
+        return this.expiresAt != null && this.expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.ecommercebackend.model.enums;
+
+/**
+ * Enum representing the status of a flash-sale purchase ticket.
+ */
+public enum FlashSaleTicketStatus {
+
+    QUEUED,     // Waiting in the product's admission queue
+    CONFIRMED,  // Purchase completed, order created
+    SOLD_OUT,   // No stock left for this request
+    REJECTED,   // Admission queue was full
+    FAILED      // Purchase could not be completed
+}
@@ -0,0 +1,10 @@
+package org.example.ecommercebackend.model.enums;
+
+/**
+ * Enum representing the status of an idempotent request.
+ */
+public enum IdempotencyStatus {
+
+    IN_PROGRESS,    // First request with this key is being processed
+    COMPLETED       // Request finished, result can be replayed
+}
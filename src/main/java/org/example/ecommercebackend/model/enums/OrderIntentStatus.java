@@ -0,0 +1,12 @@
+package org.example.ecommercebackend.model.enums;
+
+/**
+ * Enum representing the status of an asynchronous checkout (order intent).
+ */
+public enum OrderIntentStatus {
+
+    PENDING,        // Accepted, waiting for the checkout worker
+    PROCESSING,     // Claimed by a checkout worker until its lease expires
+    COMPLETED,      // Order created, cart cleared
+    FAILED          // Checkout rejected (e.g., empty cart or insufficient stock)
+}
@@ -0,0 +1,10 @@
+package org.example.ecommercebackend.model.enums;
+
+/**
+ * Enum representing the body formats accepted by the bulk product import.
+ */
+public enum ProductImportFormat {
+
+    NDJSON,     // One JSON object per line
+    CSV         // Header row, then one product per line
+}
@@ -0,0 +1,12 @@
+package org.example.ecommercebackend.model.enums;
+
+/**
+ * Enum representing the orders the catalog query can return products in.
+ * Ties are broken by _id so every order is total and can be paged by cursor.
+ */
+public enum ProductSort {
+
+    PRICE_ASC,      // Cheapest first
+    PRICE_DESC,     // Most expensive first
+    NEWEST          // Most recently created first
+}
@@ -4,6 +4,7 @@ import org.example.ecommercebackend.model.CartItem;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,23 +13,38 @@ import java.util.Optional;
  * Provides CRUD operations and custom queries for cart items.
  */
 @Repository
-public interface CartItemRepository extends MongoRepository<CartItem, String> {
+public interface CartItemRepository extends MongoRepository<CartItem, String>, CartItemRepositoryCustom {
 
     /**
      * Find all cart items for a user.
      */
     List<CartItem> findByUserId(String userId);
 
+    /**
+     * Find all cart items for several users.
+     */
+    List<CartItem> findByUserIdIn(Collection<String> userIds);
+
     /**
      * Find a specific cart item by user and product.
      */
     Optional<CartItem> findByUserIdAndProductId(String userId, String productId);
 
+    /**
+     * Find several cart items of a user by product.
+     */
+    List<CartItem> findByUserIdAndProductIdIn(String userId, Collection<String> productIds);
+
     /**
      * Delete all cart items for a user.
      */
     void deleteByUserId(String userId);
 
+    /**
+     * Delete all cart items for several users.
+     */
+    void deleteByUserIdIn(Collection<String> userIds);
+
     /**
      * Count cart items for a user.
      */
@@ -0,0 +1,34 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.CartItem;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Custom repository operations for CartItem that are executed as
+ * targeted server-side updates instead of find-then-save.
+ */
+public interface CartItemRepositoryCustom {
+
+    /**
+     * Atomically add quantity to a cart line, creating it if needed, as long as the
+     * line's new quantity does not exceed maxQuantity.
+     * Returns the line as updated, or empty if the guard rejected the change.
+     */
+    Optional<CartItem> incrementQuantity(String userId, String productId, int quantity, int maxQuantity);
+
+    /**
+     * Add quantities to several lines of one user's cart in a single bulk write,
+     * each guarded like incrementQuantity. Both maps are keyed by product ID.
+     * Returns the product IDs whose lines were updated.
+     */
+    Set<String> incrementQuantities(String userId, Map<String, Integer> quantities,
+                                    Map<String, Integer> maxQuantities);
+
+    /**
+     * Take quantity back off a cart line, removing the line once nothing is left.
+     */
+    void decrementQuantity(String userId, String productId, int quantity);
+}
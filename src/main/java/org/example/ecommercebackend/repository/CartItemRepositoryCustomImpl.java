@@ -0,0 +1,129 @@
+package org.example.ecommercebackend.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.example.ecommercebackend.model.CartItem;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * MongoTemplate-backed implementation of CartItemRepositoryCustom.
+ *
+ * Adding to a line is one guarded upsert: it matches the line only while the new
+ * quantity stays within the guard, and creates the line if it is missing. When the
+ * line exists but the guard rejects it, the upsert tries to insert a second line for
+ * the same user and product and fails on the unique index, which is how a rejected
+ * guard is recognised. The same failure comes from two adds inserting a missing line
+ * at once, so a duplicate key error is retried once; by then the line exists.
+ */
+public class CartItemRepositoryCustomImpl implements CartItemRepositoryCustom {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public CartItemRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<CartItem> incrementQuantity(String userId, String productId, int quantity, int maxQuantity) {
+        if (quantity > maxQuantity) {
+            return Optional.empty();
+        }
+
+        Query guarded = guardedLineQuery(userId, productId, quantity, maxQuantity);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                return Optional.of(mongoTemplate.findAndModify(guarded, incrementUpdate(quantity, Instant.now()),
+                        options, CartItem.class));
+            } catch (DuplicateKeyException e) {
+                // The guard rejected an existing line, or a concurrent add inserted it first
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Set<String> incrementQuantities(String userId, Map<String, Integer> quantities,
+                                           Map<String, Integer> maxQuantities) {
+        List<String> pending = quantities.keySet().stream()
+                .filter(productId -> quantities.get(productId) <= maxQuantities.get(productId))
+                .collect(Collectors.toList());
+
+        Set<String> applied = new HashSet<>();
+        for (int attempt = 0; attempt < 2 && !pending.isEmpty(); attempt++) {
+            Instant now = Instant.now();
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CartItem.class);
+            for (String productId : pending) {
+                int quantity = quantities.get(productId);
+                bulkOps.upsert(guardedLineQuery(userId, productId, quantity, maxQuantities.get(productId)),
+                        incrementUpdate(quantity, now));
+            }
+
+            // Every line not reported as a duplicate key was applied
+            List<String> rejected = new ArrayList<>();
+            try {
+                bulkOps.execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                        throw e;
+                    }
+                    rejected.add(pending.get(error.getIndex()));
+                }
+            }
+            pending.removeAll(rejected);
+            applied.addAll(pending);
+            pending = rejected;
+        }
+        return applied;
+    }
+
+    @Override
+    public void decrementQuantity(String userId, String productId, int quantity) {
+        Query line = Query.query(Criteria.where("userId").is(userId).and("productId").is(productId));
+        CartItem updated = mongoTemplate.findAndModify(line, new Update()
+                        .inc("quantity", -quantity)
+                        .set("updatedAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true), CartItem.class);
+        if (updated != null && updated.getQuantity() <= 0) {
+            // Guarded, in case another add has refilled the line since
+            mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId)
+                    .and("productId").is(productId)
+                    .and("quantity").lte(0)), CartItem.class);
+        }
+    }
+
+    /**
+     * Match a cart line only while adding quantity keeps it within maxQuantity;
+     * as an upsert filter, its userId and productId also seed a new line.
+     */
+    private static Query guardedLineQuery(String userId, String productId, int quantity, int maxQuantity) {
+        return Query.query(Criteria.where("userId").is(userId)
+                .and("productId").is(productId)
+                .and("quantity").lte(maxQuantity - quantity));
+    }
+
+    private static Update incrementUpdate(int quantity, Instant now) {
+        return new Update()
+                .inc("quantity", quantity)
+                .set("updatedAt", now)
+                .setOnInsert("createdAt", now);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.Cart;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for Cart entity.
+ * Carts are keyed by user ID, so the inherited findById / deleteById
+ * already address a user's cart.
+ */
+@Repository
+public interface CartRepository extends MongoRepository<Cart, String>, CartRepositoryCustom {
+}
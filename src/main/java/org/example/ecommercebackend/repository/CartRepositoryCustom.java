@@ -0,0 +1,39 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.CartLine;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Custom repository operations for Cart that update single lines of the
+ * embedded items array in place instead of rewriting the document.
+ */
+public interface CartRepositoryCustom {
+
+    /**
+     * Atomically add quantity to a line of the user's cart, adding the line (and
+     * creating the cart) if needed, as long as the line's new quantity does not
+     * exceed maxQuantity. Returns the line as updated, or empty if the guard rejected the change.
+     */
+    Optional<CartLine> incrementLineQuantity(String userId, String productId, int quantity, int maxQuantity);
+
+    /**
+     * Take quantity back off a line of the user's cart, removing the line once nothing is left.
+     */
+    void decrementLineQuantity(String userId, String productId, int quantity);
+
+    /**
+     * Remove a product from the user's cart.
+     * Returns true if the cart held the product.
+     */
+    boolean removeLine(String userId, String productId);
+
+    /**
+     * Copy carts from cart_items rows last updated at or before the cutoff into
+     * carts documents, one per user, then delete those rows.
+     * Users who already have a carts document keep its lines; their rows for other
+     * products are added to it. Returns the number of rows moved.
+     */
+    long migrateFromCartItems(Instant cutoff);
+}
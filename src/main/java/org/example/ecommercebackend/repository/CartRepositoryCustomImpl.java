@@ -0,0 +1,175 @@
+package org.example.ecommercebackend.repository;
+
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.MergeOptions;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.example.ecommercebackend.model.Cart;
+import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.model.CartLine;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MongoTemplate-backed implementation of CartRepositoryCustom.
+ */
+public class CartRepositoryCustomImpl implements CartRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CartRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<CartLine> incrementLineQuantity(String userId, String productId, int quantity,
+                                                    int maxQuantity) {
+        if (quantity > maxQuantity) {
+            return Optional.empty();
+        }
+
+        // Two attempts: if the line is added concurrently between the positional
+        // update and the push, the second positional update sees it
+        for (int attempt = 0; attempt < 2; attempt++) {
+            CartLine updated = incrementExistingLine(userId, productId, quantity, maxQuantity);
+            if (updated != null) {
+                return Optional.of(updated);
+            }
+            CartLine added = pushLine(userId, productId, quantity);
+            if (added != null) {
+                return Optional.of(added);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Guarded positional $inc of an existing line, returning only that element.
+     * Returns null if the cart has no such line or the guard failed.
+     */
+    private CartLine incrementExistingLine(String userId, String productId, int quantity, int maxQuantity) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(userId)
+                .and("items").elemMatch(Criteria.where("productId").is(productId)
+                        .and("quantity").lte(maxQuantity - quantity)));
+        query.fields().elemMatch("items", Criteria.where("productId").is(productId));
+        Update update = new Update()
+                .inc("items.$.quantity", quantity)
+                .set("items.$.updatedAt", now)
+                .set("updatedAt", now);
+
+        Cart cart = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Cart.class);
+        return cart != null ? cart.getItems().get(0) : null;
+    }
+
+    /**
+     * Push a new line onto a cart that does not hold the product yet, or create the cart
+     * with just that line. The create is an upsert on _id that only sets fields on insert,
+     * so it leaves an existing cart untouched. Returns null if the cart exists and already
+     * holds the product.
+     */
+    private CartLine pushLine(String userId, String productId, int quantity) {
+        Instant now = Instant.now();
+        CartLine line = new CartLine(productId, quantity, now, now);
+        Query query = Query.query(Criteria.where("_id").is(userId).and("items.productId").ne(productId));
+        Update push = new Update()
+                .push("items", line)
+                .set("updatedAt", now);
+        if (mongoTemplate.updateFirst(query, push, Cart.class).getMatchedCount() == 1) {
+            return line;
+        }
+
+        Update create = new Update()
+                .setOnInsert("items", List.of(line))
+                .setOnInsert("createdAt", now)
+                .setOnInsert("updatedAt", now);
+        UpdateResult result = mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), create, Cart.class);
+        return result.getUpsertedId() != null ? line : null;
+    }
+
+    @Override
+    public void decrementLineQuantity(String userId, String productId, int quantity) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(userId).and("items.productId").is(productId));
+        query.fields().elemMatch("items", Criteria.where("productId").is(productId));
+        Update update = new Update()
+                .inc("items.$.quantity", -quantity)
+                .set("items.$.updatedAt", now)
+                .set("updatedAt", now);
+
+        Cart cart = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Cart.class);
+        if (cart != null && cart.getItems().get(0).getQuantity() <= 0) {
+            // Guarded, in case another add has refilled the line since
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                    new Update().pull("items", new Document("productId", productId)
+                                    .append("quantity", new Document("$lte", 0)))
+                            .set("updatedAt", now), Cart.class);
+        }
+    }
+
+    @Override
+    public boolean removeLine(String userId, String productId) {
+        Query query = Query.query(Criteria.where("_id").is(userId).and("items.productId").is(productId));
+        Update update = new Update()
+                .pull("items", new Document("productId", productId))
+                .set("updatedAt", Instant.now());
+
+        return mongoTemplate.updateFirst(query, update, Cart.class).getMatchedCount() == 1;
+    }
+
+    @Override
+    public long migrateFromCartItems(Instant cutoff) {
+        Bson migrated = Filters.lte("updatedAt", Date.from(cutoff));
+
+        // Group the rows into one cart per user and merge them into carts on the
+        // server; nothing is read into the application
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(CartItem.class))
+                .aggregate(List.of(
+                        Aggregates.match(migrated),
+                        Aggregates.group("$userId",
+                                Accumulators.push("items", new Document("productId", "$productId")
+                                        .append("quantity", "$quantity")
+                                        .append("createdAt", "$createdAt")
+                                        .append("updatedAt", "$updatedAt")),
+                                Accumulators.min("createdAt", "$createdAt"),
+                                Accumulators.max("updatedAt", "$updatedAt")),
+                        Aggregates.merge(mongoTemplate.getCollectionName(Cart.class), new MergeOptions()
+                                .uniqueIdentifier("_id")
+                                .whenMatched(MergeOptions.WhenMatched.PIPELINE)
+                                .whenMatchedPipeline(mergeIntoExistingCart())
+                                .whenNotMatched(MergeOptions.WhenNotMatched.INSERT))))
+                .toCollection();
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(CartItem.class))
+                .deleteMany(migrated)
+                .getDeletedCount();
+    }
+
+    /**
+     * Merge a user's migrated rows ($$new) into the carts document they already have:
+     * the cart's own lines win, and rows for products it does not hold are appended.
+     */
+    private static List<Bson> mergeIntoExistingCart() {
+        Document existingItems = new Document("$ifNull", List.of("$items", List.of()));
+        Document newLines = new Document("$filter", new Document("input", "$$new.items")
+                .append("cond", new Document("$not", List.of(new Document("$in", List.of(
+                        "$$this.productId", new Document("$ifNull", List.of("$items.productId", List.of())))))));
+        return List.of(new Document("$set", new Document("items",
+                new Document("$concatArrays", List.of(existingItems, newLines)))
+                .append("createdAt", new Document("$min", List.of("$createdAt", "$$new.createdAt")))
+                .append("updatedAt", new Document("$max", List.of("$updatedAt", "$$new.updatedAt")))));
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.ChangeStreamCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for ChangeStreamCheckpoint entity.
+ */
+@Repository
+public interface ChangeStreamCheckpointRepository extends MongoRepository<ChangeStreamCheckpoint, String> {
+}
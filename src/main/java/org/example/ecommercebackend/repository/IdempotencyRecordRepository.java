@@ -0,0 +1,13 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.IdempotencyRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for IdempotencyRecord entity.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends MongoRepository<IdempotencyRecord, String>,
+        IdempotencyRecordRepositoryCustom {
+}
@@ -0,0 +1,24 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.IdempotencyRecord;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Custom repository operations for IdempotencyRecord claims.
+ * A claim is identified by its claimedAt, so only its current holder can release it.
+ */
+public interface IdempotencyRecordRepositoryCustom {
+
+    /**
+     * Atomically take over an IN_PROGRESS record claimed before the cutoff, claiming it again at now.
+     * Returns the record as updated, or empty if it completed or its claim is still fresh.
+     */
+    Optional<IdempotencyRecord> takeOverStaleClaim(String id, Instant claimedBefore, Instant now);
+
+    /**
+     * Delete the record if it is still IN_PROGRESS under the given claim, so that the key can be retried.
+     */
+    void releaseClaim(String id, Instant claimedAt);
+}
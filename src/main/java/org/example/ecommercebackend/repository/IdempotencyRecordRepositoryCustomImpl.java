@@ -0,0 +1,41 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.IdempotencyRecord;
+import org.example.ecommercebackend.model.enums.IdempotencyStatus;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * MongoTemplate-backed implementation of IdempotencyRecordRepositoryCustom.
+ */
+public class IdempotencyRecordRepositoryCustomImpl implements IdempotencyRecordRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public IdempotencyRecordRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> takeOverStaleClaim(String id, Instant claimedBefore, Instant now) {
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .and("status").is(IdempotencyStatus.IN_PROGRESS)
+                .and("claimedAt").lt(claimedBefore));
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, new Update().set("claimedAt", now),
+                FindAndModifyOptions.options().returnNew(true), IdempotencyRecord.class));
+    }
+
+    @Override
+    public void releaseClaim(String id, Instant claimedAt) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)
+                .and("status").is(IdempotencyStatus.IN_PROGRESS)
+                .and("claimedAt").is(claimedAt)), IdempotencyRecord.class);
+    }
+}
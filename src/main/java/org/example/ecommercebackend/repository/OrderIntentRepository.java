@@ -0,0 +1,28 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.OrderIntent;
+import org.example.ecommercebackend.model.enums.OrderIntentStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for OrderIntent entity.
+ * Provides CRUD operations and custom queries for asynchronous checkouts.
+ */
+@Repository
+public interface OrderIntentRepository extends MongoRepository<OrderIntent, String>, OrderIntentRepositoryCustom {
+
+    /**
+     * Find intents with a status created before the given time, oldest first.
+     */
+    List<OrderIntent> findByStatusAndCreatedAtBeforeOrderByCreatedAtAsc(OrderIntentStatus status, Instant createdAt);
+
+    /**
+     * Find intents with a status whose lease expired before the given time, oldest first.
+     */
+    List<OrderIntent> findByStatusAndLeaseExpiresAtBeforeOrderByCreatedAtAsc(OrderIntentStatus status,
+                                                                             Instant leaseExpiresAt);
+}
@@ -0,0 +1,29 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.OrderIntent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom repository operations for OrderIntent.
+ */
+public interface OrderIntentRepositoryCustom {
+
+    /**
+     * Claim the given intents for one worker batch: those still PENDING, or PROCESSING
+     * under a lease that expired, move to PROCESSING under the claim ID and the new lease.
+     * Returns the intents this claim won, as stored; the others are being processed
+     * elsewhere or already have an outcome.
+     */
+    List<OrderIntent> claim(Collection<String> intentIds, String claimId, Instant leaseExpiresAt, Instant now);
+
+    /**
+     * Write the outcome (status, order id, failure reason) of many intents in a single bulk write.
+     * Only intents still PROCESSING under the given claim are updated, so an outcome
+     * can never overwrite one that was already recorded, nor one of a worker that
+     * took the intent over after this claim's lease expired.
+     */
+    void saveOutcomes(List<OrderIntent> intents, String claimId);
+}
@@ -0,0 +1,70 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.OrderIntent;
+import org.example.ecommercebackend.model.enums.OrderIntentStatus;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * MongoTemplate-backed implementation of OrderIntentRepositoryCustom.
+ */
+public class OrderIntentRepositoryCustomImpl implements OrderIntentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public OrderIntentRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<OrderIntent> claim(Collection<String> intentIds, String claimId, Instant leaseExpiresAt,
+                                   Instant now) {
+        if (intentIds.isEmpty()) {
+            return List.of();
+        }
+
+        // Each document moves to PROCESSING atomically, so of two concurrent claims only one
+        // matches it; the claim ID is unique to this batch, so reading it back finds exactly
+        // the intents this claim won
+        Query claimable = Query.query(Criteria.where("_id").in(intentIds).orOperator(
+                Criteria.where("status").is(OrderIntentStatus.PENDING),
+                Criteria.where("status").is(OrderIntentStatus.PROCESSING).and("leaseExpiresAt").lt(now)));
+        mongoTemplate.updateMulti(claimable, new Update()
+                .set("status", OrderIntentStatus.PROCESSING)
+                .set("claimId", claimId)
+                .set("leaseExpiresAt", leaseExpiresAt)
+                .set("updatedAt", now), OrderIntent.class);
+
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(intentIds)
+                .and("claimId").is(claimId)), OrderIntent.class);
+    }
+
+    @Override
+    public void saveOutcomes(List<OrderIntent> intents, String claimId) {
+        if (intents.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderIntent.class);
+        for (OrderIntent intent : intents) {
+            Query query = Query.query(Criteria.where("_id").is(intent.getId())
+                    .and("status").is(OrderIntentStatus.PROCESSING)
+                    .and("claimId").is(claimId));
+            Update update = new Update()
+                    .set("status", intent.getStatus())
+                    .set("orderId", intent.getOrderId())
+                    .set("failureReason", intent.getFailureReason())
+                    .set("updatedAt", intent.getUpdatedAt())
+                    .unset("leaseExpiresAt");
+            bulkOps.updateOne(query, update);
+        }
+        bulkOps.execute();
+    }
+}
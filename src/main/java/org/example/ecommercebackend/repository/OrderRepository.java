@@ -12,7 +12,7 @@ import java.util.List;
  * Provides CRUD operations and custom queries for orders.
  */
 @Repository
-public interface OrderRepository extends MongoRepository<Order, String> {
+public interface OrderRepository extends MongoRepository<Order, String>, OrderRepositoryCustom {
 
     /**
      * Find all orders for a user.
@@ -0,0 +1,36 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.Order;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Custom repository operations for Order.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Insert orders with preassigned ids in a single unordered bulk write.
+     * Returns the ids of orders that already existed and were therefore not inserted.
+     */
+    Set<String> insertAllIfAbsent(List<Order> orders);
+
+    /**
+     * Find one page of a user's orders, newest first.
+     * When a cursor (createdAt, id) is given, only orders strictly after it in that order are returned.
+     */
+    List<Order> findPageByUserId(String userId, Instant cursorCreatedAt, String cursorId, int limit);
+
+    /**
+     * Same page as findPageByUserId, projected to summaries (no items are read back).
+     */
+    List<OrderSummary> findSummaryPageByUserId(String userId, Instant cursorCreatedAt, String cursorId, int limit);
+
+    /**
+     * Read only the status and updatedAt of an order, enough to validate a cached copy.
+     */
+    Optional<Order> findVersionById(String orderId);
+}
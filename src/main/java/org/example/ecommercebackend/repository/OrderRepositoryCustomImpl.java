@@ -0,0 +1,105 @@
+package org.example.ecommercebackend.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.example.ecommercebackend.model.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * MongoTemplate-backed implementation of OrderRepositoryCustom.
+ */
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private static final Sort HISTORY_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("_id"));
+
+    private final MongoTemplate mongoTemplate;
+
+    public OrderRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Set<String> insertAllIfAbsent(List<Order> orders) {
+        Set<String> existingIds = new HashSet<>();
+        if (orders.isEmpty()) {
+            return existingIds;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        bulkOps.insert(orders);
+
+        try {
+            bulkOps.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                    throw e;
+                }
+                existingIds.add(orders.get(error.getIndex()).getId());
+            }
+        }
+        return existingIds;
+    }
+
+    @Override
+    public List<Order> findPageByUserId(String userId, Instant cursorCreatedAt, String cursorId, int limit) {
+        Query query = Query.query(userPageCriteria(userId, cursorCreatedAt, cursorId))
+                .with(HISTORY_SORT)
+                .limit(limit);
+
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    @Override
+    public List<OrderSummary> findSummaryPageByUserId(String userId, Instant cursorCreatedAt, String cursorId,
+                                                      int limit) {
+        // Same index range scan as findPageByUserId, but the server replaces
+        // the items array with its size before anything is sent back
+        TypedAggregation<Order> aggregation = Aggregation.newAggregation(Order.class,
+                Aggregation.match(userPageCriteria(userId, cursorCreatedAt, cursorId)),
+                Aggregation.sort(HISTORY_SORT),
+                Aggregation.limit(limit),
+                Aggregation.project("status", "totalAmount", "createdAt")
+                        .and("items").size().as("itemCount")
+        );
+
+        return mongoTemplate.aggregate(aggregation, OrderSummary.class).getMappedResults();
+    }
+
+    /**
+     * Match a user's orders, seeking past the cursor on (createdAt desc, _id desc)
+     * so a page is one range scan on the user/createdAt/_id index.
+     */
+    private Criteria userPageCriteria(String userId, Instant cursorCreatedAt, String cursorId) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (cursorCreatedAt != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(cursorCreatedAt),
+                    Criteria.where("createdAt").is(cursorCreatedAt).and("_id").lt(cursorId)
+            );
+        }
+        return criteria;
+    }
+
+    @Override
+    public Optional<Order> findVersionById(String orderId) {
+        Query query = Query.query(Criteria.where("_id").is(orderId));
+        query.fields().include("status", "updatedAt");
+
+        return Optional.ofNullable(mongoTemplate.findOne(query, Order.class));
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.enums.OrderStatus;
+
+import java.time.Instant;
+
+/**
+ * Projection of an order for history listings: the items array is
+ * reduced to its size on the server and never sent to the application.
+ */
+public class OrderSummary {
+
+    private String id;
+
+    private OrderStatus status;
+
+    private Double totalAmount;
+
+    private Integer itemCount;
+
+    private Instant createdAt;
+
+    public OrderSummary() {
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.enums.ProductSort;
+
+import java.time.Instant;
+
+/**
+ * Filters, order and cursor position of one catalog query page.
+ * The cursor is the sort key and _id of the last product of the previous page:
+ * afterPrice for the price orders, afterCreatedAt for NEWEST.
+ */
+public class ProductCatalogQuery {
+
+    private final boolean inStock;
+
+    private final Double minPrice;
+
+    private final Double maxPrice;
+
+    private final ProductSort sort;
+
+    private final Double afterPrice;
+
+    private final Instant afterCreatedAt;
+
+    private final String afterId;
+
+    public ProductCatalogQuery(boolean inStock, Double minPrice, Double maxPrice, ProductSort sort,
+                               Double afterPrice, Instant afterCreatedAt, String afterId) {
+        this.inStock = inStock;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.sort = sort;
+        this.afterPrice = afterPrice;
+        this.afterCreatedAt = afterCreatedAt;
+        this.afterId = afterId;
+    }
+
+    public boolean isInStock() {
+        return inStock;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public ProductSort getSort() {
+        return sort;
+    }
+
+    public Double getAfterPrice() {
+        return afterPrice;
+    }
+
+    public Instant getAfterCreatedAt() {
+        return afterCreatedAt;
+    }
+
+    public String getAfterId() {
+        return afterId;
+    }
+
+    /**
+     * Check if this query continues from a previous page.
+     */
+    public boolean hasCursor() {
+        return afterId != null;
+    }
+}
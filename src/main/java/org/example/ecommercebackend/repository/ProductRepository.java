@@ -1,17 +1,21 @@
 package org.example.ecommercebackend.repository;
 
 import org.example.ecommercebackend.model.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Product entity.
  * Provides CRUD operations and custom queries for products.
  */
 @Repository
-public interface ProductRepository extends MongoRepository<Product, String> {
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
 
     /**
      * Find products by name containing the search term (case-insensitive).
@@ -27,4 +31,26 @@ public interface ProductRepository extends MongoRepository<Product, String> {
      * Check if a product with the given name exists.
      */
     boolean existsByName(String name);
+
+    /**
+     * Find the products among the given IDs that have one of the given SKUs.
+     */
+    List<Product> findByIdInAndSkuIn(Collection<String> ids, Collection<String> skus);
+
+    /**
+     * Find the first products in _id order (first keyset page).
+     */
+    List<Product> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Find the products after the given id in _id order (following keyset pages).
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    /**
+     * Stream all products from a server-side cursor, fetched in batches.
+     * The stream must be closed after use.
+     */
+    @Meta(cursorBatchSize = 500)
+    Stream<Product> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,57 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom repository operations for Product that are executed as
+ * targeted server-side updates instead of full-document saves.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Atomically decrement stock if at least the given quantity is available.
+     * Returns true if the stock was decremented.
+     */
+    boolean decrementStockIfAvailable(String productId, int quantity);
+
+    /**
+     * Atomically increment stock (e.g., for rollback or order cancellation).
+     * Returns true if the product exists.
+     */
+    boolean incrementStock(String productId, int quantity);
+
+    /**
+     * Apply many stock adjustments, each as its own atomic update.
+     * Deductions are guarded (stock >= quantity); the result reports which lines were applied.
+     */
+    StockAdjustmentResult applyStockAdjustments(List<StockAdjustment> adjustments);
+
+    /**
+     * Read only the current stock of a product.
+     */
+    Optional<Integer> findStockById(String productId);
+
+    /**
+     * Read only the current stock of several products in one query, keyed by product ID.
+     */
+    Map<String, Integer> findStockByIds(Collection<String> productIds);
+
+    /**
+     * Insert or update products by SKU in a single unordered bulk write.
+     * Catalog fields and stock are overwritten; createdAt is only set on insert.
+     * A null stock leaves the stored stock unchanged (used for hot products, whose
+     * stock is owned by HotInventoryEngine).
+     */
+    ProductUpsertResult upsertAllBySku(List<Product> products);
+
+    /**
+     * Get one page of the catalog, filtered and ordered as the query describes and
+     * continuing after its cursor. Served by a single range scan on a catalog index.
+     */
+    List<Product> findCatalogPage(ProductCatalogQuery query, int limit);
+}
@@ -0,0 +1,205 @@
+package org.example.ecommercebackend.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.model.enums.ProductSort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * MongoTemplate-backed implementation of ProductRepositoryCustom.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductRepositoryCustomImpl.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public ProductRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean decrementStockIfAvailable(String productId, int quantity) {
+        // The stock guard is part of the filter, so the check and the decrement
+        // happen in one atomic operation on the server
+        Query query = Query.query(Criteria.where("_id").is(productId)
+                .and("stock").gte(quantity));
+        Update update = new Update()
+                .inc("stock", -quantity)
+                .set("updatedAt", Instant.now());
+
+        return mongoTemplate.updateFirst(query, update, Product.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public boolean incrementStock(String productId, int quantity) {
+        Query query = Query.query(Criteria.where("_id").is(productId));
+        Update update = new Update()
+                .inc("stock", quantity)
+                .set("updatedAt", Instant.now());
+
+        return mongoTemplate.updateFirst(query, update, Product.class).getMatchedCount() == 1;
+    }
+
+    @Override
+    public StockAdjustmentResult applyStockAdjustments(List<StockAdjustment> adjustments) {
+        boolean[] applied = new boolean[adjustments.size()];
+        Instant now = Instant.now();
+
+        // One guarded update per line: a bulk write only reports how many lines matched
+        // in total, which cannot say which ones did when several touch the same product
+        for (int i = 0; i < adjustments.size(); i++) {
+            StockAdjustment adjustment = adjustments.get(i);
+            Criteria criteria = Criteria.where("_id").is(adjustment.getProductId());
+            if (adjustment.isDeduction()) {
+                // The stock guard is part of the filter, as in decrementStockIfAvailable
+                criteria.and("stock").gte(-adjustment.getDelta());
+            }
+            Update update = new Update()
+                    .inc("stock", adjustment.getDelta())
+                    .set("updatedAt", now);
+
+            applied[i] = mongoTemplate.updateFirst(Query.query(criteria), update, Product.class)
+                    .getModifiedCount() == 1;
+        }
+
+        StockAdjustmentResult result = new StockAdjustmentResult(adjustments, applied);
+        if (!result.isAllApplied()) {
+            logger.debug("{} of {} stock adjustment(s) applied", result.getApplied().size(), adjustments.size());
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<Integer> findStockById(String productId) {
+        Query query = Query.query(Criteria.where("_id").is(productId));
+        query.fields().include("stock");
+
+        return Optional.ofNullable(mongoTemplate.findOne(query, Product.class))
+                .map(Product::getStock);
+    }
+
+    @Override
+    public Map<String, Integer> findStockByIds(Collection<String> productIds) {
+        Map<String, Integer> stockById = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return stockById;
+        }
+
+        Query query = Query.query(Criteria.where("_id").in(productIds));
+        query.fields().include("stock");
+
+        for (Product product : mongoTemplate.find(query, Product.class)) {
+            stockById.put(product.getId(), product.getStock());
+        }
+        return stockById;
+    }
+
+    @Override
+    public ProductUpsertResult upsertAllBySku(List<Product> products) {
+        if (products.isEmpty()) {
+            return new ProductUpsertResult(0, 0, Map.of());
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+
+        for (Product product : products) {
+            Query query = Query.query(Criteria.where("sku").is(product.getSku()));
+            Update update = new Update()
+                    .set("name", product.getName())
+                    .set("description", product.getDescription())
+                    .set("price", product.getPrice())
+                    .set("updatedAt", now)
+                    .setOnInsert("createdAt", now);
+            if (product.getStock() != null) {
+                update.set("stock", product.getStock());
+            }
+            bulkOps.upsert(query, update);
+        }
+
+        Map<Integer, String> failures = new HashMap<>();
+        BulkWriteResult result;
+        try {
+            result = bulkOps.execute();
+        } catch (BulkOperationException e) {
+            // Typically a duplicate key from a concurrent import inserting the same SKU
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+            result = e.getResult();
+        }
+
+        return new ProductUpsertResult(result.getUpserts().size(), result.getMatchedCount(), failures);
+    }
+
+    @Override
+    public List<Product> findCatalogPage(ProductCatalogQuery query, int limit) {
+        return mongoTemplate.find(catalogQuery(query, limit), Product.class);
+    }
+
+    /**
+     * Build the catalog page query. Each order is pinned to the index that already
+     * yields it, so a narrow price range cannot tempt the planner into a scan on
+     * another index followed by an in-memory sort.
+     */
+    static Query catalogQuery(ProductCatalogQuery catalogQuery, int limit) {
+        boolean newest = catalogQuery.getSort() == ProductSort.NEWEST;
+        String sortField = newest ? "createdAt" : "price";
+        Sort.Direction direction = catalogQuery.getSort() == ProductSort.PRICE_ASC
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+
+        List<Criteria> filters = new ArrayList<>();
+        if (catalogQuery.isInStock()) {
+            filters.add(Criteria.where("stock").gt(0));
+        }
+        if (catalogQuery.getMinPrice() != null || catalogQuery.getMaxPrice() != null) {
+            Criteria price = Criteria.where("price");
+            if (catalogQuery.getMinPrice() != null) {
+                price.gte(catalogQuery.getMinPrice());
+            }
+            if (catalogQuery.getMaxPrice() != null) {
+                price.lte(catalogQuery.getMaxPrice());
+            }
+            filters.add(price);
+        }
+        if (catalogQuery.hasCursor()) {
+            // Seek with one range on the sort key and drop the ties already returned;
+            // an $or of (key past cursor, key equal and _id past cursor) would split the scan
+            Object after = newest ? catalogQuery.getAfterCreatedAt() : catalogQuery.getAfterPrice();
+            Criteria tiesReturned = Criteria.where(sortField).is(after).and("_id");
+            if (direction == Sort.Direction.ASC) {
+                filters.add(Criteria.where(sortField).gte(after));
+                tiesReturned.lte(catalogQuery.getAfterId());
+            } else {
+                filters.add(Criteria.where(sortField).lte(after));
+                tiesReturned.gte(catalogQuery.getAfterId());
+            }
+            filters.add(new Criteria().norOperator(tiesReturned));
+        }
+
+        Criteria criteria = filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+        return Query.query(criteria)
+                .with(Sort.by(direction, sortField, "_id"))
+                .withHint(newest ? "catalog_newest_idx" : "catalog_price_idx")
+                .limit(limit);
+    }
+}
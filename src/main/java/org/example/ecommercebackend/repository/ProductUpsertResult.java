@@ -0,0 +1,34 @@
+package org.example.ecommercebackend.repository;
+
+import java.util.Map;
+
+/**
+ * Outcome of a bulk product upsert.
+ * Failures are keyed by the index of the product in the request.
+ */
+public class ProductUpsertResult {
+
+    private final int inserted;
+
+    private final int updated;
+
+    private final Map<Integer, String> failures;
+
+    public ProductUpsertResult(int inserted, int updated, Map<Integer, String> failures) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.failures = failures;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public Map<Integer, String> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.ecommercebackend.repository;
+
+/**
+ * A single stock change for one product, applied as one line of a batch of adjustments.
+ * A negative delta is a deduction and is only applied if enough stock is available.
+ */
+public class StockAdjustment {
+
+    private final String productId;
+
+    private final int delta;
+
+    public StockAdjustment(String productId, int delta) {
+        this.productId = productId;
+        this.delta = delta;
+    }
+
+    public static StockAdjustment deduct(String productId, int quantity) {
+        return new StockAdjustment(productId, -quantity);
+    }
+
+    public static StockAdjustment restore(String productId, int quantity) {
+        return new StockAdjustment(productId, quantity);
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    /**
+     * Check if this adjustment removes stock (and is therefore guarded).
+     */
+    public boolean isDeduction() {
+        return delta < 0;
+    }
+}
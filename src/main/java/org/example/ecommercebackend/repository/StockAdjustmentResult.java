@@ -0,0 +1,60 @@
+package org.example.ecommercebackend.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-line outcome of a batch of stock adjustments.
+ * Line i of the result corresponds to adjustment i of the request.
+ */
+public class StockAdjustmentResult {
+
+    private final List<StockAdjustment> adjustments;
+
+    private final boolean[] applied;
+
+    public StockAdjustmentResult(List<StockAdjustment> adjustments, boolean[] applied) {
+        this.adjustments = adjustments;
+        this.applied = applied;
+    }
+
+    public boolean isApplied(int index) {
+        return applied[index];
+    }
+
+    /**
+     * Check if every adjustment in the batch was applied.
+     */
+    public boolean isAllApplied() {
+        for (boolean lineApplied : applied) {
+            if (!lineApplied) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the adjustments that were applied.
+     */
+    public List<StockAdjustment> getApplied() {
+        return select(true);
+    }
+
+    /**
+     * Get the adjustments that were rejected (insufficient stock or missing product).
+     */
+    public List<StockAdjustment> getFailed() {
+        return select(false);
+    }
+
+    private List<StockAdjustment> select(boolean wanted) {
+        List<StockAdjustment> selected = new ArrayList<>();
+        for (int i = 0; i < applied.length; i++) {
+            if (applied[i] == wanted) {
+                selected.add(adjustments.get(i));
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.dto.request.CreateOrderRequest;
+import org.example.ecommercebackend.dto.response.OrderIntentResponse;
+
+/**
+ * Service interface for asynchronous checkout operations.
+ */
+public interface AsyncCheckoutService {
+
+    /**
+     * Persist a pending order intent and queue it for the checkout worker.
+     * Throws CheckoutQueueFullException if the queue is full.
+     */
+    OrderIntentResponse submit(CreateOrderRequest request);
+
+    /**
+     * Get the current state of an order intent.
+     */
+    OrderIntentResponse getIntent(String intentId);
+}
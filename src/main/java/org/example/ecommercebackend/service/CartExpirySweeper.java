@@ -0,0 +1,243 @@
+package org.example.ecommercebackend.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.example.ecommercebackend.model.Cart;
+import org.example.ecommercebackend.model.CartItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Removes abandoned carts: carts whose last change is older than the idle window.
+ *
+ * A cart's last change is its newest line's updatedAt in cart_items, and the cart's
+ * own updatedAt with the document store. The sweeper runs in the background and removes
+ * idle carts in batches, oldest first, optionally copying each batch to
+ * cart_items_archive or carts_archive first. In cart_items, lines are only removed
+ * together with the rest of their cart, so an old line in a cart changed recently stays.
+ *
+ * Carts documents also get a TTL index on updatedAt that expires them one grace period
+ * after the idle window, as a backstop for when no node runs the sweeper; it is created
+ * here rather than on the entity so that a changed window is applied to the existing
+ * index. cart_items gets none, since a TTL index can only expire lines one by one.
+ * Stock holds expire on their own and are not touched.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class CartExpirySweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartExpirySweeper.class);
+
+    private static final String TTL_INDEX = "cart_expiry_ttl_idx";
+    private static final String IDLE_INDEX = "cart_expiry_updated_idx";
+    private static final String ARCHIVE_SUFFIX = "_archive";
+
+    private static final int INDEX_NOT_FOUND = 27;
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+
+    private final MongoTemplate mongoTemplate;
+    private final String cartItems;
+    // Null unless the document store is used
+    private final String carts;
+    private final Duration idleWindow;
+    private final Duration ttlGrace;
+    private final int batchSize;
+    private final boolean archive;
+
+    // Only touched by the scheduler thread
+    private long sweptSinceStartup;
+
+    public CartExpirySweeper(MongoTemplate mongoTemplate,
+                             @Value("${cart.store:items}") String cartStore,
+                             @Value("${cart.expiry.idle-days:30}") long idleDays,
+                             @Value("${cart.expiry.ttl-grace-hours:24}") long ttlGraceHours,
+                             @Value("${cart.expiry.batch-size:500}") int batchSize,
+                             @Value("${cart.expiry.archive:false}") boolean archive) {
+        this.mongoTemplate = mongoTemplate;
+        // The memory store writes behind to cart_items, so only the document store adds a collection
+        this.cartItems = mongoTemplate.getCollectionName(CartItem.class);
+        this.carts = cartStore.equals("document") ? mongoTemplate.getCollectionName(Cart.class) : null;
+        this.idleWindow = Duration.ofDays(idleDays);
+        this.ttlGrace = Duration.ofHours(ttlGraceHours);
+        this.batchSize = batchSize;
+        this.archive = archive;
+    }
+
+    /**
+     * Create the TTL index on carts, or change its expiry if the idle window was changed,
+     * and give cart_items a plain index on updatedAt in place of the per-line TTL index
+     * earlier versions created.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTtlIndexes() {
+        MongoCollection<Document> lines = mongoTemplate.getCollection(cartItems);
+        try {
+            lines.dropIndex(TTL_INDEX);
+        } catch (MongoException e) {
+            if (e.getCode() != INDEX_NOT_FOUND) {
+                throw e;
+            }
+        }
+        lines.createIndex(Indexes.ascending("updatedAt"), new IndexOptions().name(IDLE_INDEX));
+
+        if (carts == null) {
+            logger.info("Abandoned carts expire after {} day(s) idle", idleWindow.toDays());
+            return;
+        }
+        long expireAfterSeconds = idleWindow.plus(ttlGrace).toSeconds();
+        try {
+            mongoTemplate.getCollection(carts).createIndex(Indexes.ascending("updatedAt"),
+                    new IndexOptions().name(TTL_INDEX).expireAfter(expireAfterSeconds, TimeUnit.SECONDS));
+        } catch (MongoException e) {
+            if (e.getCode() != INDEX_OPTIONS_CONFLICT) {
+                throw e;
+            }
+            mongoTemplate.getDb().runCommand(new Document("collMod", carts)
+                    .append("index", new Document("name", TTL_INDEX)
+                            .append("expireAfterSeconds", expireAfterSeconds)));
+        }
+        logger.info("Abandoned carts expire after {} day(s) idle (TTL backstop on {} after {} s)",
+                idleWindow.toDays(), carts, expireAfterSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.expiry.sweep-interval-ms:3600000}")
+    public void sweep() {
+        long start = System.nanoTime();
+        Bson idle = Filters.lt("updatedAt", Date.from(Instant.now().minus(idleWindow)));
+
+        long swept = sweepLines(idle);
+        if (carts != null) {
+            swept += sweep(carts, idle);
+        }
+        if (swept == 0) {
+            return;
+        }
+
+        sweptSinceStartup += swept;
+        logger.info("Swept {} abandoned cart entries{} in {} ms ({} since startup)",
+                swept, archive ? " into the archive" : "", (System.nanoTime() - start) / 1_000_000,
+                sweptSinceStartup);
+    }
+
+    /**
+     * Remove the cart_items lines of carts whose every line is idle. Users are read
+     * from the idle lines, oldest first, in batches; those with a line changed within
+     * the window are skipped.
+     */
+    private long sweepLines(Bson idle) {
+        MongoCollection<Document> source = mongoTemplate.getCollection(cartItems);
+        Set<String> seen = new HashSet<>();
+        Set<String> batch = new LinkedHashSet<>();
+        long swept = 0;
+        for (Document line : source.find(idle)
+                .sort(Sorts.ascending("updatedAt"))
+                .projection(new Document("userId", 1))) {
+            String userId = line.getString("userId");
+            if (seen.add(userId)) {
+                batch.add(userId);
+            }
+            if (batch.size() == batchSize) {
+                swept += sweepCarts(source, batch, idle);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            swept += sweepCarts(source, batch, idle);
+        }
+        return swept;
+    }
+
+    private long sweepCarts(MongoCollection<Document> source, Set<String> userIds, Bson idle) {
+        Set<String> idleUsers = new HashSet<>(userIds);
+        source.find(Filters.and(Filters.in("userId", userIds), Filters.not(idle)))
+                .projection(new Document("userId", 1))
+                .forEach(active -> idleUsers.remove(active.getString("userId")));
+        if (idleUsers.isEmpty()) {
+            return 0;
+        }
+
+        Bson idleCarts = Filters.in("userId", idleUsers);
+        if (archive) {
+            archive(mongoTemplate.getCollection(cartItems + ARCHIVE_SUFFIX),
+                    source.find(idleCarts).into(new ArrayList<>()));
+        }
+        // A line added since the check above is not idle and stays
+        return source.deleteMany(Filters.and(idleCarts, idle)).getDeletedCount();
+    }
+
+    private long sweep(String collection, Bson idle) {
+        MongoCollection<Document> source = mongoTemplate.getCollection(collection);
+        long swept = 0;
+        while (true) {
+            List<Document> batch = source.find(idle)
+                    .sort(Sorts.ascending("updatedAt"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                return swept;
+            }
+
+            if (archive) {
+                archive(mongoTemplate.getCollection(collection + ARCHIVE_SUFFIX), batch);
+            }
+
+            // Entries touched since they were read are no longer idle and stay
+            List<Object> ids = batch.stream()
+                    .map(document -> document.get("_id"))
+                    .collect(Collectors.toList());
+            swept += source.deleteMany(Filters.and(Filters.in("_id", ids), idle)).getDeletedCount();
+
+            if (batch.size() < batchSize) {
+                return swept;
+            }
+        }
+    }
+
+    /**
+     * Copy a batch to the archive. Each copy is keyed by the entry's ID and updatedAt,
+     * so a batch archived twice (by a retry or another node) is stored once.
+     */
+    private static void archive(MongoCollection<Document> target, List<Document> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Date archivedAt = new Date();
+        List<ReplaceOneModel<Document>> writes = new ArrayList<>(batch.size());
+        for (Document entry : batch) {
+            Document archived = new Document(entry);
+            archived.put("_id", new Document("sourceId", entry.get("_id"))
+                    .append("updatedAt", entry.get("updatedAt")));
+            archived.put("archivedAt", archivedAt);
+            writes.add(new ReplaceOneModel<>(Filters.eq("_id", archived.get("_id")), archived,
+                    new ReplaceOptions().upsert(true)));
+        }
+        target.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.repository.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Moves carts from cart_items rows into carts documents when the document
+ * cart store starts with cart.migrate-from-items=true.
+ *
+ * Rows are grouped per user and merged on the server, then deleted, so running it
+ * again only picks up rows written since (e.g. by nodes not yet switched over).
+ * A user who already has a carts document keeps its lines, since that cart is the
+ * newer one; the user's rows for products it does not hold are added to it.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.store", havingValue = "document")
+public class CartMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartMigration.class);
+
+    private final CartRepository cartRepository;
+    private final boolean enabled;
+
+    public CartMigration(CartRepository cartRepository,
+                         @Value("${cart.migrate-from-items:false}") boolean enabled) {
+        this.cartRepository = cartRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long moved = cartRepository.migrateFromCartItems(Instant.now());
+        logger.info("Moved {} cart item(s) from cart_items into carts in {} ms",
+                moved, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -1,10 +1,15 @@
 package org.example.ecommercebackend.service;
 
+import org.example.ecommercebackend.dto.request.AddToCartBatchRequest;
 import org.example.ecommercebackend.dto.request.AddToCartRequest;
+import org.example.ecommercebackend.dto.response.CartBatchResponse;
 import org.example.ecommercebackend.dto.response.CartItemResponse;
+import org.example.ecommercebackend.dto.response.CartResponse;
 import org.example.ecommercebackend.model.CartItem;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for Cart operations.
@@ -17,21 +22,42 @@ public interface CartService {
      */
     CartItemResponse addToCart(AddToCartRequest request);
 
+    /**
+     * Add several items to one user's cart with a fixed number of reads and writes,
+     * whatever the number of lines. Lines are added or rejected individually.
+     */
+    CartBatchResponse addToCartBatch(AddToCartBatchRequest request);
+
     /**
      * Get all cart items for a user with product details.
      */
     List<CartItemResponse> getCartByUserId(String userId);
 
+    /**
+     * Get a user's cart with product details and totals.
+     */
+    CartResponse getCartViewByUserId(String userId);
+
     /**
      * Get cart items as entities (for internal use).
      */
     List<CartItem> getCartItemsByUserId(String userId);
 
+    /**
+     * Get cart items of several users in one read, grouped by user ID.
+     */
+    Map<String, List<CartItem>> getCartItemsByUserIds(Collection<String> userIds);
+
     /**
      * Clear all items from a user's cart.
      */
     void clearCart(String userId);
 
+    /**
+     * Clear the carts of several users at once.
+     */
+    void clearCarts(Collection<String> userIds);
+
     /**
      * Remove a specific item from the cart.
      */
@@ -0,0 +1,69 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.model.CartItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storage behind the cart.
+ * The implementation is selected with the cart.store property; either way cart
+ * lines are handed out as CartItem values.
+ */
+public interface CartStore {
+
+    /**
+     * Find one line of a user's cart.
+     */
+    Optional<CartItem> findItem(String userId, String productId);
+
+    /**
+     * Find all lines of a user's cart.
+     */
+    List<CartItem> findItems(String userId);
+
+    /**
+     * Find the cart lines of several users, grouped by user ID.
+     * Users with an empty cart are left out.
+     */
+    Map<String, List<CartItem>> findItemsByUserIds(Collection<String> userIds);
+
+    /**
+     * Atomically add quantity to a product in a user's cart, adding the line if needed,
+     * unless the line would then hold more than maxQuantity.
+     * Returns the line as updated, or empty if it was left unchanged for that reason.
+     */
+    Optional<CartItem> addQuantity(String userId, String productId, int quantity, int maxQuantity);
+
+    /**
+     * Add quantities to several products in one user's cart, each line guarded like
+     * addQuantity. Both maps are keyed by product ID.
+     * Returns the updated lines keyed by product ID; rejected products are absent.
+     */
+    Map<String, CartItem> addQuantities(String userId, Map<String, Integer> quantities,
+                                        Map<String, Integer> maxQuantities);
+
+    /**
+     * Take quantity back off a product in a user's cart, removing the line once nothing
+     * is left. Used to undo an add whose stock hold was then rejected.
+     */
+    void subtractQuantity(String userId, String productId, int quantity);
+
+    /**
+     * Remove a product from a user's cart.
+     * Returns true if the cart held the product.
+     */
+    boolean removeItem(String userId, String productId);
+
+    /**
+     * Remove every line of a user's cart.
+     */
+    void deleteCart(String userId);
+
+    /**
+     * Remove every line of several users' carts.
+     */
+    void deleteCarts(Collection<String> userIds);
+}
@@ -0,0 +1,15 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.dto.response.CartResponse;
+
+/**
+ * Reads a user's cart as returned by the API: lines with product details and totals.
+ * The implementation is selected with the cart.view property.
+ */
+public interface CartViewReader {
+
+    /**
+     * Read the cart of a user; an unknown user has an empty cart.
+     */
+    CartResponse read(String userId);
+}
@@ -0,0 +1,240 @@
+package org.example.ecommercebackend.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.example.ecommercebackend.event.OrderChangedEvent;
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.model.ChangeStreamCheckpoint;
+import org.example.ecommercebackend.repository.ChangeStreamCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node cache invalidation driven by MongoDB change streams.
+ *
+ * One change stream over the products, orders and payments collections is turned
+ * into local ProductChangedEvent / OrderChangedEvent publications, so every in-process
+ * cache and index that already listens for local writes also sees writes made by
+ * other nodes. Product updates that only touch stock are published as stock-only.
+ *
+ * The resume token is checkpointed per node, so after a restart or a lost connection
+ * the stream continues where it stopped. If the oplog no longer reaches back to the
+ * token, everything product-related is invalidated and the stream starts afresh.
+ * Change streams need a replica set (any Atlas cluster is one).
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.change-streams.enabled", havingValue = "true")
+public class ChangeStreamInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamInvalidationBus.class);
+
+    private static final List<String> WATCHED_COLLECTIONS = List.of("products", "orders", "payments");
+
+    // Product fields written by stock reservations, bulk stock adjustments and the hot inventory flush
+    private static final Set<String> STOCK_FIELDS = Set.of("stock", "updatedAt", "inventoryJournalSeq");
+
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeStreamCheckpointRepository checkpointRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final long checkpointIntervalMs;
+    private final long retryDelayMs;
+
+    private volatile boolean running;
+    private Thread watcher;
+
+    // Owned by the watcher thread until it has stopped
+    private BsonDocument resumeToken;
+    private BsonDocument checkpointedToken;
+    private long lastCheckpointAt;
+
+    public ChangeStreamInvalidationBus(MongoTemplate mongoTemplate,
+                                       ChangeStreamCheckpointRepository checkpointRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${cache.invalidation.node-id:local}") String nodeId,
+                                       @Value("${cache.invalidation.checkpoint-interval-ms:1000}") long checkpointIntervalMs,
+                                       @Value("${cache.invalidation.retry-delay-ms:5000}") long retryDelayMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId;
+        this.checkpointIntervalMs = checkpointIntervalMs;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    /**
+     * Load this node's checkpoint and start watching.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        resumeToken = checkpointRepository.findById(nodeId)
+                .map(checkpoint -> BsonDocument.parse(checkpoint.getResumeToken()))
+                .orElse(null);
+        checkpointedToken = resumeToken;
+
+        running = true;
+        watcher = new Thread(this::watch, "change-stream-invalidation");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Change stream invalidation started for node {} ({})", nodeId,
+                resumeToken != null ? "resuming from checkpoint" : "no checkpoint");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (watcher == null) {
+            return;
+        }
+        running = false;
+        watcher.interrupt();
+        watcher.join(TimeUnit.SECONDS.toMillis(5));
+        checkpoint(true);
+    }
+
+    private void watch() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openCursor()) {
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        dispatch(change);
+                    }
+                    // Advances on every batch, even when no watched collection changed
+                    if (cursor.getResumeToken() != null) {
+                        resumeToken = cursor.getResumeToken();
+                    }
+                    checkpoint(false);
+                }
+            } catch (MongoException e) {
+                if (!running) {
+                    return;
+                }
+                if (e.getCode() == CHANGE_STREAM_HISTORY_LOST || e.getCode() == CHANGE_STREAM_FATAL_ERROR) {
+                    logger.warn("Cannot resume change stream ({}), invalidating all products", e.getMessage());
+                    resumeToken = null;
+                    eventPublisher.publishEvent(ProductChangedEvent.allProductsChanged());
+                    continue;
+                }
+                logger.warn("Change stream failed, retrying in {} ms: {}", retryDelayMs, e.getMessage());
+                sleep(retryDelayMs);
+            } catch (RuntimeException e) {
+                // A failing listener must not stop invalidation; skip the event
+                logger.error("Error while handling change stream event", e);
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openCursor() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", WATCHED_COLLECTIONS))))
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    private void dispatch(ChangeStreamDocument<Document> change) {
+        resumeToken = change.getResumeToken();
+        OperationType type = change.getOperationType();
+
+        if (type == OperationType.INVALIDATE || type == OperationType.DROP_DATABASE
+                || change.getNamespace() == null) {
+            // The stream is closed after an invalidate and cannot be resumed
+            throw new MongoException(CHANGE_STREAM_FATAL_ERROR, "Change stream invalidated by " + type);
+        }
+
+        String collection = change.getNamespace().getCollectionName();
+        if (type == OperationType.DROP || type == OperationType.RENAME) {
+            if (collection.equals("products")) {
+                eventPublisher.publishEvent(ProductChangedEvent.allProductsChanged());
+            }
+            return;
+        }
+        if (change.getDocumentKey() == null) {
+            return;
+        }
+
+        String id = idOf(change.getDocumentKey().get("_id"));
+        switch (collection) {
+            case "products" -> eventPublisher.publishEvent(isStockOnly(change)
+                    ? ProductChangedEvent.stockChanged(List.of(id))
+                    : ProductChangedEvent.productsChanged(List.of(id)));
+            case "orders" -> eventPublisher.publishEvent(new OrderChangedEvent(List.of(id)));
+            case "payments" -> {
+                // Only inserts carry the order id; payment outcomes also update the order itself
+                Document payment = change.getFullDocument();
+                if (payment != null && payment.getString("orderId") != null) {
+                    eventPublisher.publishEvent(new OrderChangedEvent(List.of(payment.getString("orderId"))));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static boolean isStockOnly(ChangeStreamDocument<Document> change) {
+        UpdateDescription update = change.getUpdateDescription();
+        if (change.getOperationType() != OperationType.UPDATE || update == null) {
+            return false;
+        }
+        boolean noRemovals = update.getRemovedFields() == null || update.getRemovedFields().isEmpty();
+        return noRemovals && update.getUpdatedFields() != null
+                && STOCK_FIELDS.containsAll(update.getUpdatedFields().keySet());
+    }
+
+    private static String idOf(BsonValue id) {
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        return id.toString();
+    }
+
+    private void checkpoint(boolean force) {
+        if (resumeToken == null || resumeToken.equals(checkpointedToken)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!force && now - lastCheckpointAt < checkpointIntervalMs) {
+            return;
+        }
+        checkpointRepository.save(new ChangeStreamCheckpoint(nodeId, resumeToken.toJson()));
+        checkpointedToken = resumeToken;
+        lastCheckpointAt = now;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.dto.request.FlashSalePurchaseRequest;
+import org.example.ecommercebackend.dto.response.FlashSaleTicketResponse;
+
+/**
+ * Service interface for flash-sale purchases of designated products.
+ */
+public interface FlashSaleService {
+
+    /**
+     * Check if a product is currently sold through the flash-sale queue.
+     */
+    boolean isFlashSaleProduct(String productId);
+
+    /**
+     * Submit a purchase attempt. Returns immediately with a QUEUED ticket,
+     * or a SOLD_OUT / REJECTED ticket if the attempt cannot be admitted.
+     */
+    FlashSaleTicketResponse submitPurchase(String productId, FlashSalePurchaseRequest request);
+
+    /**
+     * Get the current state of a ticket.
+     */
+    FlashSaleTicketResponse getTicket(String ticketId);
+}
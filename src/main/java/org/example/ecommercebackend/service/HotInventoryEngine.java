@@ -0,0 +1,311 @@
+package org.example.ecommercebackend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.util.AppendOnlyJournal;
+import org.example.ecommercebackend.util.StripedCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inventory engine for a configured set of ultra-hot products.
+ *
+ * Available stock for each hot product is held in a striped lock-free counter, so
+ * checkouts and add-to-cart checks never round-trip to the product document.
+ * Every change is first appended to a local journal, then the net deltas are
+ * periodically written behind to Product.stock. Each flush records the last applied
+ * journal sequence on the product, which makes replaying the journal after a crash
+ * idempotent.
+ */
+@Component
+public class HotInventoryEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotInventoryEngine.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final Set<String> hotProductIds;
+    private final int stripes;
+    private final Path journalPath;
+    private final boolean fsync;
+
+    private final Map<String, StripedCounter> counters = new ConcurrentHashMap<>();
+    private final Object journalLock = new Object();
+    private AppendOnlyJournal journal;
+    // Guarded by journalLock
+    private long sequence;
+    // Guarded by journalLock; journaled entries not yet known to be flushed, in sequence order
+    private final List<String> unflushed = new ArrayList<>();
+
+    public HotInventoryEngine(MongoTemplate mongoTemplate,
+                              @Value("${inventory.hot.product-ids:}") String hotProductIds,
+                              @Value("${inventory.hot.stripes:8}") int stripes,
+                              @Value("${inventory.hot.journal-path:data/hot-inventory.journal}") String journalPath,
+                              @Value("${inventory.hot.journal-fsync:true}") boolean fsync) {
+        this.mongoTemplate = mongoTemplate;
+        this.hotProductIds = Arrays.stream(hotProductIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.stripes = stripes;
+        this.journalPath = Path.of(journalPath);
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replay any unflushed journal entries and load the counters from MongoDB.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        if (hotProductIds.isEmpty()) {
+            return;
+        }
+
+        journal = new AppendOnlyJournal(journalPath, fsync);
+        unflushed.addAll(journal.readAll());
+        sequence = unflushed.stream().mapToLong(HotInventoryEngine::sequenceOf).max().orElse(0);
+
+        Query query = Query.query(Criteria.where("_id").in(hotProductIds));
+        query.fields().include("inventoryJournalSeq");
+        for (Product product : mongoTemplate.find(query, Product.class)) {
+            if (product.getInventoryJournalSeq() != null) {
+                sequence = Math.max(sequence, product.getInventoryJournalSeq());
+            }
+        }
+
+        // Recover sales journaled before a crash but not yet written to MongoDB
+        flush();
+
+        Query stockQuery = Query.query(Criteria.where("_id").in(hotProductIds));
+        stockQuery.fields().include("stock");
+        for (Product product : mongoTemplate.find(stockQuery, Product.class)) {
+            int stock = product.getStock() != null ? product.getStock() : 0;
+            counters.put(product.getId(), new StripedCounter(stripes, stock));
+            logger.info("Hot inventory enabled for product {} with stock {}", product.getId(), stock);
+        }
+    }
+
+    /**
+     * Check if a product is managed by this engine.
+     */
+    public boolean isHot(String productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * IDs of the products managed by this engine.
+     */
+    public Set<String> getHotProductIds() {
+        return Set.copyOf(counters.keySet());
+    }
+
+    /**
+     * Current available stock of a hot product, or null if the product is not hot.
+     */
+    public Integer getAvailable(String productId) {
+        StripedCounter counter = counters.get(productId);
+        return counter != null ? counter.sum() : null;
+    }
+
+    /**
+     * Replace the stock of a hot product with the live in-memory value,
+     * since the stored value lags behind by up to one flush interval.
+     */
+    public void applyLiveStock(Product product) {
+        Integer available = getAvailable(product.getId());
+        if (available != null) {
+            product.setStock(available);
+        }
+    }
+
+    /**
+     * Take stock of a hot product. The sale is journaled before this method returns true.
+     */
+    public boolean tryAcquire(String productId, int quantity) {
+        StripedCounter counter = requireCounter(productId);
+        if (!counter.tryAcquire(quantity)) {
+            return false;
+        }
+        try {
+            record(productId, -quantity);
+        } catch (RuntimeException e) {
+            counter.release(quantity);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Return stock of a hot product (e.g., rollback or cancellation).
+     */
+    public void release(String productId, int quantity) {
+        StripedCounter counter = requireCounter(productId);
+        record(productId, quantity);
+        counter.release(quantity);
+    }
+
+    /**
+     * Set the available stock of a hot product, e.g. from a catalog import. The
+     * difference to the live counter is applied and journaled like a sale or release,
+     * so it reaches Product.stock with the next flush instead of being overwritten by it.
+     */
+    public void setStock(String productId, int stock) {
+        StripedCounter counter = requireCounter(productId);
+        while (true) {
+            int delta = stock - counter.sum();
+            if (delta >= 0) {
+                if (delta > 0) {
+                    release(productId, delta);
+                }
+                return;
+            }
+            // May fail if concurrent sales took the stock first; then recompute
+            if (tryAcquire(productId, -delta)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write the net journaled deltas behind to the product documents.
+     * Each product is only updated with entries newer than its stored sequence,
+     * and the journal is compacted once every product has been updated.
+     * The entries are kept in memory as well, so the journal file is only read at startup.
+     * Flushes do not overlap, e.g. a scheduled one with the one on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (journal == null) {
+            return;
+        }
+
+        List<String> entries;
+        long flushedUpTo;
+        synchronized (journalLock) {
+            entries = new ArrayList<>(unflushed);
+            flushedUpTo = sequence;
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> storedSeqs = new HashMap<>();
+        Query query = Query.query(Criteria.where("_id").in(hotProductIds));
+        query.fields().include("inventoryJournalSeq");
+        for (Product product : mongoTemplate.find(query, Product.class)) {
+            storedSeqs.put(product.getId(), product.getInventoryJournalSeq() != null
+                    ? product.getInventoryJournalSeq() : 0L);
+        }
+
+        Map<String, Integer> deltas = new HashMap<>();
+        Map<String, Long> maxSeqs = new HashMap<>();
+        for (String entry : entries) {
+            String[] parts = entry.split("\\|");
+            long seq = Long.parseLong(parts[0]);
+            String productId = parts[1];
+            if (seq > storedSeqs.getOrDefault(productId, 0L)) {
+                deltas.merge(productId, Integer.parseInt(parts[2]), Integer::sum);
+                maxSeqs.merge(productId, seq, Math::max);
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            Instant now = Instant.now();
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+            deltas.forEach((productId, delta) -> {
+                // Only apply if no other flush has moved the product's sequence in the meantime
+                Long storedSeq = storedSeqs.getOrDefault(productId, 0L);
+                Criteria seqUnchanged = storedSeq == 0L
+                        ? new Criteria().orOperator(
+                                Criteria.where("inventoryJournalSeq").exists(false),
+                                Criteria.where("inventoryJournalSeq").is(0L))
+                        : Criteria.where("inventoryJournalSeq").is(storedSeq);
+                Query update = Query.query(Criteria.where("_id").is(productId).andOperator(seqUnchanged));
+                bulkOps.updateOne(update, new Update()
+                        .inc("stock", delta)
+                        .set("inventoryJournalSeq", maxSeqs.get(productId))
+                        .set("updatedAt", now));
+            });
+
+            try {
+                int matched = bulkOps.execute().getMatchedCount();
+                if (matched < deltas.size()) {
+                    logger.warn("Hot inventory flush applied {} of {} product(s), retrying on next flush",
+                            matched, deltas.size());
+                    return;
+                }
+            } catch (RuntimeException e) {
+                logger.error("Hot inventory flush failed, journal retained for retry: {}", e.getMessage());
+                return;
+            }
+            logger.debug("Flushed hot inventory deltas for {} product(s) up to sequence {}",
+                    deltas.size(), flushedUpTo);
+        }
+
+        synchronized (journalLock) {
+            // Entries are only ever appended, so the flushed ones are still at the front
+            unflushed.subList(0, entries.size()).clear();
+        }
+        // Compaction rewrites the file off the lock, so sales keep being journaled meanwhile
+        journal.compact(entry -> sequenceOf(entry) > flushedUpTo);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (journal == null) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Journal a change. The sequence is assigned and the entry written under the lock,
+     * which keeps the file in sequence order; the wait for the disk happens outside it,
+     * where concurrent sales share one sync.
+     */
+    private void record(String productId, int delta) {
+        long position;
+        synchronized (journalLock) {
+            String entry = ++sequence + "|" + productId + "|" + delta;
+            position = journal.write(entry);
+            unflushed.add(entry);
+        }
+        journal.sync(position);
+    }
+
+    private StripedCounter requireCounter(String productId) {
+        StripedCounter counter = counters.get(productId);
+        if (counter == null) {
+            throw new IllegalStateException("Product " + productId + " is not managed by the hot inventory engine");
+        }
+        return counter;
+    }
+
+    private static long sequenceOf(String entry) {
+        return Long.parseLong(entry.substring(0, entry.indexOf('|')));
+    }
+}
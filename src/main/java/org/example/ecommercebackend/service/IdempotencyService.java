@@ -0,0 +1,19 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.dto.response.OrderResponse;
+
+import java.util.function.Function;
+
+/**
+ * Service interface for de-duplicating order creation by Idempotency-Key.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Run the order creation at most once per user and key.
+     * A replay returns the original order; a concurrent duplicate waits for the
+     * in-flight request instead of starting a second checkout.
+     * createOrder is given the ID the order must be created with.
+     */
+    OrderResponse executeOnce(String idempotencyKey, String userId, Function<String, OrderResponse> createOrder);
+}
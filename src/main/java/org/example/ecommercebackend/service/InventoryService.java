@@ -0,0 +1,31 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.model.Order;
+import org.example.ecommercebackend.model.OrderItem;
+
+import java.util.List;
+
+/**
+ * Service interface for inventory (stock) operations.
+ */
+public interface InventoryService {
+
+    /**
+     * Reserve stock for all order items of a user.
+     * Either every line is deducted or none is: lines already taken are
+     * rolled back if a later line cannot be satisfied. Stock held for other users
+     * is not taken; the user's own holds on the ordered products are consumed.
+     */
+    void reserveStock(String userId, List<OrderItem> items);
+
+    /**
+     * Reserve stock for the items of several orders at once, sharing round trips between them.
+     * Each order is reserved as a unit; the result holds one success flag per order.
+     */
+    List<Boolean> reserveStockForOrders(List<Order> orders);
+
+    /**
+     * Return stock for all order items (e.g., on order cancellation).
+     */
+    void releaseStock(List<OrderItem> items);
+}
@@ -1,8 +1,11 @@
 package org.example.ecommercebackend.service;
 
 import org.example.ecommercebackend.dto.request.CreateOrderRequest;
+import org.example.ecommercebackend.dto.response.CursorPageResponse;
 import org.example.ecommercebackend.dto.response.OrderResponse;
+import org.example.ecommercebackend.dto.response.OrderSummaryResponse;
 import org.example.ecommercebackend.model.Order;
+import org.example.ecommercebackend.model.OrderItem;
 
 import java.util.List;
 
@@ -16,6 +19,18 @@ public interface OrderService {
      */
     OrderResponse createOrder(CreateOrderRequest request);
 
+    /**
+     * Create an order from the user's cart under a preassigned ID.
+     * Fails with a DuplicateKeyException, reserving no stock, if that order already exists.
+     */
+    OrderResponse createOrder(CreateOrderRequest request, String orderId);
+
+    /**
+     * Create an order for the given items, bypassing the cart.
+     * Stock for all items is reserved before the order is saved.
+     */
+    Order placeOrder(String userId, List<OrderItem> orderItems);
+
     /**
      * Get order by ID.
      */
@@ -27,9 +42,22 @@ public interface OrderService {
     Order getOrderEntityById(String orderId);
 
     /**
-     * Get all orders for a user.
+     * Get only the status and updatedAt of an order (for conditional requests).
+     * The items and other fields of the returned order are not populated.
+     */
+    Order getOrderVersionById(String orderId);
+
+    /**
+     * Get one page of a user's orders, newest first.
+     * The cursor is the nextCursor of the previous page, or null for the first page.
+     */
+    CursorPageResponse<OrderResponse> getOrdersByUserId(String userId, String cursor, int limit);
+
+    /**
+     * Get one page of a user's order summaries (no line items), newest first.
+     * Uses the same cursors as getOrdersByUserId.
      */
-    List<OrderResponse> getOrdersByUserId(String userId);
+    CursorPageResponse<OrderSummaryResponse> getOrderSummariesByUserId(String userId, String cursor, int limit);
 
     /**
      * Update order status to PAID.
@@ -0,0 +1,251 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.dto.response.ProductCacheStatsResponse;
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded read-through cache for product lookups.
+ *
+ * Catalog fields (name, description, price) are served from memory for up to the
+ * configured TTL and are evicted as soon as a product is written. Stock has its own,
+ * much tighter staleness bound: once a cached stock value is older than that bound it
+ * is refreshed with a stock-only projection, batched across all products of a read.
+ * Local stock changes mark the cached stock stale immediately.
+ * A staleness bound of 0 reads stock live on every lookup.
+ *
+ * Callers always receive their own copy of a product, so they may modify it freely.
+ */
+@Component
+public class ProductCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCache.class);
+
+    private final ProductRepository productRepository;
+    private final int maxSize;
+    private final Duration ttl;
+    private final Duration stockStaleness;
+
+    private final Map<String, Entry> entries;
+
+    // Bumped on every catalog invalidation so a load that raced with one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder stockRefreshes = new LongAdder();
+
+    public ProductCache(ProductRepository productRepository,
+                        @Value("${product.cache.max-size:10000}") int maxSize,
+                        @Value("${product.cache.ttl-seconds:300}") long ttlSeconds,
+                        @Value("${product.cache.stock-staleness-ms:1000}") long stockStalenessMs) {
+        this.productRepository = productRepository;
+        this.maxSize = maxSize;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.stockStaleness = Duration.ofMillis(stockStalenessMs);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ProductCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Get a product by ID, loading it on a miss.
+     */
+    public Optional<Product> get(String productId) {
+        return Optional.ofNullable(getAll(List.of(productId)).get(productId));
+    }
+
+    /**
+     * Get several products by ID, keyed by ID. Products that do not exist are absent.
+     * Misses are loaded with one query and stale stock is refreshed with one more.
+     */
+    public Map<String, Product> getAll(Collection<String> productIds) {
+        Instant now = Instant.now();
+        Map<String, Entry> found = new HashMap<>();
+        List<String> missingIds = new ArrayList<>();
+        List<String> staleStockIds = new ArrayList<>();
+
+        for (String productId : new LinkedHashSet<>(productIds)) {
+            Entry entry = entries.get(productId);
+            if (entry != null && entry.loadedAt.plus(ttl).isBefore(now)) {
+                entries.remove(productId);
+                evictions.increment();
+                entry = null;
+            }
+
+            if (entry == null) {
+                misses.increment();
+                missingIds.add(productId);
+                continue;
+            }
+
+            hits.increment();
+            found.put(productId, entry);
+            if (!entry.stockLoadedAt.plus(stockStaleness).isAfter(now)) {
+                staleStockIds.add(productId);
+            }
+        }
+
+        if (!staleStockIds.isEmpty()) {
+            refreshStock(staleStockIds, found);
+        }
+        if (!missingIds.isEmpty()) {
+            load(missingIds, found);
+        }
+
+        Map<String, Product> products = new HashMap<>();
+        found.forEach((productId, entry) -> products.put(productId, copyOf(entry.product)));
+        return products;
+    }
+
+    /**
+     * Drop products from the cache so the next read loads them again.
+     */
+    public void invalidate(Collection<String> productIds) {
+        invalidations.incrementAndGet();
+        productIds.forEach(entries::remove);
+    }
+
+    /**
+     * Drop every product from the cache.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Keep the catalog fields of the products but refresh their stock on the next read.
+     */
+    public void markStockStale(Collection<String> productIds) {
+        for (String productId : productIds) {
+            entries.computeIfPresent(productId,
+                    (id, entry) -> new Entry(entry.product, entry.loadedAt, Instant.EPOCH));
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isAllProducts()) {
+            invalidateAll();
+        } else if (event.isStockOnly()) {
+            markStockStale(event.getProductIds());
+        } else {
+            invalidate(event.getProductIds());
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public ProductCacheStatsResponse stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new ProductCacheStatsResponse(
+                entries.size(),
+                maxSize,
+                hitCount,
+                missCount,
+                lookups == 0 ? 0.0 : (double) hitCount / lookups,
+                evictions.sum(),
+                stockRefreshes.sum()
+        );
+    }
+
+    private void load(List<String> productIds, Map<String, Entry> found) {
+        long generation = invalidations.get();
+        Instant loadedAt = Instant.now();
+
+        int loaded = 0;
+        for (Product product : productRepository.findAllById(productIds)) {
+            Entry entry = new Entry(product, loadedAt, loadedAt);
+            found.put(product.getId(), entry);
+            if (invalidations.get() == generation) {
+                entries.put(product.getId(), entry);
+            }
+            loaded++;
+        }
+        logger.debug("Product cache loaded {} of {} missing product(s)", loaded, productIds.size());
+    }
+
+    private void refreshStock(List<String> productIds, Map<String, Entry> found) {
+        // The stock is stamped with the time the query was issued, which keeps the
+        // staleness bound safe even if a stock change lands while the query runs
+        Instant refreshedAt = Instant.now();
+        Map<String, Integer> stockById = productRepository.findStockByIds(productIds);
+        stockRefreshes.add(productIds.size());
+
+        for (String productId : productIds) {
+            Integer stock = stockById.get(productId);
+            if (stock == null) {
+                // Product no longer exists
+                entries.remove(productId);
+                found.remove(productId);
+                continue;
+            }
+
+            Entry cached = found.get(productId);
+            Product refreshed = copyOf(cached.product);
+            refreshed.setStock(stock);
+            Entry entry = new Entry(refreshed, cached.loadedAt, refreshedAt);
+            found.put(productId, entry);
+            // Only replace the entry we refreshed, not one reloaded in the meantime
+            entries.computeIfPresent(productId,
+                    (id, current) -> current.loadedAt.equals(cached.loadedAt) ? entry : current);
+        }
+    }
+
+    private static Product copyOf(Product product) {
+        Product copy = new Product(product.getName(), product.getDescription(), product.getPrice(), product.getStock());
+        copy.setId(product.getId());
+        copy.setSku(product.getSku());
+        copy.setInventoryJournalSeq(product.getInventoryJournalSeq());
+        copy.setCreatedAt(product.getCreatedAt());
+        copy.setUpdatedAt(product.getUpdatedAt());
+        return copy;
+    }
+
+    /**
+     * Immutable cache entry; the product it holds is never handed out directly.
+     */
+    private static final class Entry {
+        private final Product product;
+        private final Instant loadedAt;
+        private final Instant stockLoadedAt;
+
+        Entry(Product product, Instant loadedAt, Instant stockLoadedAt) {
+            this.product = product;
+            this.loadedAt = loadedAt;
+            this.stockLoadedAt = stockLoadedAt;
+        }
+    }
+}
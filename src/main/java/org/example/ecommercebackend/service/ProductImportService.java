@@ -0,0 +1,18 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.dto.response.ProductImportResponse;
+import org.example.ecommercebackend.model.enums.ProductImportFormat;
+
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk product imports.
+ */
+public interface ProductImportService {
+
+    /**
+     * Read products from the body row by row and insert or update them by SKU in batches.
+     * Invalid rows are skipped and reported; the rest of the body is still imported.
+     */
+    ProductImportResponse importProducts(InputStream body, ProductImportFormat format);
+}
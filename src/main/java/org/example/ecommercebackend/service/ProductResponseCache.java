@@ -0,0 +1,157 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.dto.response.ProductResponse;
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.util.EntityTags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded cache of serialized product responses, keyed by product ID.
+ *
+ * An entry holds the JSON of every field but stock, and is only reused while the
+ * product has the updatedAt it was built from; a product read with a different
+ * updatedAt is serialized again and replaces the entry. Entries are also dropped
+ * when the product is written, which is what keeps products without an updatedAt
+ * current. Stock, which for hot products changes without updatedAt moving, is
+ * appended to the cached JSON per response and is part of the ETag only; the gzip
+ * body is compressed on the first gzip request for each stock level.
+ */
+@Component
+public class ProductResponseCache {
+
+    private static final String STOCK = "stock";
+
+    private final ObjectMapper objectMapper;
+    private final int maxSize;
+
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ProductResponseCache(ObjectMapper objectMapper,
+                                @Value("${product.response-cache.max-size:1000}") int maxSize) {
+        this.objectMapper = objectMapper;
+        this.maxSize = maxSize;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ProductResponseCache.this.maxSize;
+            }
+        });
+    }
+
+    /**
+     * Get the serialized response for this version and stock of the product,
+     * serializing the catalog fields on a miss.
+     */
+    public SerializedProduct get(Product product) {
+        Entry entry = entries.get(product.getId());
+        if (entry != null && Objects.equals(entry.updatedAt, product.getUpdatedAt())) {
+            hits.increment();
+        } else {
+            misses.increment();
+            entry = new Entry(product.getUpdatedAt(), serializeWithoutStock(product));
+            entries.put(product.getId(), entry);
+        }
+
+        Integer stock = product.getStock();
+        byte[] json = entry.withStock(stock);
+        Entry serialized = entry;
+        return new SerializedProduct(EntityTags.weak(entry.updatedAt, stock), entry.updatedAt, json,
+                () -> serialized.gzip(stock, json));
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isAllProducts()) {
+            entries.clear();
+        } else if (!event.isStockOnly()) {
+            // Stock is not part of an entry
+            event.getProductIds().forEach(entries::remove);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * The response JSON without stock and without its closing brace.
+     */
+    private byte[] serializeWithoutStock(Product product) {
+        ObjectNode response = objectMapper.valueToTree(ProductResponse.fromEntity(product));
+        response.remove(STOCK);
+        byte[] json = objectMapper.writeValueAsBytes(response);
+        return Arrays.copyOf(json, json.length - 1);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * One version of a product's catalog fields.
+     */
+    private static final class Entry {
+        private final Instant updatedAt;
+        private final byte[] head;
+        // The most recently compressed body; hot products sell at one stock level for a while
+        private volatile Compressed compressed;
+
+        Entry(Instant updatedAt, byte[] head) {
+            this.updatedAt = updatedAt;
+            this.head = head;
+        }
+
+        byte[] withStock(Integer stock) {
+            // head is "{" when stock was the only field
+            byte[] tail = ((head.length > 1 ? "," : "") + "\"" + STOCK + "\":" + stock + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            byte[] json = Arrays.copyOf(head, head.length + tail.length);
+            System.arraycopy(tail, 0, json, head.length, tail.length);
+            return json;
+        }
+
+        byte[] gzip(Integer stock, byte[] json) {
+            Compressed current = compressed;
+            if (current == null || !Objects.equals(current.stock(), stock)) {
+                byte[] gzip = ProductResponseCache.gzip(json);
+                current = new Compressed(stock, gzip.length < json.length ? gzip : null);
+                compressed = current;
+            }
+            return current.gzip();
+        }
+    }
+
+    private record Compressed(Integer stock, byte[] gzip) {
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.ecommercebackend.service;
+
+/**
+ * Search backend behind product search.
+ * The implementation is selected with the product.search.engine property.
+ */
+public interface ProductSearchEngine {
+
+    /**
+     * Find products matching the query, best matches first.
+     * Returns at most limit product IDs starting at the given offset.
+     */
+    ProductSearchHits search(String query, int offset, int limit);
+}
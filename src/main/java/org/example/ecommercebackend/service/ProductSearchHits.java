@@ -0,0 +1,31 @@
+package org.example.ecommercebackend.service;
+
+import java.util.List;
+
+/**
+ * One page of product search results: matching product IDs in rank order,
+ * plus the total number of matches.
+ */
+public class ProductSearchHits {
+
+    private final List<String> productIds;
+
+    private final long total;
+
+    public ProductSearchHits(List<String> productIds, long total) {
+        this.productIds = productIds;
+        this.total = total;
+    }
+
+    public static ProductSearchHits empty() {
+        return new ProductSearchHits(List.of(), 0);
+    }
+
+    public List<String> getProductIds() {
+        return productIds;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
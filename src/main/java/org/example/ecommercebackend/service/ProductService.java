@@ -1,9 +1,15 @@
 package org.example.ecommercebackend.service;
 
 import org.example.ecommercebackend.dto.request.CreateProductRequest;
+import org.example.ecommercebackend.dto.response.CursorPageResponse;
+import org.example.ecommercebackend.dto.response.PageResponse;
+import org.example.ecommercebackend.dto.response.ProductCacheStatsResponse;
 import org.example.ecommercebackend.dto.response.ProductResponse;
+import org.example.ecommercebackend.dto.response.ProductSuggestionResponse;
+import org.example.ecommercebackend.model.enums.ProductSort;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Product operations.
@@ -20,13 +26,55 @@ public interface ProductService {
      */
     List<ProductResponse> getAllProducts();
 
+    /**
+     * Get one page of products in _id order (offset pagination).
+     */
+    PageResponse<ProductResponse> getProductsPage(int page, int size);
+
+    /**
+     * Get the products after the cursor in _id order (keyset pagination).
+     * The cursor is the nextCursor of the previous page, or null for the first page.
+     */
+    CursorPageResponse<ProductResponse> getProductsAfter(String cursor, int size);
+
+    /**
+     * Get one page of the catalog, optionally limited to products in stock and to a
+     * price range, in the given order (keyset pagination).
+     * The cursor is the nextCursor of the previous page with the same filters and order.
+     */
+    CursorPageResponse<ProductResponse> getCatalogPage(boolean inStock, Double minPrice, Double maxPrice,
+                                                       ProductSort sort, String cursor, int size);
+
+    /**
+     * Pass every product to the consumer as it is read from a database cursor,
+     * without holding the catalog in memory.
+     */
+    void streamAllProducts(Consumer<ProductResponse> consumer);
+
     /**
      * Get a product by its ID.
      */
     ProductResponse getProductById(String id);
 
     /**
-     * Search products by name.
+     * Get a product by ID as ready-to-send JSON (and gzip) bytes.
+     * Unchanged products are served from the serialized response cache.
+     */
+    SerializedProduct getSerializedProductById(String id);
+
+    /**
+     * Search products by name (and, depending on the search engine, description).
+     * Returns one page of results, best matches first.
+     */
+    PageResponse<ProductResponse> searchProductsByName(String query, int page, int size);
+
+    /**
+     * Autocomplete product names from memory, highest stock first.
+     */
+    List<ProductSuggestionResponse> suggestProducts(String prefix, int limit);
+
+    /**
+     * Get hit/miss metrics of the product cache.
      */
-    List<ProductResponse> searchProductsByName(String name);
+    ProductCacheStatsResponse getCacheStats();
 }
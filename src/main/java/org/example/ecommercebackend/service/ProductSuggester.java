@@ -0,0 +1,518 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.dto.response.ProductSuggestionResponse;
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.example.ecommercebackend.util.TextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index for product name autocomplete.
+ *
+ * Every word start of a normalized product name is a key, so "pro" finds both
+ * "Projector" and "iPhone Pro". Keys are not materialized: each one is a
+ * (product slot, offset) pair into the normalized name, and the pairs are kept in
+ * two parallel int arrays sorted by key, which makes a lookup a binary search plus a scan over the
+ * matching range. Matches are ranked by available stock, live for hot products.
+ *
+ * Prefixes of one or two characters match a large share of the catalog, so their ranges
+ * are not scanned per request: each snapshot ranks the best candidates of every such
+ * prefix by stored stock up front, and a lookup only re-ranks those with live stock.
+ * A stock change updates the candidates of the changed product's own prefixes. A
+ * candidate whose stock fell may now rank below a product left out, so those falls are
+ * counted, and a lookup asking for more than the candidates that still provably rank
+ * first scans the range instead; a prefix with many falls is ranked again.
+ *
+ * Readers never lock and never touch MongoDB: they work on an immutable snapshot.
+ * Product changes are queued by ProductChangedEvent and applied in the background;
+ * catalog changes swap in a rebuilt snapshot, stock changes are patched in place,
+ * and catalog-wide changes reload every product.
+ */
+@Component
+public class ProductSuggester {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggester.class);
+
+    // Prefixes up to this length are answered from the precomputed rankings
+    static final int SHORT_PREFIX_LENGTH = 2;
+    // Candidates kept per short prefix: twice the largest limit, as headroom for stock changes
+    static final int SHORT_PREFIX_CANDIDATES = 100;
+
+    private final ProductRepository productRepository;
+    private final HotInventoryEngine hotInventoryEngine;
+
+    // Changes not yet applied, guarded by pendingLock
+    private final Object pendingLock = new Object();
+    private Set<String> pendingCatalogIds = new HashSet<>();
+    private Set<String> pendingStockIds = new HashSet<>();
+    private boolean pendingReload;
+
+    // Source of truth for rebuilds, guarded by itself
+    private final Map<String, Entry> products = new HashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    public ProductSuggester(ProductRepository productRepository,
+                            HotInventoryEngine hotInventoryEngine) {
+        this.productRepository = productRepository;
+        this.hotInventoryEngine = hotInventoryEngine;
+    }
+
+    /**
+     * Load every product name and build the first snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        synchronized (products) {
+            loadAll();
+        }
+        logger.info("Product suggest index built: {} product(s), {} key(s) in {} ms",
+                snapshot.productIds.length, snapshot.keySlots.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (pendingLock) {
+            if (event.isAllProducts()) {
+                pendingReload = true;
+            } else if (event.isStockOnly()) {
+                pendingStockIds.addAll(event.getProductIds());
+            } else {
+                pendingCatalogIds.addAll(event.getProductIds());
+            }
+        }
+    }
+
+    /**
+     * Apply queued product changes: one query for changed products, one for changed stock.
+     */
+    @Scheduled(fixedDelayString = "${product.suggest.refresh-interval-ms:500}")
+    public void refresh() {
+        Set<String> catalogIds;
+        Set<String> stockIds;
+        boolean reload;
+        synchronized (pendingLock) {
+            if (pendingCatalogIds.isEmpty() && pendingStockIds.isEmpty() && !pendingReload) {
+                return;
+            }
+            catalogIds = pendingCatalogIds;
+            stockIds = pendingStockIds;
+            reload = pendingReload;
+            pendingCatalogIds = new HashSet<>();
+            pendingStockIds = new HashSet<>();
+            pendingReload = false;
+        }
+
+        if (reload) {
+            synchronized (products) {
+                loadAll();
+            }
+            logger.debug("Product suggest index reloaded: {} product(s)", snapshot.productIds.length);
+            return;
+        }
+        // Reloaded products come with fresh stock
+        stockIds.removeAll(catalogIds);
+
+        synchronized (products) {
+            if (!catalogIds.isEmpty()) {
+                catalogIds.forEach(products::remove);
+                productRepository.findAllById(catalogIds)
+                        .forEach(product -> products.put(product.getId(), Entry.of(product)));
+            }
+
+            if (!stockIds.isEmpty()) {
+                Snapshot current = snapshot;
+                Map<Integer, Integer> previousStock = new HashMap<>();
+                productRepository.findStockByIds(stockIds).forEach((productId, stock) -> {
+                    Entry entry = products.get(productId);
+                    if (entry != null) {
+                        entry.stock = stock;
+                    }
+                    Integer slot = current.slotsByProductId.get(productId);
+                    if (slot != null) {
+                        previousStock.putIfAbsent(slot, current.stock[slot]);
+                        current.stock[slot] = stock;
+                    }
+                });
+                if (catalogIds.isEmpty()) {
+                    current.restock(previousStock);
+                }
+            }
+
+            if (!catalogIds.isEmpty()) {
+                snapshot = Snapshot.build(products.values());
+            }
+        }
+        logger.debug("Product suggest index refreshed: {} catalog change(s), {} stock change(s)",
+                catalogIds.size(), stockIds.size());
+    }
+
+    // Called with the products lock held
+    private void loadAll() {
+        products.clear();
+        try (Stream<Product> stream = productRepository.streamAllByOrderByIdAsc()) {
+            stream.forEach(product -> products.put(product.getId(), Entry.of(product)));
+        }
+        snapshot = Snapshot.build(products.values());
+    }
+
+    /**
+     * Products with a name word starting with the prefix, highest stock first.
+     */
+    public List<ProductSuggestionResponse> suggest(String prefix, int limit) {
+        String normalizedPrefix = TextNormalizer.normalize(prefix);
+        if (normalizedPrefix.isEmpty()) {
+            return List.of();
+        }
+
+        Snapshot current = snapshot;
+        Comparator<Candidate> ranking = current.ranking();
+
+        // Min-heap of the best candidates seen so far; its head is the weakest
+        PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, ranking);
+        PrefixRanking shortRanking = normalizedPrefix.length() <= SHORT_PREFIX_LENGTH
+                ? current.shortPrefixRankings.get(normalizedPrefix)
+                : null;
+        if (shortRanking != null && shortRanking.covers(limit)) {
+            for (int slot : shortRanking.slots()) {
+                offer(best, current, slot, limit);
+            }
+        } else {
+            Set<Integer> seen = new HashSet<>();
+            for (int key = current.lowerBound(normalizedPrefix);
+                 key < current.keySlots.length && current.keyStartsWith(key, normalizedPrefix);
+                 key++) {
+                int slot = current.keySlots[key];
+                if (seen.add(slot)) {
+                    offer(best, current, slot, limit);
+                }
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(best);
+        ranked.sort(ranking.reversed());
+        List<ProductSuggestionResponse> suggestions = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            suggestions.add(new ProductSuggestionResponse(
+                    current.productIds[candidate.slot()],
+                    current.names[candidate.slot()],
+                    candidate.stock()));
+        }
+        return suggestions;
+    }
+
+    private void offer(PriorityQueue<Candidate> best, Snapshot current, int slot, int limit) {
+        Integer hotStock = hotInventoryEngine.getAvailable(current.productIds[slot]);
+        best.add(new Candidate(slot, hotStock != null ? hotStock : current.stock[slot]));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    private record Candidate(int slot, int stock) {
+    }
+
+    /**
+     * The best candidates of one short prefix, best first by stored stock. Complete when
+     * they are all the products matching the prefix; falls counts the candidates whose
+     * stock dropped since the prefix was last ranked.
+     */
+    private record PrefixRanking(int[] slots, boolean complete, int falls) {
+
+        /**
+         * Whether the first limit products are among the candidates: a product left out
+         * can only outrank candidates whose stock fell.
+         */
+        boolean covers(int limit) {
+            return complete || slots.length - falls >= limit;
+        }
+    }
+
+    /**
+     * Mutable per-product state used to build snapshots.
+     */
+    private static final class Entry {
+        private final String productId;
+        private final String name;
+        private final String normalizedName;
+        private int stock;
+
+        private Entry(String productId, String name, String normalizedName, int stock) {
+            this.productId = productId;
+            this.name = name;
+            this.normalizedName = normalizedName;
+            this.stock = stock;
+        }
+
+        static Entry of(Product product) {
+            return new Entry(product.getId(), product.getName(), TextNormalizer.normalize(product.getName()),
+                    product.getStock() != null ? product.getStock() : 0);
+        }
+    }
+
+    /**
+     * Immutable key index over one version of the catalog. Only the stock array is
+     * updated in place, after which the short-prefix rankings are recomputed.
+     */
+    private static final class Snapshot {
+        private final String[] productIds;
+        private final String[] names;
+        private final String[] normalizedNames;
+        private final int[] stock;
+        private final Map<String, Integer> slotsByProductId;
+
+        // Key i is normalizedNames[keySlots[i]] from keyOffsets[i] on, sorted by that suffix
+        private final int[] keySlots;
+        private final int[] keyOffsets;
+
+        // Candidates of every prefix up to SHORT_PREFIX_LENGTH characters
+        private volatile Map<String, PrefixRanking> shortPrefixRankings = Map.of();
+
+        private Snapshot(String[] productIds, String[] names, String[] normalizedNames, int[] stock,
+                         Map<String, Integer> slotsByProductId, int[] keySlots, int[] keyOffsets) {
+            this.productIds = productIds;
+            this.names = names;
+            this.normalizedNames = normalizedNames;
+            this.stock = stock;
+            this.slotsByProductId = slotsByProductId;
+            this.keySlots = keySlots;
+            this.keyOffsets = keyOffsets;
+        }
+
+        static Snapshot build(Iterable<Entry> entries) {
+            List<Entry> list = new ArrayList<>();
+            entries.forEach(list::add);
+
+            int size = list.size();
+            String[] productIds = new String[size];
+            String[] names = new String[size];
+            String[] normalizedNames = new String[size];
+            int[] stock = new int[size];
+            Map<String, Integer> slotsByProductId = new HashMap<>(size * 2);
+            List<long[]> keys = new ArrayList<>();
+
+            for (int slot = 0; slot < size; slot++) {
+                Entry entry = list.get(slot);
+                productIds[slot] = entry.productId;
+                names[slot] = entry.name;
+                normalizedNames[slot] = entry.normalizedName;
+                stock[slot] = entry.stock;
+                slotsByProductId.put(entry.productId, slot);
+
+                String normalizedName = entry.normalizedName;
+                for (int offset = 0; offset < normalizedName.length(); offset++) {
+                    if (offset == 0 || normalizedName.charAt(offset - 1) == ' ') {
+                        keys.add(new long[]{slot, offset});
+                    }
+                }
+            }
+
+            keys.sort((left, right) -> compareSuffixes(
+                    normalizedNames[(int) left[0]], (int) left[1],
+                    normalizedNames[(int) right[0]], (int) right[1]));
+
+            int[] keySlots = new int[keys.size()];
+            int[] keyOffsets = new int[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                keySlots[i] = (int) keys.get(i)[0];
+                keyOffsets[i] = (int) keys.get(i)[1];
+            }
+            Snapshot snapshot = new Snapshot(productIds, names, normalizedNames, stock, slotsByProductId,
+                    keySlots, keyOffsets);
+            snapshot.rankShortPrefixes();
+            return snapshot;
+        }
+
+        /**
+         * Weakest first: lower stock, then longer name, then higher product ID.
+         */
+        Comparator<Candidate> ranking() {
+            return Comparator.comparingInt(Candidate::stock)
+                    .thenComparing(candidate -> names[candidate.slot()].length(), Comparator.reverseOrder())
+                    .thenComparing(candidate -> productIds[candidate.slot()], Comparator.reverseOrder());
+        }
+
+        /**
+         * Rank the best candidates of every short prefix. The keys sharing a prefix are one
+         * contiguous run of the sorted keys, so each prefix length takes a single pass.
+         */
+        void rankShortPrefixes() {
+            Map<String, PrefixRanking> rankings = new HashMap<>();
+            int[] lastRun = new int[productIds.length];
+            Arrays.fill(lastRun, -1);
+            int run = 0;
+            for (int length = 1; length <= SHORT_PREFIX_LENGTH; length++) {
+                int key = 0;
+                while (key < keySlots.length) {
+                    if (normalizedNames[keySlots[key]].length() - keyOffsets[key] < length) {
+                        key++;
+                        continue;
+                    }
+                    String prefix = normalizedNames[keySlots[key]].substring(keyOffsets[key],
+                            keyOffsets[key] + length);
+                    key = rankRun(key, prefix, lastRun, run++, rankings);
+                }
+            }
+            shortPrefixRankings = rankings;
+        }
+
+        /**
+         * Update the candidates of the short prefixes of products whose stock changed,
+         * given their stock before the change, keyed by slot.
+         */
+        void restock(Map<Integer, Integer> previousStock) {
+            Comparator<Candidate> ranking = ranking();
+            Map<String, PrefixRanking> rankings = new HashMap<>(shortPrefixRankings);
+            Set<String> reranked = new HashSet<>();
+            previousStock.forEach((slot, previous) -> {
+                for (String prefix : shortPrefixesOf(slot)) {
+                    PrefixRanking current = rankings.get(prefix);
+                    PrefixRanking updated = restocked(current, slot, stock[slot] < previous, ranking);
+                    if (updated != current) {
+                        rankings.put(prefix, updated);
+                    }
+                    if (updated.falls() > SHORT_PREFIX_CANDIDATES / 2) {
+                        reranked.add(prefix);
+                    }
+                }
+            });
+
+            if (!reranked.isEmpty()) {
+                int[] lastRun = new int[productIds.length];
+                Arrays.fill(lastRun, -1);
+                int run = 0;
+                for (String prefix : reranked) {
+                    rankRun(lowerBound(prefix), prefix, lastRun, run++, rankings);
+                }
+            }
+            shortPrefixRankings = rankings;
+        }
+
+        /**
+         * Apply one product's stock change to a prefix's candidates: a candidate is moved
+         * to its new place, and a product left out joins if it now beats the weakest.
+         */
+        private PrefixRanking restocked(PrefixRanking current, int slot, boolean fell,
+                                        Comparator<Candidate> ranking) {
+            List<Integer> slots = new ArrayList<>(current.slots().length + 1);
+            boolean member = false;
+            for (int candidate : current.slots()) {
+                slots.add(candidate);
+                member |= candidate == slot;
+            }
+            int falls = current.falls();
+            if (member) {
+                falls += fell ? 1 : 0;
+            } else {
+                // Found by current stock: other candidates may have changed in the same refresh
+                Candidate weakest = slots.stream()
+                        .map(candidate -> new Candidate(candidate, stock[candidate]))
+                        .min(ranking)
+                        .orElseThrow();
+                if (ranking.compare(new Candidate(slot, stock[slot]), weakest) <= 0) {
+                    return current;
+                }
+                slots.set(slots.indexOf(weakest.slot()), slot);
+            }
+            return new PrefixRanking(slots.stream()
+                    .map(candidate -> new Candidate(candidate, stock[candidate]))
+                    .sorted(ranking.reversed())
+                    .mapToInt(Candidate::slot)
+                    .toArray(), current.complete(), falls);
+        }
+
+        /**
+         * Rank the products of the run of keys starting at key that share the prefix, and
+         * return the key after the run. lastRun records the run in which each slot was last
+         * counted, so that a product is counted once per prefix.
+         */
+        private int rankRun(int key, String prefix, int[] lastRun, int run, Map<String, PrefixRanking> into) {
+            Comparator<Candidate> ranking = ranking();
+            PriorityQueue<Candidate> best = new PriorityQueue<>(SHORT_PREFIX_CANDIDATES + 1, ranking);
+            int matches = 0;
+            for (; key < keySlots.length && keyStartsWith(key, prefix); key++) {
+                int slot = keySlots[key];
+                if (lastRun[slot] == run) {
+                    continue;
+                }
+                lastRun[slot] = run;
+                matches++;
+                best.add(new Candidate(slot, stock[slot]));
+                if (best.size() > SHORT_PREFIX_CANDIDATES) {
+                    best.poll();
+                }
+            }
+            into.put(prefix, new PrefixRanking(best.stream()
+                    .sorted(ranking.reversed())
+                    .mapToInt(Candidate::slot)
+                    .toArray(), matches <= SHORT_PREFIX_CANDIDATES, 0));
+            return key;
+        }
+
+        private Set<String> shortPrefixesOf(int slot) {
+            String normalizedName = normalizedNames[slot];
+            Set<String> prefixes = new HashSet<>();
+            for (int offset = 0; offset < normalizedName.length(); offset++) {
+                if (offset == 0 || normalizedName.charAt(offset - 1) == ' ') {
+                    for (int length = 1; length <= SHORT_PREFIX_LENGTH && offset + length <= normalizedName.length();
+                         length++) {
+                        prefixes.add(normalizedName.substring(offset, offset + length));
+                    }
+                }
+            }
+            return prefixes;
+        }
+
+        /**
+         * Index of the first key not less than the prefix.
+         */
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = keySlots.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareSuffixes(normalizedNames[keySlots[mid]], keyOffsets[mid], prefix, 0) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        boolean keyStartsWith(int key, String prefix) {
+            return normalizedNames[keySlots[key]].startsWith(prefix, keyOffsets[key]);
+        }
+
+        private static int compareSuffixes(String left, int leftOffset, String right, int rightOffset) {
+            int leftLength = left.length() - leftOffset;
+            int rightLength = right.length() - rightOffset;
+            int length = Math.min(leftLength, rightLength);
+            for (int i = 0; i < length; i++) {
+                int diff = left.charAt(leftOffset + i) - right.charAt(rightOffset + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return leftLength - rightLength;
+        }
+    }
+}
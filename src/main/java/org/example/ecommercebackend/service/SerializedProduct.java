@@ -0,0 +1,47 @@
+package org.example.ecommercebackend.service;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * A ProductResponse already serialized to JSON, with the validators (weak ETag,
+ * updatedAt) of the product version it was built from. The gzip variant is only
+ * compressed when first asked for. The byte arrays may be shared between requests
+ * and must not be modified.
+ */
+public class SerializedProduct {
+
+    private final String eTag;
+
+    private final Instant updatedAt;
+
+    private final byte[] json;
+
+    private final Supplier<byte[]> gzip;
+
+    public SerializedProduct(String eTag, Instant updatedAt, byte[] json, Supplier<byte[]> gzip) {
+        this.eTag = eTag;
+        this.updatedAt = updatedAt;
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * Gzip-compressed JSON, or null when compressing does not make the body smaller.
+     */
+    public byte[] getGzip() {
+        return gzip.get();
+    }
+}
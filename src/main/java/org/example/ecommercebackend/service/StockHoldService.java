@@ -0,0 +1,70 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.model.Product;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service interface for time-boxed stock holds placed between add-to-cart and checkout.
+ * A hold is the gate for adding to a cart: a cart line whose new total cannot be held
+ * is taken back.
+ */
+public interface StockHoldService {
+
+    /**
+     * Get the available-to-promise quantity of a product for a user:
+     * current stock minus the active holds of all other users.
+     */
+    int getAvailableToPromise(Product product, String userId);
+
+    /**
+     * Get the available-to-promise quantities of several products for a user in
+     * one read, keyed by product ID.
+     */
+    Map<String, Integer> getAvailableToPromise(Collection<Product> products, String userId);
+
+    /**
+     * Place or refresh the user's hold on a product, raising it to the given total quantity,
+     * if the product's stock covers it together with the active holds of all other users.
+     * Concurrent holds and checkouts can never push the holds past stock, though under
+     * contention a hold that would have fitted may be rejected. Returns false, leaving
+     * any existing hold unchanged, if the hold does not fit.
+     */
+    boolean tryHold(String userId, String productId, int quantity);
+
+    /**
+     * Place or refresh the user's holds on several products at once, each checked like
+     * tryHold, for the total quantities keyed by product ID.
+     * Returns the product IDs whose holds were placed.
+     */
+    Set<String> tryHolds(String userId, Map<String, Integer> quantities);
+
+    /**
+     * Get the active holds on several products, keyed by product ID and then user ID.
+     * Products without active holds are absent.
+     */
+    Map<String, Map<String, Integer>> getActiveHolds(Collection<String> productIds);
+
+    /**
+     * Remove the holds that checked-out orders have turned into sales,
+     * given as the ordered product IDs keyed by user ID.
+     */
+    void consumeHolds(Map<String, ? extends Collection<String>> productIdsByUser);
+
+    /**
+     * Release the user's hold on a single product.
+     */
+    void releaseHold(String userId, String productId);
+
+    /**
+     * Release all holds of a user (e.g., when the cart is cleared or checked out).
+     */
+    void releaseHolds(String userId);
+
+    /**
+     * Release all holds of several users at once.
+     */
+    void releaseHolds(Collection<String> userIds);
+}
@@ -2,6 +2,7 @@ package org.example.ecommercebackend.service;
 
 import org.example.ecommercebackend.model.User;
 
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -15,6 +16,12 @@ public interface UserService {
      */
     User getOrCreateUser(String userId);
 
+    /**
+     * Ensure all users exist, creating placeholder users for missing IDs
+     * with one read and one bulk insert.
+     */
+    void ensureUsersExist(Collection<String> userIds);
+
     /**
      * Find a user by ID.
      */
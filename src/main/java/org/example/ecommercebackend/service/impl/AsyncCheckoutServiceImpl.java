@@ -0,0 +1,383 @@
+package org.example.ecommercebackend.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.example.ecommercebackend.dto.request.CreateOrderRequest;
+import org.example.ecommercebackend.dto.response.OrderIntentResponse;
+import org.example.ecommercebackend.exception.CheckoutQueueFullException;
+import org.example.ecommercebackend.exception.InsufficientStockException;
+import org.example.ecommercebackend.exception.ResourceNotFoundException;
+import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.model.Order;
+import org.example.ecommercebackend.model.OrderIntent;
+import org.example.ecommercebackend.model.OrderItem;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.model.enums.OrderIntentStatus;
+import org.example.ecommercebackend.repository.OrderIntentRepository;
+import org.example.ecommercebackend.repository.OrderRepository;
+import org.example.ecommercebackend.service.AsyncCheckoutService;
+import org.example.ecommercebackend.service.CartService;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.example.ecommercebackend.service.InventoryService;
+import org.example.ecommercebackend.service.ProductCache;
+import org.example.ecommercebackend.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of AsyncCheckoutService.
+ *
+ * Accepted intents go into a bounded queue drained by a single worker thread.
+ * The worker takes whatever has queued up (up to the batch size) and checks the
+ * whole batch out together: users, carts and products are read once per batch,
+ * stock for all orders goes out in one bulk write, and orders, cart deletes and
+ * intent outcomes are each written in one round trip.
+ * Orders reuse their intent's id, so an intent that is processed again after a
+ * crash or a recovery sweep cannot create a second order.
+ *
+ * Before checking a batch out, the worker claims its intents (PENDING to PROCESSING
+ * under a lease), and drops those another worker holds or that already have an
+ * outcome; outcomes are only written under the claim. The recovery sweep re-queues
+ * old PENDING intents and those whose lease expired, and claiming them again is
+ * what keeps two workers from checking out the same intent.
+ */
+@Service
+@ConditionalOnProperty(name = "checkout.async.enabled", havingValue = "true")
+public class AsyncCheckoutServiceImpl implements AsyncCheckoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncCheckoutServiceImpl.class);
+
+    private static final String EMPTY_CART = "Cannot create order: Cart is empty";
+    private static final String OUT_OF_STOCK = "Insufficient stock for one or more items";
+    private static final String CHECKOUT_FAILED = "Checkout could not be completed";
+
+    private final OrderIntentRepository orderIntentRepository;
+    private final OrderRepository orderRepository;
+    private final ProductCache productCache;
+    private final CartService cartService;
+    private final UserService userService;
+    private final InventoryService inventoryService;
+    private final HotInventoryEngine hotInventoryEngine;
+
+    private final int batchSize;
+    private final BlockingQueue<OrderIntent> queue;
+    private final Thread worker;
+
+    @Value("${checkout.async.stale-after-seconds:300}")
+    private long staleAfterSeconds;
+
+    @Value("${checkout.async.lease-seconds:60}")
+    private long leaseSeconds;
+
+    public AsyncCheckoutServiceImpl(OrderIntentRepository orderIntentRepository,
+                                    OrderRepository orderRepository,
+                                    ProductCache productCache,
+                                    CartService cartService,
+                                    UserService userService,
+                                    InventoryService inventoryService,
+                                    HotInventoryEngine hotInventoryEngine,
+                                    @Value("${checkout.async.queue-capacity:1000}") int queueCapacity,
+                                    @Value("${checkout.async.batch-size:50}") int batchSize) {
+        this.orderIntentRepository = orderIntentRepository;
+        this.orderRepository = orderRepository;
+        this.productCache = productCache;
+        this.cartService = cartService;
+        this.userService = userService;
+        this.inventoryService = inventoryService;
+        this.hotInventoryEngine = hotInventoryEngine;
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = new Thread(this::drain, "async-checkout");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Start the worker. Intents left pending by a previous run are picked up by the
+     * recovery sweep once they are stale, like any other node's: an intent that is
+     * merely old may still be in another live node's queue.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Queued intents stay PENDING in MongoDB and are picked up on the next start
+        worker.interrupt();
+    }
+
+    @Override
+    public OrderIntentResponse submit(CreateOrderRequest request) {
+        OrderIntent intent = orderIntentRepository.save(new OrderIntent(request.getUserId()));
+        OrderIntentResponse response = OrderIntentResponse.fromEntity(intent);
+
+        if (!queue.offer(intent)) {
+            orderIntentRepository.delete(intent);
+            throw new CheckoutQueueFullException();
+        }
+
+        logger.info("Order intent {} accepted for user: {}", intent.getId(), request.getUserId());
+        return response;
+    }
+
+    @Override
+    public OrderIntentResponse getIntent(String intentId) {
+        OrderIntent intent = orderIntentRepository.findById(intentId)
+                .orElseThrow(() -> new ResourceNotFoundException("OrderIntent", "id", intentId));
+        return OrderIntentResponse.fromEntity(intent);
+    }
+
+    /**
+     * Re-queue intents that have been pending for too long (the queue was full during
+     * recovery, or their node stopped) and those whose claim lease expired (their batch
+     * failed, or its node stopped mid-batch). A pending intent may still sit in a live
+     * node's queue; whichever worker claims it first checks it out.
+     */
+    @Scheduled(fixedDelayString = "${checkout.async.recovery-interval-ms:60000}")
+    public void recoverStaleIntents() {
+        Instant now = Instant.now();
+        List<OrderIntent> stale = new ArrayList<>(orderIntentRepository
+                .findByStatusAndLeaseExpiresAtBeforeOrderByCreatedAtAsc(OrderIntentStatus.PROCESSING, now));
+        stale.addAll(orderIntentRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAtAsc(
+                OrderIntentStatus.PENDING, now.minus(Duration.ofSeconds(staleAfterSeconds))));
+
+        int requeued = 0;
+        for (OrderIntent intent : stale) {
+            if (!queue.offer(intent)) {
+                break;
+            }
+            requeued++;
+        }
+        if (requeued > 0) {
+            logger.info("Re-queued {} of {} stale order intent(s)", requeued, stale.size());
+        }
+    }
+
+    private void drain() {
+        List<OrderIntent> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // Claimed intents without a recorded outcome are retried by the recovery sweep once their lease expires
+                logger.error("Checkout batch of {} intent(s) failed: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Check out one batch of intents. Only ever called from the worker thread.
+     */
+    private void processBatch(List<OrderIntent> batch) {
+        // One checkout per user per batch; another intent for the same cart waits for the next batch
+        Map<String, OrderIntent> intentsByUser = new LinkedHashMap<>();
+        Set<String> seenIntentIds = new HashSet<>();
+        List<OrderIntent> deferred = new ArrayList<>();
+        for (OrderIntent intent : batch) {
+            if (!seenIntentIds.add(intent.getId())) {
+                continue;
+            }
+            if (intentsByUser.putIfAbsent(intent.getUserId(), intent) != null) {
+                deferred.add(intent);
+            }
+        }
+
+        // Check out only the intents this batch wins; the rest are another worker's or finished
+        String claimId = new ObjectId().toHexString();
+        Instant now = Instant.now();
+        List<OrderIntent> intents = orderIntentRepository.claim(
+                intentsByUser.values().stream().map(OrderIntent::getId).collect(Collectors.toList()),
+                claimId, now.plus(Duration.ofSeconds(leaseSeconds)), now);
+        if (intents.isEmpty()) {
+            requeue(deferred);
+            return;
+        }
+        Set<String> userIds = intents.stream().map(OrderIntent::getUserId).collect(Collectors.toSet());
+
+        // Shared reads for the whole batch
+        userService.ensureUsersExist(userIds);
+        Map<String, List<CartItem>> carts = cartService.getCartItemsByUserIds(userIds);
+
+        Set<String> productIds = carts.values().stream()
+                .flatMap(List::stream)
+                .map(CartItem::getProductId)
+                .collect(Collectors.toSet());
+
+        Map<String, Product> productMap = productCache.getAll(productIds);
+        productMap.values().forEach(hotInventoryEngine::applyLiveStock);
+
+        // An empty cart may have been cleared by an earlier attempt of the same intent
+        // that placed its order but crashed before recording the outcome
+        Set<String> placedOrderIds = findPlacedOrders(intents.stream()
+                .filter(intent -> carts.getOrDefault(intent.getUserId(), List.of()).isEmpty())
+                .map(OrderIntent::getId)
+                .collect(Collectors.toList()));
+
+        // Validate carts and build orders; invalid carts end their intent right away
+        List<OrderIntent> validIntents = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        for (OrderIntent intent : intents) {
+            List<CartItem> cartItems = carts.getOrDefault(intent.getUserId(), List.of());
+            if (placedOrderIds.contains(intent.getId())) {
+                intent.markAsCompleted(intent.getId());
+                continue;
+            }
+            if (cartItems.isEmpty()) {
+                intent.markAsFailed(EMPTY_CART);
+                continue;
+            }
+            try {
+                orders.add(newOrder(intent, OrderItemAssembler.fromCart(cartItems, productMap)));
+                validIntents.add(intent);
+            } catch (ResourceNotFoundException | InsufficientStockException e) {
+                intent.markAsFailed(e.getMessage());
+            }
+        }
+
+        // Stock for every order in the batch shares one bulk write
+        List<Boolean> reserved = inventoryService.reserveStockForOrders(orders);
+
+        List<OrderIntent> reservedIntents = new ArrayList<>();
+        List<Order> reservedOrders = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (reserved.get(i)) {
+                reservedIntents.add(validIntents.get(i));
+                reservedOrders.add(orders.get(i));
+            } else {
+                validIntents.get(i).markAsFailed(OUT_OF_STOCK);
+            }
+        }
+
+        insertOrders(reservedIntents, reservedOrders);
+
+        List<String> completedUserIds = intents.stream()
+                .filter(intent -> intent.getStatus() == OrderIntentStatus.COMPLETED)
+                .map(OrderIntent::getUserId)
+                .collect(Collectors.toList());
+        if (!completedUserIds.isEmpty()) {
+            try {
+                cartService.clearCarts(completedUserIds);
+            } catch (RuntimeException e) {
+                logger.error("Orders created but carts could not be cleared for {} user(s): {}",
+                        completedUserIds.size(), e.getMessage());
+            }
+        }
+
+        orderIntentRepository.saveOutcomes(intents, claimId);
+
+        requeue(deferred);
+
+        logger.info("Checkout batch processed: {} completed, {} failed, {} deferred, {} claimed elsewhere",
+                completedUserIds.size(), intents.size() - completedUserIds.size(), deferred.size(),
+                intentsByUser.size() - intents.size());
+    }
+
+    private void requeue(List<OrderIntent> deferred) {
+        for (OrderIntent intent : deferred) {
+            if (!queue.offer(intent)) {
+                logger.warn("Queue full, order intent {} left for the recovery sweep", intent.getId());
+            }
+        }
+    }
+
+    /**
+     * Return those of the given intent ids that already have an order (orders reuse their intent's id).
+     */
+    private Set<String> findPlacedOrders(List<String> intentIds) {
+        Set<String> placed = new HashSet<>();
+        if (!intentIds.isEmpty()) {
+            orderRepository.findAllById(intentIds).forEach(order -> placed.add(order.getId()));
+        }
+        return placed;
+    }
+
+    /**
+     * Insert the orders of one batch in a single bulk write and complete their intents.
+     */
+    private void insertOrders(List<OrderIntent> intents, List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingIds;
+        try {
+            existingIds = orderRepository.insertAllIfAbsent(orders);
+        } catch (RuntimeException e) {
+            logger.error("Order insert failed for checkout batch, reconciling: {}", e.getMessage());
+            reconcileOrders(intents, orders);
+            return;
+        }
+
+        // An existing order was placed by an earlier attempt of the same intent,
+        // which still holds its own stock, so give back what this attempt reserved
+        List<OrderItem> duplicateItems = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (existingIds.contains(order.getId())) {
+                duplicateItems.addAll(order.getItems());
+            }
+            intents.get(i).markAsCompleted(order.getId());
+        }
+        if (!duplicateItems.isEmpty()) {
+            inventoryService.releaseStock(duplicateItems);
+        }
+    }
+
+    /**
+     * After a failed bulk insert, complete the intents whose order was written
+     * and release the stock of those whose order was not.
+     */
+    private void reconcileOrders(List<OrderIntent> intents, List<Order> orders) {
+        Set<String> savedIds = new HashSet<>();
+        orderRepository.findAllById(orders.stream().map(Order::getId).collect(Collectors.toList()))
+                .forEach(order -> savedIds.add(order.getId()));
+
+        List<OrderItem> unsavedItems = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (savedIds.contains(order.getId())) {
+                intents.get(i).markAsCompleted(order.getId());
+            } else {
+                unsavedItems.addAll(order.getItems());
+                intents.get(i).markAsFailed(CHECKOUT_FAILED);
+            }
+        }
+        if (!unsavedItems.isEmpty()) {
+            inventoryService.releaseStock(unsavedItems);
+        }
+    }
+
+    private Order newOrder(OrderIntent intent, List<OrderItem> orderItems) {
+        Order order = new Order(intent.getUserId(), OrderItemAssembler.totalOf(orderItems));
+        order.setId(intent.getId());
+        order.setItems(orderItems);
+        order.setCreatedAt(Instant.now());
+        order.setUpdatedAt(Instant.now());
+        return order;
+    }
+}
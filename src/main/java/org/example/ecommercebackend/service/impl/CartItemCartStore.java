@@ -0,0 +1,85 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.repository.CartItemRepository;
+import org.example.ecommercebackend.service.CartStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * CartStore keeping one cart_items document per cart line, matched by the
+ * unique (userId, productId) index. Adding to a line is a single guarded upsert; adding to several
+ * lines is one bulk write of them.
+ */
+@Service
+@ConditionalOnProperty(name = "cart.store", havingValue = "items", matchIfMissing = true)
+public class CartItemCartStore implements CartStore {
+
+    private final CartItemRepository cartItemRepository;
+
+    public CartItemCartStore(CartItemRepository cartItemRepository) {
+        this.cartItemRepository = cartItemRepository;
+    }
+
+    @Override
+    public Optional<CartItem> findItem(String userId, String productId) {
+        return cartItemRepository.findByUserIdAndProductId(userId, productId);
+    }
+
+    @Override
+    public List<CartItem> findItems(String userId) {
+        return cartItemRepository.findByUserId(userId);
+    }
+
+    @Override
+    public Map<String, List<CartItem>> findItemsByUserIds(Collection<String> userIds) {
+        return cartItemRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.groupingBy(CartItem::getUserId));
+    }
+
+    @Override
+    public Optional<CartItem> addQuantity(String userId, String productId, int quantity, int maxQuantity) {
+        return cartItemRepository.incrementQuantity(userId, productId, quantity, maxQuantity);
+    }
+
+    @Override
+    public Map<String, CartItem> addQuantities(String userId, Map<String, Integer> quantities,
+                                               Map<String, Integer> maxQuantities) {
+        Set<String> applied = cartItemRepository.incrementQuantities(userId, quantities, maxQuantities);
+        if (applied.isEmpty()) {
+            return Map.of();
+        }
+        return cartItemRepository.findByUserIdAndProductIdIn(userId, applied).stream()
+                .collect(Collectors.toMap(CartItem::getProductId, Function.identity()));
+    }
+
+    @Override
+    public void subtractQuantity(String userId, String productId, int quantity) {
+        cartItemRepository.decrementQuantity(userId, productId, quantity);
+    }
+
+    @Override
+    public boolean removeItem(String userId, String productId) {
+        Optional<CartItem> cartItem = cartItemRepository.findByUserIdAndProductId(userId, productId);
+        cartItem.ifPresent(cartItemRepository::delete);
+        return cartItem.isPresent();
+    }
+
+    @Override
+    public void deleteCart(String userId) {
+        cartItemRepository.deleteByUserId(userId);
+    }
+
+    @Override
+    public void deleteCarts(Collection<String> userIds) {
+        cartItemRepository.deleteByUserIdIn(userIds);
+    }
+}
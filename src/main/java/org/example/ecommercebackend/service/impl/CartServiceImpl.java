@@ -1,45 +1,70 @@
 package org.example.ecommercebackend.service.impl;
 
+import org.example.ecommercebackend.dto.request.AddToCartBatchRequest;
 import org.example.ecommercebackend.dto.request.AddToCartRequest;
+import org.example.ecommercebackend.dto.response.CartBatchLineResponse;
+import org.example.ecommercebackend.dto.response.CartBatchResponse;
 import org.example.ecommercebackend.dto.response.CartItemResponse;
+import org.example.ecommercebackend.dto.response.CartResponse;
+import org.example.ecommercebackend.exception.BadRequestException;
 import org.example.ecommercebackend.exception.InsufficientStockException;
 import org.example.ecommercebackend.exception.ResourceNotFoundException;
 import org.example.ecommercebackend.model.CartItem;
 import org.example.ecommercebackend.model.Product;
-import org.example.ecommercebackend.repository.CartItemRepository;
-import org.example.ecommercebackend.repository.ProductRepository;
 import org.example.ecommercebackend.service.CartService;
+import org.example.ecommercebackend.service.CartStore;
+import org.example.ecommercebackend.service.CartViewReader;
+import org.example.ecommercebackend.service.FlashSaleService;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.example.ecommercebackend.service.ProductCache;
+import org.example.ecommercebackend.service.StockHoldService;
 import org.example.ecommercebackend.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of CartService.
- * Handles business logic for cart operations.
+ * Handles business logic for cart operations; cart lines are kept by the configured CartStore.
  */
 @Service
 public class CartServiceImpl implements CartService {
 
     private static final Logger logger = LoggerFactory.getLogger(CartServiceImpl.class);
 
-    private final CartItemRepository cartItemRepository;
-    private final ProductRepository productRepository;
+    private final CartStore cartStore;
+    private final CartViewReader cartViewReader;
+    private final ProductCache productCache;
     private final UserService userService;
+    private final StockHoldService stockHoldService;
+    private final HotInventoryEngine hotInventoryEngine;
+    private final FlashSaleService flashSaleService;
 
-    public CartServiceImpl(CartItemRepository cartItemRepository,
-                           ProductRepository productRepository,
-                           UserService userService) {
-        this.cartItemRepository = cartItemRepository;
-        this.productRepository = productRepository;
+    public CartServiceImpl(CartStore cartStore,
+                           CartViewReader cartViewReader,
+                           ProductCache productCache,
+                           UserService userService,
+                           StockHoldService stockHoldService,
+                           HotInventoryEngine hotInventoryEngine,
+                           @Lazy FlashSaleService flashSaleService) {
+        this.cartStore = cartStore;
+        this.cartViewReader = cartViewReader;
+        this.productCache = productCache;
         this.userService = userService;
+        this.stockHoldService = stockHoldService;
+        this.hotInventoryEngine = hotInventoryEngine;
+        this.flashSaleService = flashSaleService;
     }
 
     @Override
@@ -47,119 +72,209 @@ public class CartServiceImpl implements CartService {
         logger.info("Adding to cart - userId: {}, productId: {}, quantity: {}",
                 request.getUserId(), request.getProductId(), request.getQuantity());
 
+        // Flash-sale products can only be bought through their admission queue
+        if (flashSaleService.isFlashSaleProduct(request.getProductId())) {
+            throw new BadRequestException("Product is sold through the flash sale queue: " + request.getProductId());
+        }
+
         // Validate product exists
-        Product product = productRepository.findById(request.getProductId())
+        Product product = productCache.get(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", request.getProductId()));
+        hotInventoryEngine.applyLiveStock(product);
 
         // Ensure user exists (create if not)
         userService.getOrCreateUser(request.getUserId());
 
-        // Check existing cart item
-        Optional<CartItem> existingCartItem = cartItemRepository
-                .findByUserIdAndProductId(request.getUserId(), request.getProductId());
+        // Add to the line in one guarded write that keeps it within stock, then hold the
+        // total it reached: the hold is only kept while stock covers it plus the other
+        // users' holds, and a rejected hold takes the added quantity back off the line
+        Optional<CartItem> savedCartItem = cartStore.addQuantity(request.getUserId(), request.getProductId(),
+                request.getQuantity(), stockOf(product));
+        if (savedCartItem.isEmpty()) {
+            throw insufficientStock(product, request.getUserId(), request.getQuantity());
+        }
 
-        int totalQuantity = request.getQuantity();
-        if (existingCartItem.isPresent()) {
-            totalQuantity += existingCartItem.get().getQuantity();
+        int total = savedCartItem.get().getQuantity();
+        if (!holdOrTakeBack(request.getUserId(), Map.of(product.getId(), request.getQuantity()),
+                Map.of(product.getId(), total)).contains(product.getId())) {
+            throw insufficientStock(product, request.getUserId(), request.getQuantity());
         }
 
-        // Validate stock availability
-        if (!product.hasStock(totalQuantity)) {
-            throw new InsufficientStockException(
-                    product.getId(),
-                    product.getName(),
-                    totalQuantity,
-                    product.getStock()
-            );
+        logger.info("Cart item saved successfully, quantity: {}", total);
+        return CartItemResponse.fromEntityWithProduct(savedCartItem.get(),
+                CartItemResponse.ProductInfo.fromEntity(product));
+    }
+
+    @Override
+    public CartBatchResponse addToCartBatch(AddToCartBatchRequest request) {
+        List<AddToCartRequest> lines = request.getItems();
+        String userId = lines.get(0).getUserId();
+        if (lines.stream().anyMatch(line -> !userId.equals(line.getUserId()))) {
+            throw new BadRequestException("All items of a batch must be for the same user");
         }
+        logger.info("Adding {} line(s) to cart - userId: {}", lines.size(), userId);
 
-        CartItem cartItem;
-        if (existingCartItem.isPresent()) {
-            // Update existing cart item
-            cartItem = existingCartItem.get();
-            cartItem.setQuantity(totalQuantity);
-            cartItem.setUpdatedAt(Instant.now());
-            logger.debug("Updating existing cart item, new quantity: {}", totalQuantity);
-        } else {
-            // Create new cart item
-            cartItem = new CartItem(request.getUserId(), request.getProductId(), request.getQuantity());
-            cartItem.setCreatedAt(Instant.now());
-            cartItem.setUpdatedAt(Instant.now());
-            logger.debug("Creating new cart item");
+        // Fetch all products in one lookup (mostly served from the product cache)
+        Map<String, Product> products = productCache.getAll(lines.stream()
+                .map(AddToCartRequest::getProductId)
+                .collect(Collectors.toList()));
+        products.values().forEach(hotInventoryEngine::applyLiveStock);
+
+        // Reject lines that can never be added; the rest are summed per product,
+        // so a product listed twice is one guarded write
+        String[] errors = new String[lines.size()];
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            AddToCartRequest line = lines.get(i);
+            if (flashSaleService.isFlashSaleProduct(line.getProductId())) {
+                errors[i] = "Product is sold through the flash sale queue";
+            } else if (!products.containsKey(line.getProductId())) {
+                errors[i] = "Product not found";
+            } else {
+                quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            }
         }
 
-        CartItem savedCartItem = cartItemRepository.save(cartItem);
-        logger.info("Cart item saved successfully with ID: {}", savedCartItem.getId());
+        Map<String, Integer> availableToPromise = Map.of();
+        Map<String, CartItem> added = new HashMap<>();
+        if (!quantities.isEmpty()) {
+            userService.getOrCreateUser(userId);
+
+            // Add every line in one write, each guarded to stay within stock, then hold the
+            // totals the added lines reached in one call, as in addToCart
+            Map<String, Integer> stock = new HashMap<>();
+            quantities.keySet().forEach(productId -> stock.put(productId, stockOf(products.get(productId))));
+            added.putAll(cartStore.addQuantities(userId, quantities, stock));
 
-        // Build response with product info
-        CartItemResponse.ProductInfo productInfo = new CartItemResponse.ProductInfo(
-                product.getId(),
-                product.getName(),
-                product.getPrice(),
-                product.getStock()
-        );
+            Map<String, Integer> addedQuantities = new LinkedHashMap<>(quantities);
+            addedQuantities.keySet().retainAll(added.keySet());
+            Map<String, Integer> totals = new LinkedHashMap<>();
+            added.forEach((productId, cartItem) -> totals.put(productId, cartItem.getQuantity()));
+            added.keySet().retainAll(holdOrTakeBack(userId, addedQuantities, totals));
 
-        return CartItemResponse.fromEntityWithProduct(savedCartItem, productInfo);
+            // Only rejected lines need the stock left for their error message
+            List<Product> rejected = new ArrayList<>();
+            for (String productId : quantities.keySet()) {
+                if (!added.containsKey(productId)) {
+                    rejected.add(products.get(productId));
+                }
+            }
+            if (!rejected.isEmpty()) {
+                availableToPromise = stockHoldService.getAvailableToPromise(rejected, userId);
+            }
+        }
+
+        List<CartBatchLineResponse> results = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String productId = lines.get(i).getProductId();
+            CartItem cartItem = added.get(productId);
+            if (errors[i] != null) {
+                results.add(CartBatchLineResponse.rejected(i, productId, errors[i]));
+            } else if (cartItem != null) {
+                results.add(CartBatchLineResponse.added(i, CartItemResponse.fromEntityWithProduct(cartItem,
+                        CartItemResponse.ProductInfo.fromEntity(products.get(productId)))));
+            } else {
+                results.add(CartBatchLineResponse.rejected(i, productId, String.format(
+                        "Insufficient stock for product '%s'. Available: %d",
+                        products.get(productId).getName(),
+                        Math.max(availableToPromise.get(productId), 0))));
+            }
+        }
+
+        CartBatchResponse response = new CartBatchResponse(results);
+        logger.info("Batch add to cart finished - userId: {}, added: {}, rejected: {}",
+                userId, response.getAdded(), response.getRejected());
+        return response;
     }
 
     @Override
     public List<CartItemResponse> getCartByUserId(String userId) {
-        logger.debug("Fetching cart for user: {}", userId);
-
-        List<CartItem> cartItems = cartItemRepository.findByUserId(userId);
-
-        if (cartItems.isEmpty()) {
-            return List.of();
-        }
+        logger.debug("Fetching cart items for user: {}", userId);
+        return cartViewReader.read(userId).getItems();
+    }
 
-        // Fetch all products in one query for efficiency
-        List<String> productIds = cartItems.stream()
-                .map(CartItem::getProductId)
-                .collect(Collectors.toList());
-
-        Map<String, Product> productMap = productRepository.findAllById(productIds).stream()
-                .collect(Collectors.toMap(Product::getId, Function.identity()));
-
-        // Build responses with product info
-        return cartItems.stream()
-                .map(cartItem -> {
-                    Product product = productMap.get(cartItem.getProductId());
-                    CartItemResponse.ProductInfo productInfo = null;
-                    if (product != null) {
-                        productInfo = new CartItemResponse.ProductInfo(
-                                product.getId(),
-                                product.getName(),
-                                product.getPrice(),
-                                product.getStock()
-                        );
-                    }
-                    return CartItemResponse.fromEntityWithProduct(cartItem, productInfo);
-                })
-                .collect(Collectors.toList());
+    @Override
+    public CartResponse getCartViewByUserId(String userId) {
+        logger.debug("Fetching cart view for user: {}", userId);
+        return cartViewReader.read(userId);
     }
 
     @Override
     public List<CartItem> getCartItemsByUserId(String userId) {
         logger.debug("Fetching cart items as entities for user: {}", userId);
-        return cartItemRepository.findByUserId(userId);
+        return cartStore.findItems(userId);
+    }
+
+    @Override
+    public Map<String, List<CartItem>> getCartItemsByUserIds(Collection<String> userIds) {
+        logger.debug("Fetching cart items for {} user(s)", userIds.size());
+        return cartStore.findItemsByUserIds(userIds);
     }
 
     @Override
     public void clearCart(String userId) {
         logger.info("Clearing cart for user: {}", userId);
-        cartItemRepository.deleteByUserId(userId);
+        cartStore.deleteCart(userId);
+        stockHoldService.releaseHolds(userId);
         logger.info("Cart cleared successfully for user: {}", userId);
     }
 
+    @Override
+    public void clearCarts(Collection<String> userIds) {
+        logger.info("Clearing carts for {} user(s)", userIds.size());
+        cartStore.deleteCarts(userIds);
+        stockHoldService.releaseHolds(userIds);
+    }
+
     @Override
     public void removeCartItem(String userId, String productId) {
         logger.info("Removing cart item - userId: {}, productId: {}", userId, productId);
 
-        CartItem cartItem = cartItemRepository.findByUserIdAndProductId(userId, productId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Cart item not found for user: " + userId + " and product: " + productId));
+        if (!cartStore.removeItem(userId, productId)) {
+            throw new ResourceNotFoundException(
+                    "Cart item not found for user: " + userId + " and product: " + productId);
+        }
 
-        cartItemRepository.delete(cartItem);
+        stockHoldService.releaseHold(userId, productId);
         logger.info("Cart item removed successfully");
     }
+
+    /**
+     * Hold the totals that just-added cart lines reached, and take the added quantities
+     * back off the lines whose holds were rejected (or all of them, if holding fails).
+     * Returns the product IDs whose holds were placed.
+     */
+    private Set<String> holdOrTakeBack(String userId, Map<String, Integer> addedQuantities,
+                                       Map<String, Integer> totals) {
+        Set<String> held;
+        try {
+            held = stockHoldService.tryHolds(userId, totals);
+        } catch (RuntimeException e) {
+            addedQuantities.forEach((productId, quantity) -> cartStore.subtractQuantity(userId, productId, quantity));
+            throw e;
+        }
+        addedQuantities.forEach((productId, quantity) -> {
+            if (!held.contains(productId)) {
+                cartStore.subtractQuantity(userId, productId, quantity);
+            }
+        });
+        return held;
+    }
+
+    private static int stockOf(Product product) {
+        return product.getStock() != null ? product.getStock() : 0;
+    }
+
+    /**
+     * Build the error for a rejected add, reporting the total the cart line would have reached.
+     * Only runs on the failure path, so the extra reads do not slow down successful adds.
+     */
+    private InsufficientStockException insufficientStock(Product product, String userId, int quantity) {
+        int requested = cartStore.findItem(userId, product.getId())
+                .map(CartItem::getQuantity)
+                .orElse(0) + quantity;
+        int availableToPromise = stockHoldService.getAvailableToPromise(product, userId);
+        return new InsufficientStockException(product.getId(), product.getName(),
+                requested, Math.max(availableToPromise, 0));
+    }
 }
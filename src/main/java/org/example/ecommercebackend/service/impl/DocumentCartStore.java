@@ -0,0 +1,108 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.model.Cart;
+import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.model.CartLine;
+import org.example.ecommercebackend.repository.CartRepository;
+import org.example.ecommercebackend.service.CartStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * CartStore keeping one carts document per user with the lines embedded.
+ * Reads fetch the document by _id; writes change one array element in place with
+ * a guarded positional $inc or $push/$pull, so no operation touches more than one
+ * document. Embedded lines have no ID of their own.
+ */
+@Service
+@ConditionalOnProperty(name = "cart.store", havingValue = "document")
+public class DocumentCartStore implements CartStore {
+
+    private final CartRepository cartRepository;
+
+    public DocumentCartStore(CartRepository cartRepository) {
+        this.cartRepository = cartRepository;
+    }
+
+    @Override
+    public Optional<CartItem> findItem(String userId, String productId) {
+        return findItems(userId).stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .findFirst();
+    }
+
+    @Override
+    public List<CartItem> findItems(String userId) {
+        return cartRepository.findById(userId)
+                .map(DocumentCartStore::toCartItems)
+                .orElseGet(List::of);
+    }
+
+    @Override
+    public Map<String, List<CartItem>> findItemsByUserIds(Collection<String> userIds) {
+        Map<String, List<CartItem>> itemsByUser = new HashMap<>();
+        for (Cart cart : cartRepository.findAllById(userIds)) {
+            if (!cart.getItems().isEmpty()) {
+                itemsByUser.put(cart.getId(), toCartItems(cart));
+            }
+        }
+        return itemsByUser;
+    }
+
+    @Override
+    public Optional<CartItem> addQuantity(String userId, String productId, int quantity, int maxQuantity) {
+        return cartRepository.incrementLineQuantity(userId, productId, quantity, maxQuantity)
+                .map(line -> toCartItem(userId, line));
+    }
+
+    @Override
+    public Map<String, CartItem> addQuantities(String userId, Map<String, Integer> quantities,
+                                               Map<String, Integer> maxQuantities) {
+        // Each line is its own guarded update of the one cart document
+        Map<String, CartItem> added = new HashMap<>();
+        quantities.forEach((productId, quantity) ->
+                addQuantity(userId, productId, quantity, maxQuantities.get(productId))
+                        .ifPresent(item -> added.put(productId, item)));
+        return added;
+    }
+
+    @Override
+    public void subtractQuantity(String userId, String productId, int quantity) {
+        cartRepository.decrementLineQuantity(userId, productId, quantity);
+    }
+
+    @Override
+    public boolean removeItem(String userId, String productId) {
+        return cartRepository.removeLine(userId, productId);
+    }
+
+    @Override
+    public void deleteCart(String userId) {
+        cartRepository.deleteById(userId);
+    }
+
+    @Override
+    public void deleteCarts(Collection<String> userIds) {
+        cartRepository.deleteAllById(userIds);
+    }
+
+    private static List<CartItem> toCartItems(Cart cart) {
+        return cart.getItems().stream()
+                .map(line -> toCartItem(cart.getId(), line))
+                .collect(Collectors.toList());
+    }
+
+    private static CartItem toCartItem(String userId, CartLine line) {
+        CartItem cartItem = new CartItem(userId, line.getProductId(), line.getQuantity());
+        cartItem.setCreatedAt(line.getCreatedAt());
+        cartItem.setUpdatedAt(line.getUpdatedAt());
+        return cartItem;
+    }
+}
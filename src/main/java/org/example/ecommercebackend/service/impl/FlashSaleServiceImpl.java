@@ -0,0 +1,359 @@
+package org.example.ecommercebackend.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.example.ecommercebackend.dto.request.FlashSalePurchaseRequest;
+import org.example.ecommercebackend.dto.response.FlashSaleTicketResponse;
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.exception.BadRequestException;
+import org.example.ecommercebackend.exception.InsufficientStockException;
+import org.example.ecommercebackend.exception.ResourceNotFoundException;
+import org.example.ecommercebackend.model.FlashSaleTicket;
+import org.example.ecommercebackend.model.Order;
+import org.example.ecommercebackend.model.OrderItem;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.model.enums.FlashSaleTicketStatus;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.example.ecommercebackend.service.FlashSaleService;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.example.ecommercebackend.service.OrderService;
+import org.example.ecommercebackend.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of FlashSaleService.
+ *
+ * Each flash-sale product has a bounded admission queue drained by a single
+ * sequencer thread, so purchases complete in strict arrival order. An in-memory
+ * count of units not yet claimed by a queued ticket answers sold-out requests
+ * immediately, which keeps database load proportional to the stock on sale
+ * rather than to the number of people trying to buy it.
+ *
+ * Stock can change outside the sale (a restock, a cancelled order, another node).
+ * The count is then corrected by the difference between the actual stock and what
+ * the lane expected: when a purchase fails for lack of stock, when a product change
+ * event arrives from outside the lane, and on a fixed interval for changes no local
+ * event reports. Lanes are per node, so the count only bounds admissions on this
+ * node; with several nodes, stock is still never oversold, but more tickets than
+ * units can be queued and the surplus fails as sold out.
+ *
+ * On shutdown, lanes stop admitting, the queues are drained for a grace period,
+ * and tickets still queued after it are rejected. Tickets, finished or not, are
+ * dropped after the retention period, and at most max-tickets are kept at once.
+ */
+@Service
+public class FlashSaleServiceImpl implements FlashSaleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlashSaleServiceImpl.class);
+
+    // How often an idle sequencer checks whether its lane is closing
+    private static final long POLL_MILLIS = 200;
+
+    private final ProductRepository productRepository;
+    private final OrderService orderService;
+    private final UserService userService;
+    private final HotInventoryEngine hotInventoryEngine;
+
+    private final Set<String> flashSaleProductIds;
+    private final Map<String, SaleLane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, FlashSaleTicket> tickets = new ConcurrentHashMap<>();
+
+    @Value("${flash-sale.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${flash-sale.ticket-retention-minutes:30}")
+    private long ticketRetentionMinutes;
+
+    @Value("${flash-sale.max-tickets:100000}")
+    private int maxTickets;
+
+    @Value("${flash-sale.shutdown-drain-ms:5000}")
+    private long shutdownDrainMillis;
+
+    public FlashSaleServiceImpl(ProductRepository productRepository,
+                                OrderService orderService,
+                                UserService userService,
+                                HotInventoryEngine hotInventoryEngine,
+                                @Value("${flash-sale.product-ids:}") String flashSaleProductIds) {
+        this.productRepository = productRepository;
+        this.orderService = orderService;
+        this.userService = userService;
+        this.hotInventoryEngine = hotInventoryEngine;
+        this.flashSaleProductIds = Arrays.stream(flashSaleProductIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Open a lane (queue + sequencer) for every configured flash-sale product.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void openLanes() {
+        for (Product product : productRepository.findAllById(flashSaleProductIds)) {
+            hotInventoryEngine.applyLiveStock(product);
+            SaleLane lane = new SaleLane(product, queueCapacity);
+            lanes.put(product.getId(), lane);
+            lane.sequencer.start();
+            logger.info("Flash sale opened for product {} with {} unit(s)", product.getId(), product.getStock());
+        }
+    }
+
+    /**
+     * Stop admitting, let the sequencers work through their queues until the drain
+     * period is over, then reject whatever is still queued and return its units.
+     */
+    @PreDestroy
+    public void closeLanes() {
+        lanes.values().forEach(lane -> lane.closing = true);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownDrainMillis);
+        for (SaleLane lane : lanes.values()) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis > 0) {
+                try {
+                    lane.sequencer.join(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        for (SaleLane lane : lanes.values()) {
+            // A sequencer still busy finishes its current ticket, then exits
+            lane.stopped = true;
+            List<FlashSaleTicket> queued = new ArrayList<>();
+            lane.queue.drainTo(queued);
+            for (FlashSaleTicket ticket : queued) {
+                lane.unclaimed.addAndGet(ticket.getQuantity());
+                ticket.markAsUnfulfilled(FlashSaleTicketStatus.REJECTED, "Flash sale is closing, try again");
+            }
+            if (!queued.isEmpty()) {
+                logger.warn("Flash sale for product {} closed with {} ticket(s) still queued, rejected them",
+                        lane.productId, queued.size());
+            }
+        }
+    }
+
+    @Override
+    public boolean isFlashSaleProduct(String productId) {
+        return lanes.containsKey(productId);
+    }
+
+    @Override
+    public FlashSaleTicketResponse submitPurchase(String productId, FlashSalePurchaseRequest request) {
+        SaleLane lane = lanes.get(productId);
+        if (lane == null) {
+            throw new BadRequestException("Product is not in a flash sale: " + productId);
+        }
+
+        FlashSaleTicket ticket = new FlashSaleTicket(productId, request.getUserId(), request.getQuantity());
+        if (tickets.size() >= maxTickets) {
+            // Not kept, so it cannot be polled; the response already carries its outcome
+            ticket.markAsUnfulfilled(FlashSaleTicketStatus.REJECTED, "Too many pending purchases, try again");
+            return FlashSaleTicketResponse.fromTicket(ticket);
+        }
+        tickets.put(ticket.getId(), ticket);
+
+        if (lane.closing) {
+            ticket.markAsUnfulfilled(FlashSaleTicketStatus.REJECTED, "Flash sale is closing, try again");
+        } else if (!lane.claim(ticket.getQuantity())) {
+            ticket.markAsUnfulfilled(FlashSaleTicketStatus.SOLD_OUT, "Sold out");
+        } else if (!lane.queue.offer(ticket)) {
+            lane.unclaimed.addAndGet(ticket.getQuantity());
+            ticket.markAsUnfulfilled(FlashSaleTicketStatus.REJECTED, "Too many pending purchases, try again");
+        }
+
+        logger.debug("Flash sale ticket {} for product {} is {}", ticket.getId(), productId, ticket.getStatus());
+        return FlashSaleTicketResponse.fromTicket(ticket);
+    }
+
+    @Override
+    public FlashSaleTicketResponse getTicket(String ticketId) {
+        FlashSaleTicket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("FlashSaleTicket", "id", ticketId);
+        }
+        return FlashSaleTicketResponse.fromTicket(ticket);
+    }
+
+    /**
+     * Drop tickets once clients have had time to poll them. A ticket still queued after
+     * the retention period is dropped too; it is still processed, only no longer polled.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictTickets() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(ticketRetentionMinutes));
+        tickets.values().removeIf(ticket -> ticket.getUpdatedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Have the lanes of changed products recount their stock. Changes made by a lane's
+     * own purchases are published on its sequencer thread and already accounted for,
+     * so only events from other threads (restocks, cancellations, imports) count.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isAllProducts()) {
+            lanes.values().forEach(SaleLane::requestResync);
+        } else {
+            event.getProductIds().stream()
+                    .map(lanes::get)
+                    .filter(Objects::nonNull)
+                    .forEach(SaleLane::requestResync);
+        }
+    }
+
+    /**
+     * Recount every lane periodically, for changes that publish no local event,
+     * such as writes from another node while change streams are disabled.
+     */
+    @Scheduled(fixedDelayString = "${flash-sale.resync-interval-ms:10000}")
+    public void resyncLanes() {
+        lanes.values().forEach(SaleLane::requestResync);
+    }
+
+    /**
+     * Complete a single queued purchase. Only ever called from the lane's sequencer thread.
+     */
+    private void process(SaleLane lane, FlashSaleTicket ticket) {
+        try {
+            userService.getOrCreateUser(ticket.getUserId());
+            OrderItem item = new OrderItem(lane.productId, lane.productName, ticket.getQuantity(), lane.price);
+            Order order = orderService.placeOrder(ticket.getUserId(), List.of(item));
+            lane.expectedStock -= ticket.getQuantity();
+            ticket.markAsConfirmed(order.getId());
+        } catch (InsufficientStockException e) {
+            resync(lane, ticket.getQuantity());
+            ticket.markAsUnfulfilled(FlashSaleTicketStatus.SOLD_OUT, "Sold out");
+        } catch (RuntimeException e) {
+            logger.error("Flash sale purchase failed for ticket {}: {}", ticket.getId(), e.getMessage());
+            lane.unclaimed.addAndGet(ticket.getQuantity());
+            ticket.markAsUnfulfilled(FlashSaleTicketStatus.FAILED, "Purchase could not be completed");
+        }
+    }
+
+    /**
+     * Correct the unclaimed count after stock was changed outside the sale, and give
+     * back the units of the ticket that could not be sold. Applied as a delta, so
+     * claims made concurrently are kept; the count may go negative while queued
+     * tickets hold more units than are left, and recovers as they fail.
+     * Only ever called from the lane's sequencer thread.
+     */
+    private void resync(SaleLane lane, int releasedQuantity) {
+        Integer live = hotInventoryEngine.getAvailable(lane.productId);
+        int actual = live != null ? live : productRepository.findById(lane.productId)
+                .map(Product::getStock)
+                .orElse(0);
+        int drift = actual - lane.expectedStock;
+        int unclaimed = lane.unclaimed.addAndGet(drift + releasedQuantity);
+        lane.expectedStock = actual;
+        if (drift != 0) {
+            logger.info("Flash sale stock for product {} changed outside the sale; {} unit(s) left, {} unclaimed",
+                    lane.productId, actual, unclaimed);
+        }
+    }
+
+    /**
+     * Admission queue and sequencer for one flash-sale product.
+     */
+    private class SaleLane {
+        private final String productId;
+        private final String productName;
+        private final Double price;
+        private final AtomicInteger unclaimed;
+        private final BlockingQueue<FlashSaleTicket> queue;
+        private final Thread sequencer;
+        // Stock the lane expects to be left; only touched by the sequencer
+        private int expectedStock;
+        // Set when the stock may have changed outside the sale; cleared by the sequencer
+        private volatile boolean resyncRequested;
+        private volatile boolean closing;
+        private volatile boolean stopped;
+
+        SaleLane(Product product, int capacity) {
+            this.productId = product.getId();
+            this.productName = product.getName();
+            this.price = product.getPrice();
+            this.expectedStock = product.getStock() != null ? product.getStock() : 0;
+            this.unclaimed = new AtomicInteger(expectedStock);
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.sequencer = new Thread(this::drain, "flash-sale-" + productId);
+            this.sequencer.setDaemon(true);
+        }
+
+        /**
+         * Claim units for a new ticket if enough are left.
+         */
+        boolean claim(int quantity) {
+            int current = unclaimed.get();
+            while (current >= quantity) {
+                if (unclaimed.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+                current = unclaimed.get();
+            }
+            return false;
+        }
+
+        /**
+         * Ask the sequencer to recount, unless the change came from the sequencer itself.
+         */
+        void requestResync() {
+            if (Thread.currentThread() != sequencer) {
+                resyncRequested = true;
+            }
+        }
+
+        /**
+         * Process tickets in arrival order until stopped, or until the lane is
+         * closing and its queue is empty. Requested recounts run between tickets.
+         */
+        private void drain() {
+            while (!stopped) {
+                if (resyncRequested) {
+                    resyncRequested = false;
+                    try {
+                        resync(this, 0);
+                    } catch (RuntimeException e) {
+                        logger.warn("Flash sale stock for product {} could not be recounted: {}",
+                                productId, e.getMessage());
+                    }
+                }
+                FlashSaleTicket ticket;
+                try {
+                    ticket = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (ticket != null) {
+                    process(this, ticket);
+                } else if (closing) {
+                    return;
+                }
+            }
+        }
+    }
+}
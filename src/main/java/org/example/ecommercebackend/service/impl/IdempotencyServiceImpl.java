@@ -0,0 +1,193 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.bson.types.ObjectId;
+import org.example.ecommercebackend.dto.response.OrderResponse;
+import org.example.ecommercebackend.exception.IdempotencyConflictException;
+import org.example.ecommercebackend.model.IdempotencyRecord;
+import org.example.ecommercebackend.model.enums.IdempotencyStatus;
+import org.example.ecommercebackend.repository.IdempotencyRecordRepository;
+import org.example.ecommercebackend.service.IdempotencyService;
+import org.example.ecommercebackend.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Implementation of IdempotencyService.
+ *
+ * Lookups go through three layers: an in-memory LRU of completed responses,
+ * a map of requests in flight on this node, and the idempotency_keys collection,
+ * whose _id uniqueness decides which node gets to run a key first.
+ * A claim is a lease: if it is not completed within idempotency.lease-ms, another
+ * request may take it over, and finds the order if one was placed under the claim.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final OrderService orderService;
+
+    private final Map<String, OrderResponse> completedResponses;
+    private final Map<String, CompletableFuture<OrderResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    @Value("${idempotency.lease-ms:60000}")
+    private long leaseMs;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  @Lazy OrderService orderService,
+                                  @Value("${idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.orderService = orderService;
+        this.completedResponses = Collections.synchronizedMap(
+                new LinkedHashMap<String, OrderResponse>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, OrderResponse> eldest) {
+                        return size() > cacheSize;
+                    }
+                });
+    }
+
+    @Override
+    public OrderResponse executeOnce(String idempotencyKey, String userId,
+                                     Function<String, OrderResponse> createOrder) {
+        String scopedKey = userId + ":" + idempotencyKey;
+
+        OrderResponse cached = completedResponses.get(scopedKey);
+        if (cached != null) {
+            logger.info("Replaying cached order {} for Idempotency-Key: {}", cached.getId(), idempotencyKey);
+            return cached;
+        }
+
+        CompletableFuture<OrderResponse> future = new CompletableFuture<>();
+        CompletableFuture<OrderResponse> existing = inFlight.putIfAbsent(scopedKey, future);
+        if (existing != null) {
+            logger.info("Waiting for in-flight request with Idempotency-Key: {}", idempotencyKey);
+            return await(existing, idempotencyKey);
+        }
+
+        try {
+            OrderResponse response = claimAndRun(scopedKey, idempotencyKey, userId, createOrder);
+            completedResponses.put(scopedKey, response);
+            future.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey);
+        }
+    }
+
+    /**
+     * Claim the key and create the order, or replay the order of an earlier claim.
+     * An unfinished claim is waited for while its lease runs; once the lease has
+     * expired (its request crashed, or failed to record the outcome) it is taken over.
+     */
+    private OrderResponse claimAndRun(String scopedKey, String idempotencyKey, String userId,
+                                      Function<String, OrderResponse> createOrder) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+
+        while (true) {
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+            IdempotencyRecord claim = new IdempotencyRecord(scopedKey, userId, new ObjectId().toHexString(),
+                    now, now.plus(Duration.ofHours(ttlHours)));
+            try {
+                idempotencyRecordRepository.insert(claim);
+                return run(claim, createOrder);
+            } catch (DuplicateKeyException e) {
+                // Claimed earlier or by another node
+            }
+
+            Optional<IdempotencyRecord> record = idempotencyRecordRepository.findById(scopedKey);
+            if (record.isEmpty()) {
+                // The earlier request failed and released the key: claim it
+                continue;
+            }
+            if (record.get().isCompleted()) {
+                logger.info("Replaying order {} for Idempotency-Key: {}", record.get().getOrderId(), idempotencyKey);
+                return orderService.getOrderById(record.get().getOrderId());
+            }
+
+            Optional<IdempotencyRecord> takenOver = idempotencyRecordRepository.takeOverStaleClaim(
+                    scopedKey, now.minus(Duration.ofMillis(leaseMs)), now);
+            if (takenOver.isPresent()) {
+                logger.warn("Taking over stale claim of Idempotency-Key: {}", idempotencyKey);
+                return run(takenOver.get(), createOrder);
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IdempotencyConflictException(idempotencyKey);
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyConflictException(idempotencyKey);
+            }
+        }
+    }
+
+    /**
+     * Create the order under the claim's order ID and record the outcome. The order
+     * may already exist if the claim was taken over, and is then only recorded.
+     */
+    private OrderResponse run(IdempotencyRecord claim, Function<String, OrderResponse> createOrder) {
+        OrderResponse response;
+        try {
+            response = createOrder.apply(claim.getOrderId());
+        } catch (DuplicateKeyException e) {
+            response = orderService.getOrderById(claim.getOrderId());
+        } catch (RuntimeException e) {
+            // Let the client retry a request that did not produce an order
+            idempotencyRecordRepository.releaseClaim(claim.getId(), claim.getClaimedAt());
+            throw e;
+        }
+
+        claim.setStatus(IdempotencyStatus.COMPLETED);
+        idempotencyRecordRepository.save(claim);
+        return response;
+    }
+
+    private OrderResponse await(CompletableFuture<OrderResponse> future, String idempotencyKey) {
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(idempotencyKey);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.exception.InsufficientStockException;
+import org.example.ecommercebackend.model.Order;
+import org.example.ecommercebackend.model.OrderItem;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.example.ecommercebackend.repository.StockAdjustment;
+import org.example.ecommercebackend.repository.StockAdjustmentResult;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.example.ecommercebackend.service.InventoryService;
+import org.example.ecommercebackend.service.StockHoldService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of InventoryService.
+ * Deducts stock with guarded server-side updates so concurrent checkouts
+ * on the same product can never oversell or overwrite each other.
+ * All lines of one or more orders are applied as one batch of adjustments, except lines
+ * for hot products, which are taken from the in-memory HotInventoryEngine.
+ * Stock held for other users' carts is honoured; the buyer's own holds are consumed.
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+    private final ProductRepository productRepository;
+    private final HotInventoryEngine hotInventoryEngine;
+    private final StockHoldService stockHoldService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InventoryServiceImpl(ProductRepository productRepository,
+                                HotInventoryEngine hotInventoryEngine,
+                                StockHoldService stockHoldService,
+                                ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.hotInventoryEngine = hotInventoryEngine;
+        this.stockHoldService = stockHoldService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void reserveStock(String userId, List<OrderItem> items) {
+        OrderItem failedItem = reserve(List.of(userId), List.of(items)).get(0);
+
+        if (failedItem != null) {
+            Integer hotAvailable = hotInventoryEngine.getAvailable(failedItem.getProductId());
+            int available = hotAvailable != null
+                    ? hotAvailable
+                    : productRepository.findStockById(failedItem.getProductId()).orElse(0);
+            throw new InsufficientStockException(
+                    failedItem.getProductId(),
+                    failedItem.getProductName(),
+                    failedItem.getQuantity(),
+                    available
+            );
+        }
+    }
+
+    @Override
+    public List<Boolean> reserveStockForOrders(List<Order> orders) {
+        List<OrderItem> failedItems = reserve(
+                orders.stream().map(Order::getUserId).collect(Collectors.toList()),
+                orders.stream().map(Order::getItems).collect(Collectors.toList()));
+
+        List<Boolean> outcomes = new ArrayList<>(orders.size());
+        for (OrderItem failedItem : failedItems) {
+            outcomes.add(failedItem == null);
+        }
+        return outcomes;
+    }
+
+    @Override
+    public void releaseStock(List<OrderItem> items) {
+        List<OrderItem> hotItems = new ArrayList<>();
+        List<StockAdjustment> restores = new ArrayList<>();
+        for (OrderItem item : items) {
+            if (hotInventoryEngine.isHot(item.getProductId())) {
+                hotItems.add(item);
+            } else {
+                restores.add(StockAdjustment.restore(item.getProductId(), item.getQuantity()));
+            }
+        }
+        releaseHot(hotItems);
+
+        if (restores.isEmpty()) {
+            return;
+        }
+
+        StockAdjustmentResult result = productRepository.applyStockAdjustments(restores);
+        publishStockChanged(restores);
+        for (StockAdjustment failed : result.getFailed()) {
+            logger.warn("Cannot restore stock, product {} no longer exists", failed.getProductId());
+        }
+        logger.debug("Restored stock for {} line(s) in one batch", restores.size());
+    }
+
+    /**
+     * Reserve stock for each order as a unit, sharing one batch of adjustments across all orders.
+     * Returns, per order, the first line that could not be reserved (null on success).
+     * Every line already taken for a failed order is compensated, and the holds of the
+     * orders that succeed are consumed.
+     */
+    private List<OrderItem> reserve(List<String> userIds, List<List<OrderItem>> orders) {
+        List<OrderItem> failedItems = new ArrayList<>();
+        List<List<OrderItem>> hotReserved = new ArrayList<>();
+
+        // Hot products first: they fail fast in memory without touching MongoDB
+        for (List<OrderItem> items : orders) {
+            List<OrderItem> reserved = new ArrayList<>();
+            OrderItem failedItem = null;
+            for (OrderItem item : items) {
+                if (!hotInventoryEngine.isHot(item.getProductId())) {
+                    continue;
+                }
+                if (!hotInventoryEngine.tryAcquire(item.getProductId(), item.getQuantity())) {
+                    failedItem = item;
+                    break;
+                }
+                reserved.add(item);
+            }
+            if (failedItem != null) {
+                releaseHot(reserved);
+                reserved.clear();
+            }
+            failedItems.add(failedItem);
+            hotReserved.add(reserved);
+        }
+
+        // Stored lines of every order still in play go out in a single batch
+        List<StockAdjustment> deductions = new ArrayList<>();
+        List<OrderItem> deductionItems = new ArrayList<>();
+        List<Integer> deductionOwners = new ArrayList<>();
+        for (int order = 0; order < orders.size(); order++) {
+            if (failedItems.get(order) != null) {
+                continue;
+            }
+            for (OrderItem item : orders.get(order)) {
+                if (!hotInventoryEngine.isHot(item.getProductId())) {
+                    deductions.add(StockAdjustment.deduct(item.getProductId(), item.getQuantity()));
+                    deductionItems.add(item);
+                    deductionOwners.add(order);
+                }
+            }
+        }
+
+        StockAdjustmentResult result = null;
+        if (!deductions.isEmpty()) {
+            result = productRepository.applyStockAdjustments(deductions);
+            publishStockChanged(deductions);
+            for (int i = 0; i < deductions.size(); i++) {
+                int order = deductionOwners.get(i);
+                if (!result.isApplied(i) && failedItems.get(order) == null) {
+                    failedItems.set(order, deductionItems.get(i));
+                }
+            }
+        }
+
+        checkHoldsOfOthers(userIds, orders, failedItems);
+
+        // Compensate the lines that were taken for orders that failed
+        List<StockAdjustment> compensations = new ArrayList<>();
+        for (int i = 0; i < deductions.size(); i++) {
+            int order = deductionOwners.get(i);
+            if (result.isApplied(i) && failedItems.get(order) != null) {
+                compensations.add(StockAdjustment.restore(deductions.get(i).getProductId(),
+                        -deductions.get(i).getDelta()));
+            }
+        }
+        int failedOrders = 0;
+        Map<String, Set<String>> consumedHolds = new HashMap<>();
+        for (int order = 0; order < orders.size(); order++) {
+            if (failedItems.get(order) != null) {
+                releaseHot(hotReserved.get(order));
+                failedOrders++;
+            } else {
+                consumedHolds.computeIfAbsent(userIds.get(order), userId -> new HashSet<>())
+                        .addAll(productIdsOf(orders.get(order)));
+            }
+        }
+        if (!compensations.isEmpty()) {
+            productRepository.applyStockAdjustments(compensations);
+            publishStockChanged(compensations);
+        }
+        if (failedOrders > 0) {
+            logger.warn("Stock reservation failed for {} of {} order(s), rolled back {} reserved line(s)",
+                    failedOrders, orders.size(), compensations.size());
+        } else {
+            logger.debug("Reserved stock for {} line(s) of {} order(s) in one batch",
+                    deductions.size(), orders.size());
+        }
+
+        stockHoldService.consumeHolds(consumedHolds);
+        return failedItems;
+    }
+
+    /**
+     * Fail the orders whose lines, now deducted, leave less stock than other users hold.
+     * Runs after the deduction, mirroring StockHoldServiceImpl, which writes the hold
+     * before reading stock: of a checkout and a concurrent hold, one sees the other.
+     * The buyers' own holds are being turned into these sales and are not counted;
+     * neither are the holds of other buyers in the batch, whose lines are deducted too.
+     */
+    private void checkHoldsOfOthers(List<String> userIds, List<List<OrderItem>> orders, List<OrderItem> failedItems) {
+        Map<String, Set<String>> buyers = new HashMap<>();
+        for (int order = 0; order < orders.size(); order++) {
+            if (failedItems.get(order) == null) {
+                for (String productId : productIdsOf(orders.get(order))) {
+                    buyers.computeIfAbsent(productId, id -> new HashSet<>()).add(userIds.get(order));
+                }
+            }
+        }
+        if (buyers.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<String, Integer>> holds = stockHoldService.getActiveHolds(buyers.keySet());
+        Map<String, Integer> heldByOthers = new HashMap<>();
+        holds.forEach((productId, holdsByUser) -> holdsByUser.forEach((userId, quantity) -> {
+            if (!buyers.get(productId).contains(userId)) {
+                heldByOthers.merge(productId, quantity, Integer::sum);
+            }
+        }));
+        if (heldByOthers.isEmpty()) {
+            return;
+        }
+
+        List<String> storedProductIds = heldByOthers.keySet().stream()
+                .filter(productId -> !hotInventoryEngine.isHot(productId))
+                .collect(Collectors.toList());
+        Map<String, Integer> stock = productRepository.findStockByIds(storedProductIds);
+        Set<String> overHeld = new HashSet<>();
+        heldByOthers.forEach((productId, held) -> {
+            Integer hotAvailable = hotInventoryEngine.getAvailable(productId);
+            int left = hotAvailable != null ? hotAvailable : stock.getOrDefault(productId, 0);
+            if (left < held) {
+                overHeld.add(productId);
+            }
+        });
+
+        for (int order = 0; order < orders.size(); order++) {
+            if (failedItems.get(order) != null) {
+                continue;
+            }
+            for (OrderItem item : orders.get(order)) {
+                if (overHeld.contains(item.getProductId())) {
+                    failedItems.set(order, item);
+                    break;
+                }
+            }
+        }
+        logger.debug("Stock held by other users for {} product(s)", overHeld.size());
+    }
+
+    private static Set<String> productIdsOf(List<OrderItem> items) {
+        return items.stream().map(OrderItem::getProductId).collect(Collectors.toSet());
+    }
+
+    private void publishStockChanged(List<StockAdjustment> adjustments) {
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(
+                adjustments.stream().map(StockAdjustment::getProductId).collect(Collectors.toSet())));
+    }
+
+    private void releaseHot(List<OrderItem> items) {
+        for (OrderItem item : items) {
+            hotInventoryEngine.release(item.getProductId(), item.getQuantity());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.dto.response.CartItemResponse;
+import org.example.ecommercebackend.dto.response.CartResponse;
+import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.service.CartStore;
+import org.example.ecommercebackend.service.CartViewReader;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.example.ecommercebackend.service.ProductCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * CartViewReader joining in the application: the lines come from the CartStore,
+ * their products from the product cache, and the totals are summed here.
+ * Works with every cart store.
+ */
+@Service
+@ConditionalOnProperty(name = "cart.view", havingValue = "join", matchIfMissing = true)
+public class JavaJoinCartViewReader implements CartViewReader {
+
+    private final CartStore cartStore;
+    private final ProductCache productCache;
+    private final HotInventoryEngine hotInventoryEngine;
+
+    public JavaJoinCartViewReader(CartStore cartStore,
+                                  ProductCache productCache,
+                                  HotInventoryEngine hotInventoryEngine) {
+        this.cartStore = cartStore;
+        this.productCache = productCache;
+        this.hotInventoryEngine = hotInventoryEngine;
+    }
+
+    @Override
+    public CartResponse read(String userId) {
+        List<CartItem> cartItems = cartStore.findItems(userId);
+
+        if (cartItems.isEmpty()) {
+            return CartResponse.fromItems(userId, List.of());
+        }
+
+        // Fetch all products in one lookup (mostly served from the product cache)
+        List<String> productIds = cartItems.stream()
+                .map(CartItem::getProductId)
+                .collect(Collectors.toList());
+
+        Map<String, Product> productMap = productCache.getAll(productIds);
+        productMap.values().forEach(hotInventoryEngine::applyLiveStock);
+
+        // Build responses with product info
+        List<CartItemResponse> items = cartItems.stream()
+                .map(cartItem -> {
+                    Product product = productMap.get(cartItem.getProductId());
+                    return CartItemResponse.fromEntityWithProduct(cartItem,
+                            product != null ? CartItemResponse.ProductInfo.fromEntity(product) : null);
+                })
+                .collect(Collectors.toList());
+        return CartResponse.fromItems(userId, items);
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.ecommercebackend.service.impl;
+
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UnwindOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.example.ecommercebackend.dto.response.CartItemResponse;
+import org.example.ecommercebackend.dto.response.CartResponse;
+import org.example.ecommercebackend.model.Cart;
+import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.service.CartViewReader;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * CartViewReader building the whole cart in one aggregation: the user's lines are
+ * matched, joined to their products with $lookup (projecting only the fields the
+ * response needs), and the line and cart totals are computed on the server.
+ * Only hot products' stock is patched afterwards with the live in-memory value.
+ *
+ * Reads cart_items or carts depending on cart.store; the memory store is not
+ * supported, since its carts reach MongoDB only after a flush.
+ */
+@Service
+@ConditionalOnProperty(name = "cart.view", havingValue = "lookup")
+public class LookupCartViewReader implements CartViewReader {
+
+    private final MongoTemplate mongoTemplate;
+    private final HotInventoryEngine hotInventoryEngine;
+    private final boolean documentStore;
+
+    public LookupCartViewReader(MongoTemplate mongoTemplate,
+                                HotInventoryEngine hotInventoryEngine,
+                                @Value("${cart.store:items}") String cartStore) {
+        if (cartStore.equals("memory")) {
+            throw new IllegalStateException("cart.view=lookup cannot be used with cart.store=memory");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.hotInventoryEngine = hotInventoryEngine;
+        this.documentStore = cartStore.equals("document");
+    }
+
+    @Override
+    public CartResponse read(String userId) {
+        String collection;
+        List<Bson> pipeline = new ArrayList<>();
+        if (documentStore) {
+            // One line per embedded item, shaped like a cart_items row
+            collection = mongoTemplate.getCollectionName(Cart.class);
+            pipeline.add(Aggregates.match(Filters.eq("_id", userId)));
+            pipeline.add(Aggregates.unwind("$items"));
+            pipeline.add(Aggregates.replaceWith(new Document("$mergeObjects",
+                    List.of("$items", new Document("userId", "$_id")))));
+        } else {
+            collection = mongoTemplate.getCollectionName(CartItem.class);
+            pipeline.add(Aggregates.match(Filters.eq("userId", userId)));
+        }
+
+        // Product IDs are stored as strings on the lines but as ObjectIds on products
+        pipeline.add(Aggregates.addFields(new Field<>("productObjectId", new Document("$convert",
+                new Document("input", "$productId")
+                        .append("to", "objectId")
+                        .append("onError", null)
+                        .append("onNull", null)))));
+        pipeline.add(new Document("$lookup", new Document("from", mongoTemplate.getCollectionName(Product.class))
+                .append("localField", "productObjectId")
+                .append("foreignField", "_id")
+                .append("pipeline", List.of(Aggregates.project(
+                        new Document("name", 1).append("price", 1).append("stock", 1))))
+                .append("as", "product")));
+        pipeline.add(Aggregates.unwind("$product", new UnwindOptions().preserveNullAndEmptyArrays(true)));
+        // Null when the product is gone or has no price; $sum skips nulls
+        pipeline.add(Aggregates.addFields(new Field<>("lineTotal",
+                new Document("$multiply", List.of("$quantity", "$product.price")))));
+        pipeline.add(Aggregates.group(null,
+                Accumulators.push("items", "$$ROOT"),
+                Accumulators.sum("totalQuantity", "$quantity"),
+                Accumulators.sum("totalAmount", "$lineTotal")));
+
+        Document cart = mongoTemplate.getCollection(collection).aggregate(pipeline).first();
+        if (cart == null) {
+            return CartResponse.fromItems(userId, List.of());
+        }
+
+        List<CartItemResponse> items = cart.getList("items", Document.class).stream()
+                .map(this::toItemResponse)
+                .collect(Collectors.toList());
+        return new CartResponse(userId, items,
+                cart.get("totalQuantity", Number.class).intValue(),
+                cart.get("totalAmount", Number.class).doubleValue());
+    }
+
+    private CartItemResponse toItemResponse(Document line) {
+        CartItemResponse response = new CartItemResponse(
+                hexOrNull(line.get("_id")),
+                line.getString("userId"),
+                line.getString("productId"),
+                line.get("quantity", Number.class).intValue(),
+                toProductInfo(line.get("product", Document.class)),
+                toInstant(line.getDate("createdAt")),
+                toInstant(line.getDate("updatedAt")));
+        Number lineTotal = line.get("lineTotal", Number.class);
+        response.setLineTotal(lineTotal != null ? lineTotal.doubleValue() : null);
+        return response;
+    }
+
+    private CartItemResponse.ProductInfo toProductInfo(Document product) {
+        if (product == null) {
+            return null;
+        }
+        String productId = product.getObjectId("_id").toHexString();
+        Number price = product.get("price", Number.class);
+        Integer stock = hotInventoryEngine.getAvailable(productId);
+        if (stock == null) {
+            stock = product.getInteger("stock");
+        }
+        return new CartItemResponse.ProductInfo(productId, product.getString("name"),
+                price != null ? price.doubleValue() : null, stock);
+    }
+
+    private static String hexOrNull(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : null;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.exception.InsufficientStockException;
+import org.example.ecommercebackend.exception.ResourceNotFoundException;
+import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.model.OrderItem;
+import org.example.ecommercebackend.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds order items from cart items, shared by the synchronous and asynchronous checkout paths.
+ */
+final class OrderItemAssembler {
+
+    private OrderItemAssembler() {
+    }
+
+    /**
+     * Validate stock and build one order item per cart item, priced from the current product.
+     */
+    static List<OrderItem> fromCart(List<CartItem> cartItems, Map<String, Product> productMap) {
+        List<OrderItem> orderItems = new ArrayList<>();
+
+        for (CartItem cartItem : cartItems) {
+            Product product = productMap.get(cartItem.getProductId());
+
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", cartItem.getProductId());
+            }
+
+            if (!product.hasStock(cartItem.getQuantity())) {
+                throw new InsufficientStockException(
+                        product.getId(),
+                        product.getName(),
+                        cartItem.getQuantity(),
+                        product.getStock()
+                );
+            }
+
+            OrderItem orderItem = new OrderItem(
+                    product.getId(),
+                    product.getName(),
+                    cartItem.getQuantity(),
+                    product.getPrice()
+            );
+            orderItems.add(orderItem);
+        }
+
+        return orderItems;
+    }
+
+    /**
+     * Sum the subtotals of all order items.
+     */
+    static double totalOf(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .mapToDouble(OrderItem::getSubtotal)
+                .sum();
+    }
+}
@@ -1,9 +1,10 @@
 package org.example.ecommercebackend.service.impl;
 
 import org.example.ecommercebackend.dto.request.CreateOrderRequest;
+import org.example.ecommercebackend.dto.response.CursorPageResponse;
 import org.example.ecommercebackend.dto.response.OrderResponse;
+import org.example.ecommercebackend.dto.response.OrderSummaryResponse;
 import org.example.ecommercebackend.exception.BadRequestException;
-import org.example.ecommercebackend.exception.InsufficientStockException;
 import org.example.ecommercebackend.exception.InvalidOrderStateException;
 import org.example.ecommercebackend.exception.ResourceNotFoundException;
 import org.example.ecommercebackend.model.CartItem;
@@ -11,19 +12,23 @@ import org.example.ecommercebackend.model.Order;
 import org.example.ecommercebackend.model.OrderItem;
 import org.example.ecommercebackend.model.Product;
 import org.example.ecommercebackend.repository.OrderRepository;
-import org.example.ecommercebackend.repository.ProductRepository;
+import org.example.ecommercebackend.repository.OrderSummary;
 import org.example.ecommercebackend.service.CartService;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.example.ecommercebackend.service.InventoryService;
 import org.example.ecommercebackend.service.OrderService;
+import org.example.ecommercebackend.service.ProductCache;
 import org.example.ecommercebackend.service.UserService;
+import org.example.ecommercebackend.util.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -35,25 +40,48 @@ public class OrderServiceImpl implements OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
 
+    private static final String ORDER_HISTORY_CURSOR = "orders";
+
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
+    private final ProductCache productCache;
     private final CartService cartService;
     private final UserService userService;
+    private final InventoryService inventoryService;
+    private final HotInventoryEngine hotInventoryEngine;
 
     public OrderServiceImpl(OrderRepository orderRepository,
-                            ProductRepository productRepository,
+                            ProductCache productCache,
                             CartService cartService,
-                            UserService userService) {
+                            UserService userService,
+                            InventoryService inventoryService,
+                            HotInventoryEngine hotInventoryEngine) {
         this.orderRepository = orderRepository;
-        this.productRepository = productRepository;
+        this.productCache = productCache;
         this.cartService = cartService;
         this.userService = userService;
+        this.inventoryService = inventoryService;
+        this.hotInventoryEngine = hotInventoryEngine;
     }
 
     @Override
     public OrderResponse createOrder(CreateOrderRequest request) {
+        return createOrder(request, null);
+    }
+
+    @Override
+    public OrderResponse createOrder(CreateOrderRequest request, String orderId) {
         logger.info("Creating order for user: {}", request.getUserId());
 
+        // A retry under a preassigned ID (a taken-over idempotency claim) finds the order
+        // its first attempt placed; that attempt also emptied the cart, so check this first
+        if (orderId != null) {
+            Optional<Order> existing = orderRepository.findById(orderId);
+            if (existing.isPresent()) {
+                logger.info("Order {} was already placed, returning it", orderId);
+                return OrderResponse.fromEntity(existing.get());
+            }
+        }
+
         // Ensure user exists
         userService.getOrCreateUser(request.getUserId());
 
@@ -69,63 +97,57 @@ public class OrderServiceImpl implements OrderService {
                 .map(CartItem::getProductId)
                 .collect(Collectors.toList());
 
-        Map<String, Product> productMap = productRepository.findAllById(productIds).stream()
-                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<String, Product> productMap = productCache.getAll(productIds);
+        productMap.values().forEach(hotInventoryEngine::applyLiveStock);
 
         // Validate stock and build order items
-        List<OrderItem> orderItems = new ArrayList<>();
-        double totalAmount = 0.0;
+        List<OrderItem> orderItems = OrderItemAssembler.fromCart(cartItems, productMap);
 
-        for (CartItem cartItem : cartItems) {
-            Product product = productMap.get(cartItem.getProductId());
+        Order savedOrder = placeOrder(orderId, request.getUserId(), orderItems);
 
-            if (product == null) {
-                throw new ResourceNotFoundException("Product", "id", cartItem.getProductId());
-            }
+        // Clear cart
+        cartService.clearCart(request.getUserId());
+        logger.info("Cart cleared for user: {}", request.getUserId());
 
-            if (!product.hasStock(cartItem.getQuantity())) {
-                throw new InsufficientStockException(
-                        product.getId(),
-                        product.getName(),
-                        cartItem.getQuantity(),
-                        product.getStock()
-                );
-            }
+        return OrderResponse.fromEntity(savedOrder);
+    }
 
-            OrderItem orderItem = new OrderItem(
-                    product.getId(),
-                    product.getName(),
-                    cartItem.getQuantity(),
-                    product.getPrice()
-            );
-            orderItems.add(orderItem);
-            totalAmount += orderItem.getSubtotal();
+    @Override
+    public Order placeOrder(String userId, List<OrderItem> orderItems) {
+        return placeOrder(null, userId, orderItems);
+    }
+
+    private Order placeOrder(String orderId, String userId, List<OrderItem> orderItems) {
+        double totalAmount = OrderItemAssembler.totalOf(orderItems);
+
+        // A preassigned ID is checked first, so that a known duplicate reserves no stock
+        if (orderId != null && orderRepository.existsById(orderId)) {
+            throw new DuplicateKeyException("Order already exists: " + orderId);
         }
 
         // Create order
-        Order order = new Order(request.getUserId(), totalAmount);
+        Order order = new Order(userId, totalAmount);
+        order.setId(orderId);
         order.setItems(orderItems);
         order.setCreatedAt(Instant.now());
         order.setUpdatedAt(Instant.now());
 
-        // Deduct stock from products
-        for (CartItem cartItem : cartItems) {
-            Product product = productMap.get(cartItem.getProductId());
-            product.reduceStock(cartItem.getQuantity());
-            productRepository.save(product);
-            logger.debug("Reduced stock for product {}: new stock = {}", 
-                    product.getId(), product.getStock());
+        // Deduct stock from products (all lines or none)
+        inventoryService.reserveStock(userId, orderItems);
+
+        // Insert the order (never overwriting one with the same ID), returning the
+        // reserved stock if the insert fails
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.insert(order);
+        } catch (RuntimeException e) {
+            logger.error("Failed to save order for user {}, releasing reserved stock", userId);
+            inventoryService.releaseStock(orderItems);
+            throw e;
         }
-
-        // Save order
-        Order savedOrder = orderRepository.save(order);
         logger.info("Order created successfully with ID: {}", savedOrder.getId());
 
-        // Clear cart
-        cartService.clearCart(request.getUserId());
-        logger.info("Cart cleared for user: {}", request.getUserId());
-
-        return OrderResponse.fromEntity(savedOrder);
+        return savedOrder;
     }
 
     @Override
@@ -138,6 +160,12 @@ public class OrderServiceImpl implements OrderService {
         return OrderResponse.fromEntity(order);
     }
 
+    @Override
+    public Order getOrderVersionById(String orderId) {
+        return orderRepository.findVersionById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+    }
+
     @Override
     public Order getOrderEntityById(String orderId) {
         logger.debug("Fetching order entity with ID: {}", orderId);
@@ -147,14 +175,51 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<OrderResponse> getOrdersByUserId(String userId) {
-        logger.debug("Fetching orders for user: {}", userId);
+    public CursorPageResponse<OrderResponse> getOrdersByUserId(String userId, String cursor, int limit) {
+        logger.debug("Fetching orders for user: {}, cursor: {}, limit: {}", userId, cursor, limit);
+
+        KeysetCursor keysetCursor = cursor != null ? KeysetCursor.decode(cursor, ORDER_HISTORY_CURSOR) : null;
 
-        List<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        // Fetch one extra order to learn whether another page follows
+        List<Order> orders = orderRepository.findPageByUserId(
+                userId, cursorCreatedAt(keysetCursor), cursorId(keysetCursor), limit + 1);
 
-        return orders.stream()
+        String nextCursor = null;
+        if (orders.size() > limit) {
+            orders = orders.subList(0, limit);
+            Order last = orders.get(limit - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        List<OrderResponse> items = orders.stream()
                 .map(OrderResponse::fromEntity)
                 .collect(Collectors.toList());
+
+        return new CursorPageResponse<>(items, nextCursor);
+    }
+
+    @Override
+    public CursorPageResponse<OrderSummaryResponse> getOrderSummariesByUserId(String userId, String cursor,
+                                                                              int limit) {
+        logger.debug("Fetching order summaries for user: {}, cursor: {}, limit: {}", userId, cursor, limit);
+
+        KeysetCursor keysetCursor = cursor != null ? KeysetCursor.decode(cursor, ORDER_HISTORY_CURSOR) : null;
+
+        List<OrderSummary> summaries = orderRepository.findSummaryPageByUserId(
+                userId, cursorCreatedAt(keysetCursor), cursorId(keysetCursor), limit + 1);
+
+        String nextCursor = null;
+        if (summaries.size() > limit) {
+            summaries = summaries.subList(0, limit);
+            OrderSummary last = summaries.get(limit - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        List<OrderSummaryResponse> items = summaries.stream()
+                .map(OrderSummaryResponse::fromSummary)
+                .collect(Collectors.toList());
+
+        return new CursorPageResponse<>(items, nextCursor);
     }
 
     @Override
@@ -195,16 +260,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         // Restore stock for all items in the order
-        for (OrderItem item : order.getItems()) {
-            Product product = productRepository.findById(item.getProductId())
-                    .orElse(null);
-            
-            if (product != null) {
-                product.increaseStock(item.getQuantity());
-                productRepository.save(product);
-                logger.debug("Restored stock for product {}: +{}", product.getId(), item.getQuantity());
-            }
-        }
+        inventoryService.releaseStock(order.getItems());
 
         // Mark order as cancelled
         order.markAsCancelled();
@@ -214,4 +270,26 @@ public class OrderServiceImpl implements OrderService {
 
         return OrderResponse.fromEntity(savedOrder);
     }
+
+    /**
+     * Order history cursors carry createdAt (epoch millis) and the order id.
+     */
+    private String encodeCursor(Instant createdAt, String orderId) {
+        return new KeysetCursor(ORDER_HISTORY_CURSOR, String.valueOf(createdAt.toEpochMilli()), orderId).encode();
+    }
+
+    private Instant cursorCreatedAt(KeysetCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(cursor.getSortKey()));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private String cursorId(KeysetCursor cursor) {
+        return cursor != null ? cursor.getId() : null;
+    }
 }
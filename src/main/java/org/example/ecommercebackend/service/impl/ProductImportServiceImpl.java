@@ -0,0 +1,311 @@
+package org.example.ecommercebackend.service.impl;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.ecommercebackend.dto.request.ProductImportRow;
+import org.example.ecommercebackend.dto.response.ProductImportErrorResponse;
+import org.example.ecommercebackend.dto.response.ProductImportResponse;
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.exception.BadRequestException;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.model.enums.ProductImportFormat;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.example.ecommercebackend.repository.ProductUpsertResult;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.example.ecommercebackend.service.ProductImportService;
+import org.example.ecommercebackend.util.CsvLineParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of ProductImportService.
+ *
+ * The body is read line by line and never held in memory as a whole: each row is
+ * parsed and validated on its own, and valid rows are buffered only until a batch is
+ * full, then upserted by SKU in one unordered bulk write. Heap use is therefore
+ * bounded by the batch size, not by the size of the import.
+ * Once the import is done a single catalog-wide ProductChangedEvent is published,
+ * since listing every touched product would cost as much as reloading them.
+ * The stock of hot products is not written by the bulk write but set through
+ * HotInventoryEngine, which owns it and writes it behind.
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("sku", "name", "price", "stock");
+
+    // Log progress every this many batches
+    private static final int PROGRESS_INTERVAL = 20;
+
+    private final ProductRepository productRepository;
+    private final HotInventoryEngine hotInventoryEngine;
+    private final ObjectReader rowReader;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImportServiceImpl(ProductRepository productRepository,
+                                    HotInventoryEngine hotInventoryEngine,
+                                    ObjectMapper objectMapper,
+                                    Validator validator,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${product.import.batch-size:1000}") int batchSize,
+                                    @Value("${product.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.productRepository = productRepository;
+        this.hotInventoryEngine = hotInventoryEngine;
+        this.rowReader = objectMapper.readerFor(ProductImportRow.class);
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ProductImportResponse importProducts(InputStream body, ProductImportFormat format) {
+        long start = System.nanoTime();
+        Run run = new Run();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            Function<String, ProductImportRow> parser;
+            if (format == ProductImportFormat.CSV) {
+                parser = csvRowParser(reader.readLine());
+                lineNumber++;
+            } else {
+                parser = rowReader::readValue;
+            }
+
+            String line;
+            boolean insideQuotedField = false;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (insideQuotedField) {
+                    // Rest of a CSV record with a line break in a quoted field, reported at its first line
+                    insideQuotedField = !CsvLineParser.togglesQuote(line);
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                run.rowsRead++;
+
+                ProductImportRow row;
+                try {
+                    row = parser.apply(line);
+                } catch (JacksonException e) {
+                    run.reject(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    run.reject(lineNumber, null, e.getMessage());
+                    insideQuotedField = format == ProductImportFormat.CSV && CsvLineParser.togglesQuote(line);
+                    continue;
+                }
+                if (row == null) {
+                    run.reject(lineNumber, null, "Row is empty");
+                    continue;
+                }
+
+                Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+                if (!violations.isEmpty()) {
+                    run.reject(lineNumber, row.getSku(), violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+
+                run.add(lineNumber, row);
+            }
+            run.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // Whatever was written before a failure still has to reach the caches and indexes
+            if (run.inserted + run.updated > 0) {
+                eventPublisher.publishEvent(ProductChangedEvent.allProductsChanged());
+            }
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Product import finished: {} row(s) read, {} inserted, {} updated, {} failed in {} ms",
+                run.rowsRead, run.inserted, run.updated, run.failed, durationMs);
+        return new ProductImportResponse(run.rowsRead, run.inserted, run.updated, run.failed,
+                run.errors, durationMs);
+    }
+
+    /**
+     * Build a parser for CSV rows laid out as described by the header line.
+     */
+    private Function<String, ProductImportRow> csvRowParser(String header) {
+        if (header == null || header.isBlank()) {
+            throw new BadRequestException("CSV header row is required");
+        }
+
+        List<String> columns = CsvLineParser.parse(header).stream()
+                // Spreadsheet exports often start with a byte order mark
+                .map(column -> column.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+        List<String> missing = REQUIRED_CSV_COLUMNS.stream()
+                .filter(column -> !columns.contains(column))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new BadRequestException("CSV header is missing column(s): " + String.join(", ", missing));
+        }
+
+        int skuColumn = columns.indexOf("sku");
+        int nameColumn = columns.indexOf("name");
+        int descriptionColumn = columns.indexOf("description");
+        int priceColumn = columns.indexOf("price");
+        int stockColumn = columns.indexOf("stock");
+
+        return line -> {
+            List<String> fields = CsvLineParser.parse(line);
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException(
+                        "Expected " + columns.size() + " field(s), found " + fields.size());
+            }
+            return new ProductImportRow(
+                    blankToNull(fields.get(skuColumn)),
+                    blankToNull(fields.get(nameColumn)),
+                    descriptionColumn >= 0 ? blankToNull(fields.get(descriptionColumn)) : null,
+                    parseNumber("price", fields.get(priceColumn), Double::valueOf),
+                    parseNumber("stock", fields.get(stockColumn), Integer::valueOf)
+            );
+        };
+    }
+
+    private static <T> T parseNumber(String column, String value, Function<String, T> parser) {
+        String trimmed = blankToNull(value);
+        if (trimmed == null) {
+            return null;
+        }
+        try {
+            return parser.apply(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + trimmed);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static Product toProduct(ProductImportRow row) {
+        Product product = new Product(row.getName(), row.getDescription(), row.getPrice(), row.getStock());
+        product.setSku(row.getSku());
+        return product;
+    }
+
+    /**
+     * Counters, reported errors and the pending batch of one import.
+     */
+    private final class Run {
+        private long rowsRead;
+        private long inserted;
+        private long updated;
+        private long failed;
+        private int batches;
+        private final List<ProductImportErrorResponse> errors = new ArrayList<>();
+
+        private final List<Product> batch = new ArrayList<>();
+        private final List<Long> batchLines = new ArrayList<>();
+        private final Set<String> batchSkus = new HashSet<>();
+
+        void add(long lineNumber, ProductImportRow row) {
+            // A SKU seen twice in one bulk write would race with itself; the later row must win
+            if (!batchSkus.add(row.getSku())) {
+                flush();
+                batchSkus.add(row.getSku());
+            }
+            batch.add(toProduct(row));
+            batchLines.add(lineNumber);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            // Hot products keep their stored stock; the imported value goes to the engine
+            Map<Integer, String> hotProductIds = new HashMap<>();
+            Map<Integer, Integer> hotStocks = new HashMap<>();
+            Map<String, String> hotIdsBySku = findHotProductIdsBySku();
+            for (int i = 0; i < batch.size(); i++) {
+                Product product = batch.get(i);
+                String hotProductId = hotIdsBySku.get(product.getSku());
+                if (hotProductId != null) {
+                    hotProductIds.put(i, hotProductId);
+                    hotStocks.put(i, product.getStock());
+                    product.setStock(null);
+                }
+            }
+
+            ProductUpsertResult result = productRepository.upsertAllBySku(batch);
+            inserted += result.getInserted();
+            updated += result.getUpdated();
+            result.getFailures().forEach((index, message) ->
+                    reject(batchLines.get(index), batch.get(index).getSku(), message));
+            hotProductIds.forEach((index, productId) -> {
+                if (!result.getFailures().containsKey(index)) {
+                    hotInventoryEngine.setStock(productId, hotStocks.get(index));
+                }
+            });
+
+            batch.clear();
+            batchLines.clear();
+            batchSkus.clear();
+
+            if (++batches % PROGRESS_INTERVAL == 0) {
+                logger.info("Product import in progress: {} row(s) read, {} inserted, {} updated, {} failed",
+                        rowsRead, inserted, updated, failed);
+            }
+        }
+
+        private Map<String, String> findHotProductIdsBySku() {
+            Set<String> hotProductIds = hotInventoryEngine.getHotProductIds();
+            if (hotProductIds.isEmpty()) {
+                return Map.of();
+            }
+            return productRepository.findByIdInAndSkuIn(hotProductIds, batchSkus).stream()
+                    .collect(Collectors.toMap(Product::getSku, Product::getId));
+        }
+
+        void reject(long lineNumber, String sku, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportErrorResponse(lineNumber, sku, message));
+            }
+        }
+    }
+}
@@ -1,18 +1,43 @@
 package org.example.ecommercebackend.service.impl;
 
 import org.example.ecommercebackend.dto.request.CreateProductRequest;
+import org.example.ecommercebackend.dto.response.CursorPageResponse;
+import org.example.ecommercebackend.dto.response.PageResponse;
+import org.example.ecommercebackend.dto.response.ProductCacheStatsResponse;
 import org.example.ecommercebackend.dto.response.ProductResponse;
+import org.example.ecommercebackend.dto.response.ProductSuggestionResponse;
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.exception.BadRequestException;
 import org.example.ecommercebackend.exception.ResourceNotFoundException;
 import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.model.enums.ProductSort;
+import org.example.ecommercebackend.repository.ProductCatalogQuery;
 import org.example.ecommercebackend.repository.ProductRepository;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.example.ecommercebackend.service.ProductCache;
+import org.example.ecommercebackend.service.ProductResponseCache;
+import org.example.ecommercebackend.service.ProductSearchEngine;
+import org.example.ecommercebackend.service.ProductSearchHits;
 import org.example.ecommercebackend.service.ProductService;
+import org.example.ecommercebackend.service.ProductSuggester;
+import org.example.ecommercebackend.service.SerializedProduct;
+import org.example.ecommercebackend.util.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ProductService.
@@ -23,10 +48,30 @@ public class ProductServiceImpl implements ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    private static final String PRODUCTS_BY_ID_CURSOR = "products";
+
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductResponseCache productResponseCache;
+    private final ProductSearchEngine productSearchEngine;
+    private final ProductSuggester productSuggester;
+    private final HotInventoryEngine hotInventoryEngine;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              ProductCache productCache,
+                              ProductResponseCache productResponseCache,
+                              ProductSearchEngine productSearchEngine,
+                              ProductSuggester productSuggester,
+                              HotInventoryEngine hotInventoryEngine,
+                              ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.productResponseCache = productResponseCache;
+        this.productSearchEngine = productSearchEngine;
+        this.productSuggester = productSuggester;
+        this.hotInventoryEngine = hotInventoryEngine;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -43,6 +88,7 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
         logger.info("Product created successfully with ID: {}", savedProduct.getId());
+        eventPublisher.publishEvent(ProductChangedEvent.productsChanged(List.of(savedProduct.getId())));
 
         return ProductResponse.fromEntity(savedProduct);
     }
@@ -51,31 +97,162 @@ public class ProductServiceImpl implements ProductService {
     public List<ProductResponse> getAllProducts() {
         logger.debug("Fetching all products");
 
-        List<Product> products = productRepository.findAll();
-        
-        return products.stream()
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            return products.peek(hotInventoryEngine::applyLiveStock)
+                    .map(ProductResponse::fromEntity)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public PageResponse<ProductResponse> getProductsPage(int page, int size) {
+        logger.debug("Fetching products page {} of size {}", page, size);
+
+        Page<Product> products = productRepository.findAll(PageRequest.of(page, size, Sort.by("id")));
+        products.forEach(hotInventoryEngine::applyLiveStock);
+
+        return PageResponse.fromPage(products, ProductResponse::fromEntity);
+    }
+
+    @Override
+    public CursorPageResponse<ProductResponse> getProductsAfter(String cursor, int size) {
+        logger.debug("Fetching products after cursor: {}, size: {}", cursor, size);
+
+        // Fetch one extra product to learn whether another page follows
+        List<Product> products = cursor == null
+                ? productRepository.findAllByOrderByIdAsc(Limit.of(size + 1))
+                : productRepository.findByIdGreaterThanOrderByIdAsc(
+                        KeysetCursor.decode(cursor, PRODUCTS_BY_ID_CURSOR).getId(), Limit.of(size + 1));
+
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            nextCursor = KeysetCursor.ofId(PRODUCTS_BY_ID_CURSOR, products.get(size - 1).getId()).encode();
+        }
+
+        List<ProductResponse> items = products.stream()
+                .peek(hotInventoryEngine::applyLiveStock)
                 .map(ProductResponse::fromEntity)
                 .collect(Collectors.toList());
+
+        return new CursorPageResponse<>(items, nextCursor);
+    }
+
+    @Override
+    public CursorPageResponse<ProductResponse> getCatalogPage(boolean inStock, Double minPrice, Double maxPrice,
+                                                              ProductSort sort, String cursor, int size) {
+        logger.debug("Fetching catalog page - inStock: {}, minPrice: {}, maxPrice: {}, sort: {}, cursor: {}",
+                inStock, minPrice, maxPrice, sort, cursor);
+
+        Double afterPrice = null;
+        Instant afterCreatedAt = null;
+        String afterId = null;
+        if (cursor != null) {
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor, catalogCursorScope(sort));
+            try {
+                if (sort == ProductSort.NEWEST) {
+                    afterCreatedAt = Instant.ofEpochMilli(Long.parseLong(keysetCursor.getSortKey()));
+                } else {
+                    afterPrice = Double.valueOf(keysetCursor.getSortKey());
+                }
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            afterId = keysetCursor.getId();
+        }
+
+        ProductCatalogQuery query = new ProductCatalogQuery(inStock, minPrice, maxPrice, sort,
+                afterPrice, afterCreatedAt, afterId);
+        // Fetch one extra product to learn whether another page follows
+        List<Product> products = productRepository.findCatalogPage(query, size + 1);
+
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            Product last = products.get(size - 1);
+            String sortKey = sort == ProductSort.NEWEST
+                    ? String.valueOf(last.getCreatedAt().toEpochMilli())
+                    : String.valueOf(last.getPrice());
+            nextCursor = new KeysetCursor(catalogCursorScope(sort), sortKey, last.getId()).encode();
+        }
+
+        // Stock is filtered on the persisted value; hot products show their live stock
+        List<ProductResponse> items = products.stream()
+                .peek(hotInventoryEngine::applyLiveStock)
+                .map(ProductResponse::fromEntity)
+                .collect(Collectors.toList());
+
+        return new CursorPageResponse<>(items, nextCursor);
+    }
+
+    @Override
+    public void streamAllProducts(Consumer<ProductResponse> consumer) {
+        logger.debug("Streaming all products");
+
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            products.peek(hotInventoryEngine::applyLiveStock)
+                    .map(ProductResponse::fromEntity)
+                    .forEach(consumer);
+        }
     }
 
     @Override
     public ProductResponse getProductById(String id) {
         logger.debug("Fetching product with ID: {}", id);
 
-        Product product = productRepository.findById(id)
+        Product product = productCache.get(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        hotInventoryEngine.applyLiveStock(product);
 
         return ProductResponse.fromEntity(product);
     }
 
     @Override
-    public List<ProductResponse> searchProductsByName(String name) {
-        logger.debug("Searching products with name containing: {}", name);
+    public SerializedProduct getSerializedProductById(String id) {
+        Product product = productCache.get(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        hotInventoryEngine.applyLiveStock(product);
+
+        return productResponseCache.get(product);
+    }
+
+    @Override
+    public PageResponse<ProductResponse> searchProductsByName(String query, int page, int size) {
+        logger.debug("Searching products for: {}, page: {}, size: {}", query, page, size);
+
+        ProductSearchHits hits = productSearchEngine.search(query, page * size, size);
 
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(name);
-        
-        return products.stream()
+        Map<String, Product> productMap = productCache.getAll(hits.getProductIds());
+        productMap.values().forEach(hotInventoryEngine::applyLiveStock);
+
+        // Keep the engine's rank order; skip products deleted since they were indexed
+        List<ProductResponse> items = hits.getProductIds().stream()
+                .map(productMap::get)
+                .filter(Objects::nonNull)
                 .map(ProductResponse::fromEntity)
                 .collect(Collectors.toList());
+
+        int totalPages = (int) ((hits.getTotal() + size - 1) / size);
+        return new PageResponse<>(items, page, size, hits.getTotal(), totalPages);
+    }
+
+    @Override
+    public List<ProductSuggestionResponse> suggestProducts(String prefix, int limit) {
+        return productSuggester.suggest(prefix, limit);
+    }
+
+    @Override
+    public ProductCacheStatsResponse getCacheStats() {
+        ProductCacheStatsResponse stats = productCache.stats();
+        stats.setSerializedHits(productResponseCache.getHits());
+        stats.setSerializedMisses(productResponseCache.getMisses());
+        return stats;
+    }
+
+    /**
+     * Catalog cursors are scoped to their sort order, whose sort key they carry.
+     */
+    private static String catalogCursorScope(ProductSort sort) {
+        return "catalog-" + sort.name().toLowerCase();
     }
 }
@@ -0,0 +1,52 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.service.ProductSearchEngine;
+import org.example.ecommercebackend.service.ProductSearchHits;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * ProductSearchEngine that matches a case-insensitive substring of the product name
+ * in MongoDB. Every query scans the products collection; kept for small catalogs
+ * and as the reference behaviour.
+ */
+@Service
+@ConditionalOnProperty(name = "product.search.engine", havingValue = "regex")
+public class RegexProductSearchEngine implements ProductSearchEngine {
+
+    private final MongoTemplate mongoTemplate;
+
+    public RegexProductSearchEngine(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public ProductSearchHits search(String query, int offset, int limit) {
+        Criteria criteria = Criteria.where("name").regex(Pattern.quote(query), "i");
+
+        long total = mongoTemplate.count(Query.query(criteria), Product.class);
+        if (total == 0 || offset >= total) {
+            return new ProductSearchHits(List.of(), total);
+        }
+
+        Query pageQuery = Query.query(criteria)
+                .with(Sort.by("name", "id"))
+                .skip(offset)
+                .limit(limit);
+        pageQuery.fields().include("_id");
+
+        List<String> productIds = mongoTemplate.find(pageQuery, Product.class).stream()
+                .map(Product::getId)
+                .collect(Collectors.toList());
+        return new ProductSearchHits(productIds, total);
+    }
+}
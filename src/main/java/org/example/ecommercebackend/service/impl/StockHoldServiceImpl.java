@@ -0,0 +1,204 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.model.StockHold;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.example.ecommercebackend.service.StockHoldService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of StockHoldService.
+ *
+ * Holds live in the stock_holds collection, one document per user and product, and
+ * expire through its TTL index; reads ignore holds past expiresAt, since the TTL
+ * monitor removes them with some delay. Product documents are never written by holds.
+ *
+ * A hold is written first and checked afterwards: the product's stock is read and the
+ * active holds on it summed, this one included, and the hold is put back if they no
+ * longer fit. Checkout does the mirror image (deduct, then check the holds of others),
+ * so of two concurrent writers at least one sees the other's write, and holds and
+ * sales together can never exceed stock. A hold can be rejected spuriously while
+ * another writer's attempt is briefly visible, but never admitted wrongly.
+ *
+ * For hot products the check uses the stored stock, which trails the in-memory
+ * counter by at most one flush interval.
+ */
+@Service
+public class StockHoldServiceImpl implements StockHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldServiceImpl.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductRepository productRepository;
+
+    @Value("${inventory.hold.ttl-minutes:15}")
+    private long holdTtlMinutes;
+
+    public StockHoldServiceImpl(MongoTemplate mongoTemplate, ProductRepository productRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public int getAvailableToPromise(Product product, String userId) {
+        return getAvailableToPromise(List.of(product), userId).get(product.getId());
+    }
+
+    @Override
+    public Map<String, Integer> getAvailableToPromise(Collection<Product> products, String userId) {
+        Map<String, Map<String, Integer>> holds = getActiveHolds(products.stream()
+                .map(Product::getId)
+                .collect(Collectors.toList()));
+
+        Map<String, Integer> availableToPromise = new HashMap<>();
+        for (Product product : products) {
+            int stock = product.getStock() != null ? product.getStock() : 0;
+            int heldByOthers = holds.getOrDefault(product.getId(), Map.of()).entrySet().stream()
+                    .filter(hold -> !hold.getKey().equals(userId))
+                    .mapToInt(Map.Entry::getValue)
+                    .sum();
+            availableToPromise.put(product.getId(), stock - heldByOthers);
+        }
+        return availableToPromise;
+    }
+
+    @Override
+    public boolean tryHold(String userId, String productId, int quantity) {
+        return tryHolds(userId, Map.of(productId, quantity)).contains(productId);
+    }
+
+    @Override
+    public Set<String> tryHolds(String userId, Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Set.of();
+        }
+
+        // The holds being replaced, to put back any that turn out not to fit
+        Map<String, StockHold> previous = mongoTemplate.find(Query.query(Criteria.where("userId").is(userId)
+                        .and("productId").in(quantities.keySet())), StockHold.class).stream()
+                .collect(Collectors.toMap(StockHold::getProductId, Function.identity()));
+
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(Duration.ofMinutes(holdTtlMinutes));
+        BulkOperations writes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StockHold.class);
+        // Raised, never lowered: of two adds of one user racing, the larger total wins
+        quantities.forEach((productId, quantity) -> writes.upsert(holdQuery(userId, productId), new Update()
+                .max("quantity", quantity)
+                .set("expiresAt", expiresAt)
+                .set("updatedAt", now)
+                .setOnInsert("createdAt", now)));
+        writes.execute();
+
+        // Checked only after the write, so that it counts every hold placed before it
+        Map<String, Integer> stock = productRepository.findStockByIds(quantities.keySet());
+        Map<String, Map<String, Integer>> holds = getActiveHolds(quantities.keySet());
+
+        Set<String> placed = new HashSet<>();
+        List<String> rejected = new ArrayList<>();
+        for (String productId : quantities.keySet()) {
+            int held = holds.getOrDefault(productId, Map.of()).values().stream().mapToInt(Integer::intValue).sum();
+            if (stock.containsKey(productId) && held <= stock.get(productId)) {
+                placed.add(productId);
+            } else {
+                rejected.add(productId);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            restore(userId, rejected, previous, now);
+        }
+
+        logger.debug("Placed {} of {} hold(s) for user: {}", placed.size(), quantities.size(), userId);
+        return placed;
+    }
+
+    @Override
+    public Map<String, Map<String, Integer>> getActiveHolds(Collection<String> productIds) {
+        Map<String, Map<String, Integer>> holds = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return holds;
+        }
+
+        Query query = Query.query(Criteria.where("productId").in(productIds).and("expiresAt").gt(Instant.now()));
+        query.fields().include("userId", "productId", "quantity");
+        for (StockHold hold : mongoTemplate.find(query, StockHold.class)) {
+            holds.computeIfAbsent(hold.getProductId(), productId -> new HashMap<>())
+                    .put(hold.getUserId(), hold.getQuantity());
+        }
+        return holds;
+    }
+
+    @Override
+    public void consumeHolds(Map<String, ? extends Collection<String>> productIdsByUser) {
+        if (productIdsByUser.isEmpty()) {
+            return;
+        }
+        Criteria[] orders = productIdsByUser.entrySet().stream()
+                .map(entry -> Criteria.where("userId").is(entry.getKey()).and("productId").in(entry.getValue()))
+                .toArray(Criteria[]::new);
+        mongoTemplate.remove(Query.query(new Criteria().orOperator(orders)), StockHold.class);
+        logger.debug("Consumed holds of {} checked-out order(s)", productIdsByUser.size());
+    }
+
+    @Override
+    public void releaseHold(String userId, String productId) {
+        mongoTemplate.remove(holdQuery(userId, productId), StockHold.class);
+        logger.debug("Released hold - userId: {}, productId: {}", userId, productId);
+    }
+
+    @Override
+    public void releaseHolds(String userId) {
+        mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId)), StockHold.class);
+        logger.debug("Released all holds for user: {}", userId);
+    }
+
+    @Override
+    public void releaseHolds(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("userId").in(userIds)), StockHold.class);
+        logger.debug("Released all holds for {} user(s)", userIds.size());
+    }
+
+    /**
+     * Put the rejected holds back as they were before this attempt, removing those that did not exist.
+     */
+    private void restore(String userId, List<String> productIds, Map<String, StockHold> previous, Instant now) {
+        BulkOperations writes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StockHold.class);
+        for (String productId : productIds) {
+            StockHold hold = previous.get(productId);
+            if (hold != null && hold.isActive(now)) {
+                writes.updateOne(holdQuery(userId, productId), new Update()
+                        .set("quantity", hold.getQuantity())
+                        .set("expiresAt", hold.getExpiresAt()));
+            } else {
+                writes.remove(holdQuery(userId, productId));
+            }
+        }
+        writes.execute();
+    }
+
+    private static Query holdQuery(String userId, String productId) {
+        return Query.query(Criteria.where("userId").is(userId).and("productId").is(productId));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.service.ProductSearchEngine;
+import org.example.ecommercebackend.service.ProductSearchHits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * ProductSearchEngine backed by a MongoDB text index on name and description.
+ *
+ * Queries use $text, so matching is word-based (stemmed, stop words ignored) rather
+ * than substring-based, and results are ranked by textScore with name matches
+ * weighted above description matches. Nothing is held in memory, which suits
+ * catalogs too large for the in-memory engine.
+ *
+ * The text index is created here rather than on the entity so that only
+ * deployments using this engine pay for maintaining it.
+ */
+@Service
+@ConditionalOnProperty(name = "product.search.engine", havingValue = "text")
+public class TextIndexProductSearchEngine implements ProductSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TextIndexProductSearchEngine.class);
+
+    private static final String TEXT_INDEX_NAME = "product_text_idx";
+
+    private static final float NAME_WEIGHT = 3F;
+
+    private final MongoTemplate mongoTemplate;
+
+    public TextIndexProductSearchEngine(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+
+        mongoTemplate.indexOps(Product.class).createIndex(new TextIndexDefinition.TextIndexDefinitionBuilder()
+                .named(TEXT_INDEX_NAME)
+                .onField("name", NAME_WEIGHT)
+                .onField("description")
+                .build());
+        logger.info("Product text index {} ensured", TEXT_INDEX_NAME);
+    }
+
+    @Override
+    public ProductSearchHits search(String query, int offset, int limit) {
+        TextCriteria criteria = TextCriteria.forDefaultLanguage().matching(query);
+
+        long total = mongoTemplate.count(TextQuery.queryText(criteria), Product.class);
+        if (total == 0 || offset >= total) {
+            return new ProductSearchHits(List.of(), total);
+        }
+
+        // Highest textScore first; _id keeps the order stable across pages
+        TextQuery pageQuery = TextQuery.queryText(criteria).sortByScore();
+        pageQuery.with(Sort.by("id"))
+                .skip(offset)
+                .limit(limit);
+        pageQuery.fields().include("_id");
+
+        List<String> productIds = mongoTemplate.find(pageQuery, Product.class).stream()
+                .map(Product::getId)
+                .collect(Collectors.toList());
+        return new ProductSearchHits(productIds, total);
+    }
+}
@@ -0,0 +1,482 @@
+package org.example.ecommercebackend.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.example.ecommercebackend.service.ProductSearchEngine;
+import org.example.ecommercebackend.service.ProductSearchHits;
+import org.example.ecommercebackend.util.TextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ProductSearchEngine backed by an in-memory trigram inverted index over the
+ * normalized (case- and accent-folded) product names and descriptions.
+ *
+ * Each token is indexed as the trigrams of "$token$", so grams at the start of a
+ * word are distinguishable from grams inside it. A query token contributes the
+ * trigrams of "$token" (open-ended, so partially typed words still match).
+ * A product matches when enough of the query grams are found in its name or its
+ * description; results are ranked by name coverage, then description coverage,
+ * with a bonus when the name contains the whole query.
+ *
+ * The index is built at startup and patched on ProductChangedEvent. A changed
+ * product gets a new document slot and its old slot is tombstoned; the postings are
+ * compacted once tombstones pile up. Changed products are read outside the lock, so
+ * a read is applied only if it is not older than the indexed version (by updatedAt)
+ * and the product has not been deleted since. Deleted IDs are remembered only while
+ * other re-index reads are in flight. Catalog-wide changes rebuild the index on a
+ * background thread into a fresh Index, which is swapped in under the write lock;
+ * searches keep using the old index meanwhile, and products changed during the
+ * rebuild are re-indexed after the swap.
+ */
+@Service
+@ConditionalOnProperty(name = "product.search.engine", havingValue = "memory", matchIfMissing = true)
+public class TrigramProductSearchEngine implements ProductSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrigramProductSearchEngine.class);
+
+    private static final double NAME_WEIGHT = 1.0;
+    private static final double DESCRIPTION_WEIGHT = 0.3;
+    private static final double PHRASE_BONUS = 1.0;
+
+    // Share of query grams a product must contain to match at all
+    private static final double MIN_COVERAGE = 0.6;
+
+    private static final ThreadLocal<MatchCounts> MATCH_COUNTS = ThreadLocal.withInitial(MatchCounts::new);
+
+    private final ProductRepository productRepository;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    // Re-index calls between reading their products and applying them
+    private final AtomicInteger reindexesInFlight = new AtomicInteger();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock; null until the first build has finished
+    private Index index;
+    // Guarded by lock; while a rebuild runs, the products changed since it started
+    private Set<String> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public TrigramProductSearchEngine(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-search-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Build a fresh index from a cursor over the whole catalog and swap it in.
+     * Searches use the previous index (or MongoDB, before the first build) meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void buildIndex() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index rebuilt = new Index();
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            products.forEach(rebuilt::addDoc);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        Set<String> changed;
+        lock.writeLock().lock();
+        try {
+            // A re-index read before the swap may still apply a product deleted from the old index
+            if (index != null && reindexesInFlight.get() > 0) {
+                index.deletedProducts.stream()
+                        .filter(productId -> !rebuilt.docIdsByProduct.containsKey(productId))
+                        .forEach(rebuilt.deletedProducts::add);
+            }
+            index = rebuilt;
+            changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // The cursor may have read these before they changed
+        if (!changed.isEmpty()) {
+            reindex(changed);
+        }
+        logger.info("Product search index built: {} product(s), {} name gram(s) in {} ms",
+                rebuilt.docIdsByProduct.size(), rebuilt.namePostings.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Re-index products whose name or description may have changed.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isStockOnly()) {
+            return;
+        }
+        if (event.isAllProducts()) {
+            requestRebuild();
+            return;
+        }
+        reindex(event.getProductIds());
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Queue a rebuild on the background thread, unless one is already queued;
+     * a rebuild that is running when this is called is followed by another.
+     */
+    private void requestRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            rebuildQueued.set(false);
+            try {
+                buildIndex();
+            } catch (RuntimeException e) {
+                logger.error("Product search index rebuild failed, keeping the previous index", e);
+            }
+        });
+    }
+
+    private void reindex(Collection<String> productIds) {
+        reindexesInFlight.incrementAndGet();
+        try {
+            Map<String, Product> products = new HashMap<>();
+            productRepository.findAllById(productIds)
+                    .forEach(product -> products.put(product.getId(), product));
+
+            lock.writeLock().lock();
+            try {
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.addAll(productIds);
+                }
+                if (index == null) {
+                    return;
+                }
+                for (String productId : productIds) {
+                    Product product = products.get(productId);
+                    if (product != null) {
+                        index.addIfNewer(product);
+                    } else {
+                        index.delete(productId);
+                    }
+                }
+                // With no other read in flight, every later read already sees these deletions
+                if (reindexesInFlight.get() == 1) {
+                    index.deletedProducts.clear();
+                }
+                if (index.removedDocs > 1000 && index.removedDocs > index.docs.size() / 4) {
+                    index.compact();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            reindexesInFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public ProductSearchHits search(String query, int offset, int limit) {
+        String normalizedQuery = TextNormalizer.normalize(query);
+        List<String> queryGrams = new ArrayList<>(queryGrams(normalizedQuery));
+        if (queryGrams.isEmpty()) {
+            return ProductSearchHits.empty();
+        }
+        if (!ready) {
+            return searchUnindexed(query, offset, limit);
+        }
+
+        lock.readLock().lock();
+        // Reused per thread rather than allocated per query; entries touched are reset after use
+        MatchCounts counts = MATCH_COUNTS.get();
+        List<Integer> touched = new ArrayList<>();
+        try {
+            List<Doc> docs = index.docs;
+            counts.ensureCapacity(docs.size());
+            short[] nameMatches = counts.name;
+            short[] descriptionMatches = counts.description;
+
+            for (String gram : queryGrams) {
+                PostingList names = index.namePostings.get(gram);
+                if (names != null) {
+                    for (int i = 0; i < names.size; i++) {
+                        int docId = names.ids[i];
+                        if (nameMatches[docId]++ == 0 && descriptionMatches[docId] == 0) {
+                            touched.add(docId);
+                        }
+                    }
+                }
+                PostingList descriptions = index.descriptionPostings.get(gram);
+                if (descriptions != null) {
+                    for (int i = 0; i < descriptions.size; i++) {
+                        int docId = descriptions.ids[i];
+                        if (descriptionMatches[docId]++ == 0 && nameMatches[docId] == 0) {
+                            touched.add(docId);
+                        }
+                    }
+                }
+            }
+
+            double gramCount = queryGrams.size();
+            List<ScoredDoc> matches = new ArrayList<>();
+            for (int docId : touched) {
+                Doc doc = docs.get(docId);
+                if (doc == null) {
+                    continue;
+                }
+                double nameCoverage = nameMatches[docId] / gramCount;
+                double descriptionCoverage = descriptionMatches[docId] / gramCount;
+                if (Math.max(nameCoverage, descriptionCoverage) < MIN_COVERAGE) {
+                    continue;
+                }
+                double score = nameCoverage * NAME_WEIGHT + descriptionCoverage * DESCRIPTION_WEIGHT;
+                if (doc.normalizedName.contains(normalizedQuery)) {
+                    score += PHRASE_BONUS;
+                }
+                matches.add(new ScoredDoc(doc, score));
+            }
+
+            // Best score first; shorter names first among equals, then a stable order by id
+            matches.sort(Comparator.comparingDouble(ScoredDoc::score).reversed()
+                    .thenComparingInt(match -> match.doc().normalizedName.length())
+                    .thenComparing(match -> match.doc().productId));
+
+            List<String> productIds = matches.stream()
+                    .skip(offset)
+                    .limit(limit)
+                    .map(match -> match.doc().productId)
+                    .collect(Collectors.toList());
+            return new ProductSearchHits(productIds, matches.size());
+        } finally {
+            counts.reset(touched);
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Substring search against MongoDB, used only until the index has been built.
+     */
+    private ProductSearchHits searchUnindexed(String query, int offset, int limit) {
+        List<Product> products = productRepository.findByNameContainingIgnoreCase(query);
+        List<String> productIds = products.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(Product::getId)
+                .collect(Collectors.toList());
+        return new ProductSearchHits(productIds, products.size());
+    }
+
+    private static void addPostings(Map<String, PostingList> postings, Set<String> grams, int docId) {
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(docId);
+        }
+    }
+
+    /**
+     * Trigrams of every "$token$" in the text.
+     */
+    private static Set<String> indexGrams(String normalizedText) {
+        Set<String> grams = new HashSet<>();
+        for (String token : TextNormalizer.tokenize(normalizedText)) {
+            addTrigrams(grams, "$" + token + "$");
+        }
+        return grams;
+    }
+
+    /**
+     * Trigrams of every "$token" in the query; single-character tokens carry no trigram.
+     */
+    private static Set<String> queryGrams(String normalizedQuery) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : TextNormalizer.tokenize(normalizedQuery)) {
+            addTrigrams(grams, "$" + token);
+        }
+        return grams;
+    }
+
+    private static void addTrigrams(Set<String> grams, String padded) {
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+    }
+
+    /**
+     * The documents and postings of one build of the index.
+     * Mutated only with the write lock held once it has been swapped in.
+     */
+    private static final class Index {
+        private final List<Doc> docs = new ArrayList<>();
+        private final Map<String, Integer> docIdsByProduct = new HashMap<>();
+        private final Map<String, PostingList> namePostings = new HashMap<>();
+        private final Map<String, PostingList> descriptionPostings = new HashMap<>();
+        // Products deleted while other reads were in flight; IDs are never reused, so a later read of one is stale
+        private final Set<String> deletedProducts = new HashSet<>();
+        private int removedDocs;
+
+        void addDoc(Product product) {
+            removeDoc(product.getId());
+            String normalizedName = TextNormalizer.normalize(product.getName());
+            String normalizedDescription = TextNormalizer.normalize(product.getDescription());
+            add(new Doc(product.getId(), normalizedName, normalizedDescription, product.getUpdatedAt()));
+        }
+
+        /**
+         * Index a product read after a change, unless the indexed version is newer
+         * or the product has been deleted in the meantime.
+         */
+        void addIfNewer(Product product) {
+            if (deletedProducts.contains(product.getId())) {
+                return;
+            }
+            Integer docId = docIdsByProduct.get(product.getId());
+            if (docId != null) {
+                Instant indexedAt = docs.get(docId).updatedAt;
+                if (indexedAt != null && product.getUpdatedAt() != null
+                        && product.getUpdatedAt().isBefore(indexedAt)) {
+                    return;
+                }
+            }
+            addDoc(product);
+        }
+
+        void delete(String productId) {
+            deletedProducts.add(productId);
+            removeDoc(productId);
+        }
+
+        void removeDoc(String productId) {
+            Integer docId = docIdsByProduct.remove(productId);
+            if (docId != null) {
+                docs.set(docId, null);
+                removedDocs++;
+            }
+        }
+
+        /**
+         * Rebuild the postings from the live documents only, renumbering them densely.
+         */
+        void compact() {
+            List<Doc> liveDocs = docs.stream().filter(doc -> doc != null).collect(Collectors.toList());
+            docs.clear();
+            docIdsByProduct.clear();
+            namePostings.clear();
+            descriptionPostings.clear();
+            removedDocs = 0;
+
+            liveDocs.forEach(this::add);
+            logger.debug("Product search index compacted to {} product(s)", docs.size());
+        }
+
+        private void add(Doc doc) {
+            int docId = docs.size();
+            docs.add(doc);
+            docIdsByProduct.put(doc.productId, docId);
+            addPostings(namePostings, indexGrams(doc.normalizedName), docId);
+            addPostings(descriptionPostings, indexGrams(doc.normalizedDescription), docId);
+        }
+    }
+
+    /**
+     * Indexed form of a product.
+     */
+    private static final class Doc {
+        private final String productId;
+        private final String normalizedName;
+        private final String normalizedDescription;
+        private final Instant updatedAt;
+
+        Doc(String productId, String normalizedName, String normalizedDescription, Instant updatedAt) {
+            this.productId = productId;
+            this.normalizedName = normalizedName;
+            this.normalizedDescription = normalizedDescription;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private record ScoredDoc(Doc doc, double score) {
+    }
+
+    /**
+     * Per-thread gram match counters by document id, grown with the index.
+     * All entries are zero between queries.
+     */
+    private static final class MatchCounts {
+        private short[] name = new short[0];
+        private short[] description = new short[0];
+
+        void ensureCapacity(int docCount) {
+            if (name.length < docCount) {
+                int capacity = Math.max(docCount, name.length * 2);
+                name = new short[capacity];
+                description = new short[capacity];
+            }
+        }
+
+        void reset(List<Integer> docIds) {
+            for (int docId : docIds) {
+                name[docId] = 0;
+                description[docId] = 0;
+            }
+        }
+    }
+
+    /**
+     * Growable array of document ids, ascending because ids are assigned in order.
+     */
+    private static final class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int docId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = docId;
+        }
+    }
+}
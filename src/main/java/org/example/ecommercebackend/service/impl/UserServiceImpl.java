@@ -8,7 +8,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of UserService.
@@ -32,17 +37,27 @@ public class UserServiceImpl implements UserService {
         return userRepository.findById(userId)
                 .orElseGet(() -> {
                     logger.info("User not found, creating placeholder user with ID: {}", userId);
-                    User newUser = new User();
-                    newUser.setId(userId);
-                    newUser.setUsername("user_" + userId);
-                    newUser.setEmail(userId + "@placeholder.com");
-                    newUser.setRole("CUSTOMER");
-                    newUser.setCreatedAt(Instant.now());
-                    newUser.setUpdatedAt(Instant.now());
-                    return userRepository.save(newUser);
+                    return userRepository.save(newPlaceholderUser(userId));
                 });
     }
 
+    @Override
+    public void ensureUsersExist(Collection<String> userIds) {
+        Set<String> existingIds = new HashSet<>();
+        userRepository.findAllById(userIds).forEach(user -> existingIds.add(user.getId()));
+
+        List<User> missingUsers = userIds.stream()
+                .distinct()
+                .filter(userId -> !existingIds.contains(userId))
+                .map(this::newPlaceholderUser)
+                .collect(Collectors.toList());
+
+        if (!missingUsers.isEmpty()) {
+            logger.info("Creating {} placeholder user(s)", missingUsers.size());
+            userRepository.insert(missingUsers);
+        }
+    }
+
     @Override
     public Optional<User> findById(String userId) {
         logger.debug("Finding user by ID: {}", userId);
@@ -53,4 +68,15 @@ public class UserServiceImpl implements UserService {
     public boolean existsById(String userId) {
         return userRepository.existsById(userId);
     }
+
+    private User newPlaceholderUser(String userId) {
+        User newUser = new User();
+        newUser.setId(userId);
+        newUser.setUsername("user_" + userId);
+        newUser.setEmail(userId + "@placeholder.com");
+        newUser.setRole("CUSTOMER");
+        newUser.setCreatedAt(Instant.now());
+        newUser.setUpdatedAt(Instant.now());
+        return newUser;
+    }
 }
@@ -0,0 +1,515 @@
+package org.example.ecommercebackend.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.repository.CartItemRepository;
+import org.example.ecommercebackend.service.CartStore;
+import org.example.ecommercebackend.util.AppendOnlyJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * CartStore holding carts in memory and writing them behind to cart_items.
+ *
+ * Carts live in a map sharded by userId hash, each shard with its own lock, and are
+ * the source of truth for reads; a user's cart is loaded from cart_items on first use.
+ * Every change is first appended to a local journal, then the dirty carts are
+ * periodically written to cart_items in one bulk write. Journal records carry the
+ * line's resulting quantity rather than a delta, so replaying them after a crash is
+ * idempotent. Clearing a cart, which is what checkout does, is written through at once.
+ * Records are appended under the shard lock and a short global lock, but forced to disk
+ * only after both are released, so concurrent changes share an fsync; a change is visible
+ * to reads once applied, and its caller returns once it is durable. The journal is
+ * replayed while the context starts, before the server accepts requests, and compacted
+ * while appends continue.
+ *
+ * Carts are only consistent while each user is served by one node, so this store
+ * is meant for single-node deployments or user-sticky routing.
+ */
+@Service
+@ConditionalOnProperty(name = "cart.store", havingValue = "memory")
+public class WriteBehindCartStore implements CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindCartStore.class);
+
+    private final CartItemRepository cartItemRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Shard[] shards;
+    private final Path journalPath;
+    private final boolean fsync;
+    private final Duration idleEviction;
+
+    private final Object journalLock = new Object();
+    private final Object flushLock = new Object();
+    private AppendOnlyJournal journal;
+    private long sequence;
+
+    public WriteBehindCartStore(CartItemRepository cartItemRepository,
+                                MongoTemplate mongoTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${cart.write-behind.shards:16}") int shards,
+                                @Value("${cart.write-behind.journal-path:data/cart.journal}") String journalPath,
+                                @Value("${cart.write-behind.journal-fsync:true}") boolean fsync,
+                                @Value("${cart.write-behind.idle-eviction-minutes:30}") long idleEvictionMinutes) {
+        this.cartItemRepository = cartItemRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard();
+        }
+        this.journalPath = Path.of(journalPath);
+        this.fsync = fsync;
+        this.idleEviction = Duration.ofMinutes(idleEvictionMinutes);
+    }
+
+    /**
+     * Replay changes journaled before a crash on top of the stored carts and write them out.
+     * Runs during context startup, so no request reaches the store before its carts are replayed.
+     */
+    @PostConstruct
+    public void start() {
+        journal = new AppendOnlyJournal(journalPath, fsync);
+        List<JournalEntry> entries = journal.readAll().stream()
+                .map(this::parse)
+                .collect(Collectors.toList());
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        sequence = entries.stream().mapToLong(JournalEntry::seq).max().orElse(0);
+        loadCarts(entries.stream().map(JournalEntry::userId).collect(Collectors.toSet()));
+        for (JournalEntry entry : entries) {
+            Shard shard = shardOf(entry.userId());
+            synchronized (shard) {
+                CartState cart = shard.carts.get(entry.userId());
+                if (entry.productId() == null) {
+                    cart.lines.clear();
+                } else if (entry.quantity() == 0) {
+                    cart.lines.remove(entry.productId());
+                } else {
+                    cart.lines.put(entry.productId(), newItem(entry.userId(), entry.productId(),
+                            entry.quantity(), entry.createdAt(), entry.updatedAt()));
+                }
+                cart.dirty = true;
+            }
+        }
+
+        logger.info("Replayed {} journaled cart change(s)", entries.size());
+        flush();
+    }
+
+    @Override
+    public Optional<CartItem> findItem(String userId, String productId) {
+        Shard shard = shardOf(userId);
+        CartState cart = loadCart(userId);
+        synchronized (shard) {
+            return Optional.ofNullable(cart.touch().lines.get(productId)).map(WriteBehindCartStore::copyOf);
+        }
+    }
+
+    @Override
+    public List<CartItem> findItems(String userId) {
+        Shard shard = shardOf(userId);
+        CartState cart = loadCart(userId);
+        synchronized (shard) {
+            return cart.touch().lines.values().stream()
+                    .map(WriteBehindCartStore::copyOf)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Map<String, List<CartItem>> findItemsByUserIds(Collection<String> userIds) {
+        loadCarts(userIds);
+        Map<String, List<CartItem>> itemsByUser = new HashMap<>();
+        for (String userId : userIds) {
+            List<CartItem> items = findItems(userId);
+            if (!items.isEmpty()) {
+                itemsByUser.put(userId, items);
+            }
+        }
+        return itemsByUser;
+    }
+
+    @Override
+    public Optional<CartItem> addQuantity(String userId, String productId, int quantity, int maxQuantity) {
+        Shard shard = shardOf(userId);
+        CartState cart = loadCart(userId);
+        long position;
+        CartItem updated;
+        synchronized (shard) {
+            CartItem current = cart.touch().lines.get(productId);
+            int total = (current != null ? current.getQuantity() : 0) + quantity;
+            if (total > maxQuantity) {
+                return Optional.empty();
+            }
+
+            Instant now = Instant.now();
+            Instant createdAt = current != null ? current.getCreatedAt() : now;
+            position = record(userId, productId, total, createdAt, now);
+            updated = newItem(userId, productId, total, createdAt, now);
+            if (current != null) {
+                updated.setId(current.getId());
+            }
+            cart.lines.put(productId, updated);
+            cart.dirty = true;
+            updated = copyOf(updated);
+        }
+        journal.sync(position);
+        return Optional.of(updated);
+    }
+
+    @Override
+    public Map<String, CartItem> addQuantities(String userId, Map<String, Integer> quantities,
+                                               Map<String, Integer> maxQuantities) {
+        Map<String, CartItem> added = new HashMap<>();
+        quantities.forEach((productId, quantity) ->
+                addQuantity(userId, productId, quantity, maxQuantities.get(productId))
+                        .ifPresent(item -> added.put(productId, item)));
+        return added;
+    }
+
+    @Override
+    public void subtractQuantity(String userId, String productId, int quantity) {
+        Shard shard = shardOf(userId);
+        CartState cart = loadCart(userId);
+        long position;
+        synchronized (shard) {
+            CartItem current = cart.touch().lines.get(productId);
+            if (current == null) {
+                return;
+            }
+            int total = current.getQuantity() - quantity;
+            Instant now = Instant.now();
+            if (total <= 0) {
+                position = record(userId, productId, 0, null, now);
+                cart.lines.remove(productId);
+            } else {
+                position = record(userId, productId, total, current.getCreatedAt(), now);
+                CartItem updated = newItem(userId, productId, total, current.getCreatedAt(), now);
+                updated.setId(current.getId());
+                cart.lines.put(productId, updated);
+            }
+            cart.dirty = true;
+        }
+        journal.sync(position);
+    }
+
+    @Override
+    public boolean removeItem(String userId, String productId) {
+        Shard shard = shardOf(userId);
+        CartState cart = loadCart(userId);
+        long position;
+        synchronized (shard) {
+            if (!cart.touch().lines.containsKey(productId)) {
+                return false;
+            }
+            position = record(userId, productId, 0, null, Instant.now());
+            cart.lines.remove(productId);
+            cart.dirty = true;
+        }
+        journal.sync(position);
+        return true;
+    }
+
+    @Override
+    public void deleteCart(String userId) {
+        deleteCarts(List.of(userId));
+    }
+
+    @Override
+    public void deleteCarts(Collection<String> userIds) {
+        long position = 0;
+        for (String userId : userIds) {
+            Shard shard = shardOf(userId);
+            synchronized (shard) {
+                position = record(userId, null, 0, null, Instant.now());
+                CartState cart = shard.carts.computeIfAbsent(userId, id -> new CartState());
+                cart.touch().lines.clear();
+                cart.dirty = true;
+            }
+        }
+        // One sync covers every record of the loop
+        journal.sync(position);
+        // Checkout ends here, so the emptied carts are made durable right away
+        flush(userIds);
+    }
+
+    /**
+     * Write every dirty cart behind to cart_items, then drop journal records that
+     * are covered by the write and carts that have been idle for a while.
+     */
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval-ms:5000}")
+    public void flush() {
+        if (journal == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            long flushedUpTo;
+            synchronized (journalLock) {
+                flushedUpTo = sequence;
+            }
+            // Changes journaled up to flushedUpTo were applied under their shard lock,
+            // so taking each lock below sees all of them
+            if (write(snapshotDirty(null))) {
+                journal.compact(record -> parse(record).seq() > flushedUpTo);
+                evictIdle();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (journal == null) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Write the given users' carts behind now. The journal keeps their records until
+     * the next full flush, since replaying them again is harmless.
+     */
+    private void flush(Collection<String> userIds) {
+        if (journal == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            write(snapshotDirty(new HashSet<>(userIds)));
+        }
+    }
+
+    /**
+     * Copy the dirty carts (of the given users, or all when null) and mark them clean.
+     */
+    private Map<String, List<CartItem>> snapshotDirty(Set<String> userIds) {
+        Map<String, List<CartItem>> snapshot = new HashMap<>();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.carts.forEach((userId, cart) -> {
+                    if (cart.dirty && (userIds == null || userIds.contains(userId))) {
+                        snapshot.put(userId, cart.lines.values().stream()
+                                .map(WriteBehindCartStore::copyOf)
+                                .collect(Collectors.toList()));
+                        cart.dirty = false;
+                    }
+                });
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replace the stored carts with the snapshot in one unordered bulk write.
+     * On failure the carts are marked dirty again for the next flush.
+     */
+    private boolean write(Map<String, List<CartItem>> snapshot) {
+        if (snapshot.isEmpty()) {
+            return true;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CartItem.class);
+        snapshot.forEach((userId, items) -> {
+            List<String> productIds = items.stream().map(CartItem::getProductId).collect(Collectors.toList());
+            bulkOps.remove(Query.query(Criteria.where("userId").is(userId).and("productId").nin(productIds)));
+            for (CartItem item : items) {
+                bulkOps.upsert(Query.query(Criteria.where("userId").is(userId).and("productId").is(item.getProductId())),
+                        new Update()
+                                .set("quantity", item.getQuantity())
+                                .set("updatedAt", item.getUpdatedAt())
+                                .setOnInsert("createdAt", item.getCreatedAt()));
+            }
+        });
+
+        try {
+            bulkOps.execute();
+        } catch (RuntimeException e) {
+            logger.error("Cart write-behind failed for {} cart(s), retrying on next flush: {}",
+                    snapshot.size(), e.getMessage());
+            for (String userId : snapshot.keySet()) {
+                Shard shard = shardOf(userId);
+                synchronized (shard) {
+                    CartState cart = shard.carts.get(userId);
+                    if (cart != null) {
+                        cart.dirty = true;
+                    }
+                }
+            }
+            return false;
+        }
+        logger.debug("Wrote {} cart(s) behind to cart_items", snapshot.size());
+        return true;
+    }
+
+    private void evictIdle() {
+        Instant cutoff = Instant.now().minus(idleEviction);
+        int evicted = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                Iterator<CartState> carts = shard.carts.values().iterator();
+                while (carts.hasNext()) {
+                    CartState cart = carts.next();
+                    if (!cart.dirty && cart.lastAccess.isBefore(cutoff)) {
+                        carts.remove();
+                        evicted++;
+                    }
+                }
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle cart(s) from memory", evicted);
+        }
+    }
+
+    /**
+     * Get the user's cart, loading it from cart_items if it is not in memory.
+     * The read happens outside the shard lock; if another thread loaded the cart
+     * in the meantime, its copy is kept.
+     */
+    private CartState loadCart(String userId) {
+        Shard shard = shardOf(userId);
+        synchronized (shard) {
+            CartState cart = shard.carts.get(userId);
+            if (cart != null) {
+                // Touched under the lock, so an idle eviction cannot drop it before the caller uses it
+                return cart.touch();
+            }
+        }
+
+        CartState loaded = new CartState();
+        for (CartItem item : cartItemRepository.findByUserId(userId)) {
+            loaded.lines.put(item.getProductId(), item);
+        }
+        synchronized (shard) {
+            return shard.carts.computeIfAbsent(userId, id -> loaded);
+        }
+    }
+
+    /**
+     * Load the carts of several users that are not in memory with one query.
+     */
+    private void loadCarts(Collection<String> userIds) {
+        List<String> missing = new ArrayList<>();
+        for (String userId : userIds) {
+            Shard shard = shardOf(userId);
+            synchronized (shard) {
+                if (!shard.carts.containsKey(userId)) {
+                    missing.add(userId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<String, CartState> loaded = new HashMap<>();
+        missing.forEach(userId -> loaded.put(userId, new CartState()));
+        for (CartItem item : cartItemRepository.findByUserIdIn(missing)) {
+            loaded.get(item.getUserId()).lines.put(item.getProductId(), item);
+        }
+        loaded.forEach((userId, cart) -> {
+            Shard shard = shardOf(userId);
+            synchronized (shard) {
+                shard.carts.putIfAbsent(userId, cart);
+            }
+        });
+    }
+
+    /**
+     * Journal a change; called under the shard lock, before the change is applied in memory.
+     * The sequence is assigned and the record written under journalLock, so records are in
+     * sequence order. Returns the record's journal position, for the caller to sync once
+     * it has released the shard lock, sharing the fsync with other writers.
+     */
+    private long record(String userId, String productId, int quantity, Instant createdAt, Instant updatedAt) {
+        if (journal == null) {
+            throw new IllegalStateException("Cart store is not started yet");
+        }
+        synchronized (journalLock) {
+            long seq = ++sequence;
+            return journal.write(objectMapper.writeValueAsString(
+                    new JournalEntry(seq, userId, productId, quantity, createdAt, updatedAt)));
+        }
+    }
+
+    private JournalEntry parse(String record) {
+        return objectMapper.readValue(record, JournalEntry.class);
+    }
+
+    private Shard shardOf(String userId) {
+        return shards[Math.floorMod(userId.hashCode(), shards.length)];
+    }
+
+    private static CartItem newItem(String userId, String productId, int quantity,
+                                    Instant createdAt, Instant updatedAt) {
+        CartItem item = new CartItem(userId, productId, quantity);
+        item.setCreatedAt(createdAt);
+        item.setUpdatedAt(updatedAt);
+        return item;
+    }
+
+    private static CartItem copyOf(CartItem item) {
+        CartItem copy = newItem(item.getUserId(), item.getProductId(), item.getQuantity(),
+                item.getCreatedAt(), item.getUpdatedAt());
+        copy.setId(item.getId());
+        return copy;
+    }
+
+    /**
+     * One journal record: the resulting quantity of a cart line (0 when removed),
+     * or, without a product ID, the clearing of a whole cart.
+     */
+    record JournalEntry(long seq, String userId, String productId, int quantity,
+                                Instant createdAt, Instant updatedAt) {
+    }
+
+    /**
+     * A user's cart lines keyed by product ID, in the order they were added.
+     */
+    private static final class CartState {
+        private final Map<String, CartItem> lines = new LinkedHashMap<>();
+        private boolean dirty;
+        private Instant lastAccess = Instant.now();
+
+        CartState touch() {
+            lastAccess = Instant.now();
+            return this;
+        }
+    }
+
+    /**
+     * The carts of the users whose IDs hash to this shard; guarded by the shard itself.
+     */
+    private static final class Shard {
+        private final Map<String, CartState> carts = new HashMap<>();
+    }
+}
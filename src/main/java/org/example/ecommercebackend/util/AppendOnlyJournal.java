@@ -0,0 +1,232 @@
+package org.example.ecommercebackend.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Line-oriented append-only journal on the local file system.
+ * Used as a crash-recovery log for state that is written behind to MongoDB.
+ *
+ * With fsync enabled, forcing is group-committed: writers that wait for their
+ * records at the same time share one force of the file.
+ */
+public class AppendOnlyJournal implements Closeable {
+
+    private final Path path;
+    private final boolean fsync;
+    // Taken before the journal's own monitor when both are needed
+    private final Object syncLock = new Object();
+    // Guarded by this
+    private FileChannel channel;
+    // Guarded by this; the number of records written since the journal was opened
+    private long written;
+    // Guarded by syncLock; the number of those records known to be on disk
+    private long synced;
+
+    public AppendOnlyJournal(Path path, boolean fsync) {
+        this.path = path;
+        this.fsync = fsync;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            dropTornRecord(path);
+            this.channel = open(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal " + path, e);
+        }
+    }
+
+    /**
+     * Append a single record. The record must not contain line breaks.
+     * Returns once the record is written (and forced to disk when fsync is enabled).
+     */
+    public void append(String record) {
+        sync(write(record));
+    }
+
+    /**
+     * Write a single record without forcing it to disk, returning its position
+     * for sync. The record must not contain line breaks.
+     */
+    public synchronized long write(String record) {
+        try {
+            writeFully(channel, (record + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to journal " + path, e);
+        }
+        return ++written;
+    }
+
+    /**
+     * Wait until the record at the given position is on disk; a no-op unless fsync is enabled.
+     * One caller forces everything written so far while the others queue behind it,
+     * and most of them find their record already covered.
+     */
+    public void sync(long position) {
+        if (!fsync) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long upTo;
+            FileChannel current;
+            synchronized (this) {
+                upTo = written;
+                current = channel;
+            }
+            // Compaction swaps the channel only while holding syncLock, so current stays open
+            try {
+                current.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync journal " + path, e);
+            }
+            synced = upTo;
+        }
+    }
+
+    /**
+     * Read all records currently in the journal.
+     */
+    public synchronized List<String> readAll() {
+        try {
+            return Files.readAllLines(path, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read journal " + path, e);
+        }
+    }
+
+    /**
+     * Atomically rewrite the journal, keeping only the records that match the predicate.
+     *
+     * The records present when compaction starts are filtered into a new file while
+     * appends continue; only the records appended in the meantime are copied, and the
+     * files swapped, with appends blocked. Must not be called concurrently with itself.
+     */
+    public void compact(Predicate<String> keep) {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            long start;
+            synchronized (this) {
+                start = channel.size();
+            }
+            List<String> retained = readLines(0, start).stream().filter(keep).collect(Collectors.toList());
+            Files.write(tmp, retained, StandardCharsets.UTF_8);
+
+            synchronized (syncLock) {
+                synchronized (this) {
+                    List<String> appended = readLines(start, channel.size()).stream()
+                            .filter(keep)
+                            .collect(Collectors.toList());
+                    try (FileChannel compacted = FileChannel.open(tmp, StandardOpenOption.WRITE,
+                            StandardOpenOption.APPEND)) {
+                        for (String record : appended) {
+                            writeFully(compacted, (record + "\n").getBytes(StandardCharsets.UTF_8));
+                        }
+                        compacted.force(false);
+                    }
+                    channel.close();
+                    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    channel = open(path);
+                    // Everything written so far is in the forced file
+                    synced = written;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact journal " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close journal " + path, e);
+        }
+    }
+
+    /**
+     * Cut off a record left without its line break by a crash during a write, so that
+     * it is neither read back nor glued to the next append. Its writer never returned.
+     */
+    private static void dropTornRecord(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = file.size();
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            while (end > 0) {
+                long from = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - from));
+                while (buffer.hasRemaining()) {
+                    if (file.read(buffer, from + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        long intact = from + i + 1;
+                        if (intact < file.size()) {
+                            file.truncate(intact);
+                            file.force(false);
+                        }
+                        return;
+                    }
+                }
+                end = from;
+            }
+            file.truncate(0);
+        }
+    }
+
+    /**
+     * Read the records between two byte offsets; both must be at record boundaries.
+     */
+    private List<String> readLines(long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(to - from));
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (in.read(buffer, from + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        }
+        List<String> records = new ArrayList<>();
+        for (String line : new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                records.add(line);
+            }
+        }
+        return records;
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.ecommercebackend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 field splitter for a single CSV line.
+ * Fields may be quoted, with "" standing for a literal quote inside a quoted field.
+ * Quoted fields cannot span lines: a line break inside one is reported as an
+ * unterminated quoted field.
+ */
+public final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    /**
+     * Split a line into its fields.
+     * Throws IllegalArgumentException if a quoted field is not terminated.
+     */
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException(
+                    "Unterminated quoted field (line breaks inside quoted fields are not supported)");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Check if a quoted field is still open at the end of the line, or, for a line
+     * continuing one, if it closes it: either way the line holds an odd number of quotes.
+     */
+    public static boolean togglesQuote(String line) {
+        return line.chars().filter(c -> c == '"').count() % 2 == 1;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.ecommercebackend.util;
+
+import java.time.Instant;
+
+/**
+ * Weak entity tags for conditional GET requests.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Weak ETag for one version of a resource: its last-modified time plus state that
+     * can change without updatedAt moving (e.g. live stock) or within the same millisecond.
+     * Returns null when updatedAt is unknown, in which case no tag should be sent.
+     */
+    public static String weak(Instant updatedAt, Object state) {
+        if (updatedAt == null) {
+            return null;
+        }
+        return "W/\"" + Long.toString(updatedAt.toEpochMilli(), 36) + "-" + state + "\"";
+    }
+}
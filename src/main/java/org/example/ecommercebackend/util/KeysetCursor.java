@@ -0,0 +1,80 @@
+package org.example.ecommercebackend.util;
+
+import org.example.ecommercebackend.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursor holding the sort key and id of the last row of a page.
+ * The next page starts strictly after that (sortKey, id) pair, so it can be read
+ * as one bounded index range scan instead of skipping over earlier rows.
+ *
+ * Each cursor is tagged with the scope (endpoint and order) that issued it and is
+ * only accepted there, so a cursor from one listing cannot be misread by another.
+ * Listings ordered by id alone carry no sort key.
+ */
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String scope;
+
+    private final String sortKey;
+
+    private final String id;
+
+    public KeysetCursor(String scope, String sortKey, String id) {
+        this.scope = scope;
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    /**
+     * Cursor for a listing ordered by id alone.
+     */
+    public static KeysetCursor ofId(String scope, String id) {
+        return new KeysetCursor(scope, null, id);
+    }
+
+    /**
+     * Decode a cursor previously returned by encode() for the given scope.
+     * Throws BadRequestException if the cursor is malformed or was issued for another scope.
+     */
+    public static KeysetCursor decode(String cursor, String scope) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (parts.length != 3 || !parts[0].equals(scope) || parts[2].isEmpty()) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return new KeysetCursor(scope, parts[1].isEmpty() ? null : parts[1], parts[2]);
+    }
+
+    /**
+     * Encode the cursor as a URL-safe string.
+     */
+    public String encode() {
+        String raw = scope + SEPARATOR + (sortKey != null ? sortKey : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * The sort key, or null for a cursor of a listing ordered by id alone.
+     */
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.ecommercebackend.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Non-negative counter split across several stripes.
+ * Concurrent decrements mostly land on different stripes (and cache lines),
+ * so threads do not contend on a single compare-and-set target. Only an amount
+ * that no single stripe covers takes a lock, to borrow across stripes.
+ */
+public class StripedCounter {
+
+    // Stripes are spaced 16 ints (64 bytes) apart to avoid false sharing
+    private static final int PADDING = 16;
+
+    private final int stripes;
+    private final AtomicIntegerArray cells;
+    // Set while a thread borrows across stripes; acquirers then queue behind it
+    private volatile boolean borrowing;
+
+    public StripedCounter(int stripes, int initialValue) {
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicIntegerArray(this.stripes * PADDING);
+        reset(initialValue);
+    }
+
+    /**
+     * Take the given amount if the counter holds at least that much.
+     * Returns false (and leaves the counter unchanged) otherwise.
+     */
+    public boolean tryAcquire(int amount) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+
+        // Fast path: a single stripe can satisfy the whole amount
+        if (!borrowing) {
+            for (int i = 0; i < stripes; i++) {
+                int cell = cellIndex((start + i) % stripes);
+                int current = cells.get(cell);
+                while (current >= amount) {
+                    if (cells.compareAndSet(cell, current, current - amount)) {
+                        return true;
+                    }
+                    current = cells.get(cell);
+                }
+            }
+        }
+
+        // Slow path: gather the amount across stripes with all other acquirers held off,
+        // so none of them can hold part of the total meanwhile and make both fail.
+        // Stripes are revisited while the total still covers the rest, so a release
+        // landing on a stripe already passed over does not cause a spurious failure.
+        synchronized (this) {
+            borrowing = true;
+            try {
+                return borrow(amount);
+            } finally {
+                borrowing = false;
+            }
+        }
+    }
+
+    /**
+     * Give an amount back to the counter.
+     */
+    public void release(int amount) {
+        cells.addAndGet(cellIndex(ThreadLocalRandom.current().nextInt(stripes)), amount);
+    }
+
+    /**
+     * Current total across all stripes (a moment-in-time estimate under concurrency).
+     */
+    public int sum() {
+        int total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(cellIndex(i));
+        }
+        return total;
+    }
+
+    /**
+     * Set the total, distributing it evenly over the stripes.
+     */
+    public void reset(int value) {
+        int base = Math.max(value, 0) / stripes;
+        int extra = Math.max(value, 0) % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(cellIndex(i), base + (i < extra ? 1 : 0));
+        }
+    }
+
+    /**
+     * Gather the amount across stripes, giving it back if the total is short.
+     * Only called while holding the lock.
+     */
+    private boolean borrow(int amount) {
+        int[] taken = new int[stripes];
+        int remaining = amount;
+        while (remaining > 0) {
+            boolean progress = false;
+            for (int i = 0; i < stripes && remaining > 0; i++) {
+                int cell = cellIndex(i);
+                int current = cells.get(cell);
+                while (current > 0) {
+                    int take = Math.min(current, remaining);
+                    if (cells.compareAndSet(cell, current, current - take)) {
+                        taken[i] += take;
+                        remaining -= take;
+                        progress = true;
+                        break;
+                    }
+                    current = cells.get(cell);
+                }
+            }
+            if (!progress && sum() < remaining) {
+                break;
+            }
+        }
+
+        if (remaining == 0) {
+            return true;
+        }
+        for (int i = 0; i < stripes; i++) {
+            if (taken[i] > 0) {
+                cells.addAndGet(cellIndex(i), taken[i]);
+            }
+        }
+        return false;
+    }
+
+    private static int cellIndex(int stripe) {
+        return stripe * PADDING;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.ecommercebackend;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+/**
+ * Base class for Spring Boot tests that need a real MongoDB. All test classes share
+ * one throwaway single-node replica set (so change streams and transactions work),
+ * started on first use and removed when the JVM exits, since Spring caches the
+ * application context across classes; each class cleans up the data it creates.
+ * The test profile lets MongoConfig connect to it. Skipped when Docker is not available.
+ */
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MongoContainerTest {
+
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:8.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        // A no-op once the container is running
+        MONGO.start();
+        registry.add("spring.data.mongodb.uri", () -> MONGO.getReplicaSetUrl("ecommerce_test"));
+        registry.add("MONGODB_DATABASE", () -> "ecommerce_test");
+    }
+}
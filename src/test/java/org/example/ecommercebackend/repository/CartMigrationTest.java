@@ -0,0 +1,96 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.MongoContainerTest;
+import org.example.ecommercebackend.model.Cart;
+import org.example.ecommercebackend.model.CartItem;
+import org.example.ecommercebackend.model.CartLine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Moves cart_items rows into carts documents, including for a user who already has
+ * a carts document, and checks that no line is lost.
+ */
+@SpringBootTest
+class CartMigrationTest extends MongoContainerTest {
+
+    private static final String EXISTING_CART_USER = "migration-test-existing";
+    private static final String NEW_CART_USER = "migration-test-new";
+    private static final List<String> USERS = List.of(EXISTING_CART_USER, NEW_CART_USER);
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @AfterEach
+    void cleanUp() {
+        cartRepository.deleteAllById(USERS);
+        cartItemRepository.deleteByUserIdIn(USERS);
+    }
+
+    @Test
+    void rowsAreMergedIntoExistingCart() {
+        Instant earlier = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+        Instant later = earlier.plus(30, ChronoUnit.MINUTES);
+
+        // The carts document already holds p1; the rows hold an older p1 and a p2 it lacks
+        Cart cart = new Cart();
+        cart.setId(EXISTING_CART_USER);
+        cart.setItems(List.of(new CartLine("p1", 2, later, later)));
+        cart.setCreatedAt(later);
+        cart.setUpdatedAt(later);
+        cartRepository.save(cart);
+        cartItemRepository.saveAll(List.of(
+                row(EXISTING_CART_USER, "p1", 5, earlier),
+                row(EXISTING_CART_USER, "p2", 1, earlier),
+                row(NEW_CART_USER, "p3", 4, earlier)));
+
+        assertEquals(3, cartRepository.migrateFromCartItems(Instant.now()));
+
+        Cart merged = cartRepository.findById(EXISTING_CART_USER).orElseThrow();
+        assertEquals(Map.of("p1", 2, "p2", 1), quantities(merged));
+        assertEquals(earlier, merged.getCreatedAt());
+        assertEquals(later, merged.getUpdatedAt());
+
+        Cart inserted = cartRepository.findById(NEW_CART_USER).orElseThrow();
+        assertEquals(Map.of("p3", 4), quantities(inserted));
+
+        assertTrue(cartItemRepository.findByUserIdIn(USERS).isEmpty());
+    }
+
+    @Test
+    void rowsAfterCutoffStay() {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        cartItemRepository.save(row(NEW_CART_USER, "p1", 1, cutoff.plusSeconds(60)));
+
+        assertEquals(0, cartRepository.migrateFromCartItems(cutoff));
+
+        assertTrue(cartRepository.findById(NEW_CART_USER).isEmpty());
+        assertEquals(1, cartItemRepository.findByUserId(NEW_CART_USER).size());
+    }
+
+    private static CartItem row(String userId, String productId, int quantity, Instant at) {
+        CartItem cartItem = new CartItem(userId, productId, quantity);
+        cartItem.setCreatedAt(at);
+        cartItem.setUpdatedAt(at);
+        return cartItem;
+    }
+
+    private static Map<String, Integer> quantities(Cart cart) {
+        return cart.getItems().stream()
+                .collect(Collectors.toMap(CartLine::getProductId, CartLine::getQuantity));
+    }
+}
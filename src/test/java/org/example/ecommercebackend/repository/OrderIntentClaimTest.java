@@ -0,0 +1,104 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.MongoContainerTest;
+import org.example.ecommercebackend.model.OrderIntent;
+import org.example.ecommercebackend.model.enums.OrderIntentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Claims order intents from several workers at once and checks that each intent is won
+ * by exactly one of them, that only an expired lease can be reclaimed, and that the
+ * outcome of a claim that lost its intent is not written.
+ */
+@SpringBootTest
+class OrderIntentClaimTest extends MongoContainerTest {
+
+    private static final int INTENTS = 50;
+    private static final int WORKERS = 6;
+
+    @Autowired
+    private OrderIntentRepository orderIntentRepository;
+
+    private final List<String> intentIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedIntents() {
+        for (int i = 0; i < INTENTS; i++) {
+            intentIds.add(orderIntentRepository.save(new OrderIntent("claim-test-user-" + i)).getId());
+        }
+    }
+
+    @AfterEach
+    void removeIntents() {
+        orderIntentRepository.deleteAllById(intentIds);
+    }
+
+    @Test
+    void concurrentClaimsWinEachIntentOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WORKERS);
+        List<Future<List<OrderIntent>>> futures = new ArrayList<>();
+        for (int w = 0; w < WORKERS; w++) {
+            String claimId = "claim-" + w;
+            futures.add(executor.submit(() -> orderIntentRepository.claim(intentIds, claimId,
+                    Instant.now().plusSeconds(60), Instant.now())));
+        }
+
+        Set<String> won = new HashSet<>();
+        int claims = 0;
+        try {
+            for (Future<List<OrderIntent>> future : futures) {
+                for (OrderIntent intent : future.get()) {
+                    won.add(intent.getId());
+                    claims++;
+                    assertEquals(OrderIntentStatus.PROCESSING, intent.getStatus());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(INTENTS, claims);
+        assertEquals(new HashSet<>(intentIds), won);
+    }
+
+    @Test
+    void onlyAnExpiredLeaseIsReclaimed() {
+        List<String> ids = intentIds.subList(0, 2);
+        Instant now = Instant.now();
+        assertEquals(2, orderIntentRepository.claim(ids, "first", now.plusSeconds(60), now).size());
+        assertTrue(orderIntentRepository.claim(ids, "early", now.plusSeconds(60), now).isEmpty());
+
+        Instant later = now.plus(Duration.ofMinutes(2));
+        List<OrderIntent> reclaimed = orderIntentRepository.claim(ids, "second", later.plusSeconds(60), later);
+        assertEquals(2, reclaimed.size());
+
+        // The first worker finishes late: its outcome is dropped, the second one's is kept
+        reclaimed.forEach(intent -> intent.markAsFailed("first worker"));
+        orderIntentRepository.saveOutcomes(reclaimed, "first");
+        reclaimed.forEach(intent -> intent.markAsCompleted(intent.getId()));
+        orderIntentRepository.saveOutcomes(reclaimed, "second");
+
+        List<OrderIntentStatus> statuses = orderIntentRepository.findAllById(ids).stream()
+                .map(OrderIntent::getStatus)
+                .collect(Collectors.toList());
+        assertEquals(List.of(OrderIntentStatus.COMPLETED, OrderIntentStatus.COMPLETED), statuses);
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.ecommercebackend.repository;
+
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.ecommercebackend.MongoContainerTest;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.model.enums.ProductSort;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every filter, sort and cursor combination of the catalog query against a
+ * seeded catalog and checks that the winning plan is an index scan on the expected
+ * catalog index, with no collection scan and no in-memory sort, and that the keys
+ * and documents it examined stay close to the page size rather than the catalog size.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductCatalogQueryPlanTest extends MongoContainerTest {
+
+    private static final int PAGE_LIMIT = 21;
+    private static final int CATALOG_SIZE = 5000;
+    private static final Instant NEWEST_CREATED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<String> seededIds = new ArrayList<>();
+
+    /**
+     * Prices spread over [0, 60) so every tested range keeps most products, one in ten
+     * out of stock, and one product created per minute.
+     */
+    @BeforeAll
+    void seedCatalog() {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            Product product = new Product("Plan test product " + i, null,
+                    Math.round(random.nextDouble() * 6000) / 100.0, random.nextInt(10) == 0 ? 0 : 5);
+            product.setCreatedAt(NEWEST_CREATED_AT.minusSeconds(60L * i));
+            product.setUpdatedAt(product.getCreatedAt());
+            products.add(product);
+        }
+        mongoTemplate.insertAll(products).forEach(product -> seededIds.add(product.getId()));
+    }
+
+    @AfterAll
+    void removeCatalog() {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(seededIds)), Product.class);
+    }
+
+    static List<ProductCatalogQuery> catalogQueries() {
+        Double[][] priceRanges = {{null, null}, {10.0, null}, {null, 50.0}, {10.0, 50.0}};
+        Instant afterCreatedAt = NEWEST_CREATED_AT.minusSeconds(60L * CATALOG_SIZE / 2);
+        String afterId = new ObjectId().toHexString();
+
+        List<ProductCatalogQuery> queries = new ArrayList<>();
+        for (ProductSort sort : ProductSort.values()) {
+            for (boolean inStock : new boolean[]{false, true}) {
+                for (Double[] range : priceRanges) {
+                    queries.add(new ProductCatalogQuery(inStock, range[0], range[1], sort, null, null, null));
+                    queries.add(new ProductCatalogQuery(inStock, range[0], range[1], sort,
+                            25.0, afterCreatedAt, afterId));
+                }
+            }
+        }
+        return queries;
+    }
+
+    @ParameterizedTest
+    @MethodSource("catalogQueries")
+    void catalogQueryIsAnIndexScan(ProductCatalogQuery catalogQuery) {
+        Query query = ProductRepositoryCustomImpl.catalogQuery(catalogQuery, PAGE_LIMIT);
+
+        MongoConverter converter = mongoTemplate.getConverter();
+        MongoPersistentEntity<?> entity = converter.getMappingContext().getRequiredPersistentEntity(Product.class);
+        QueryMapper queryMapper = new QueryMapper(converter);
+
+        Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+                .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+                .hintString(query.getHint())
+                .limit(query.getLimit())
+                .explain(ExplainVerbosity.EXECUTION_STATS);
+
+        Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        List<Document> stages = new ArrayList<>();
+        collectStages(winningPlan, stages);
+        List<String> stageNames = stages.stream()
+                .map(stage -> stage.getString("stage"))
+                .collect(Collectors.toList());
+
+        String expectedIndex = catalogQuery.getSort() == ProductSort.NEWEST
+                ? "catalog_newest_idx"
+                : "catalog_price_idx";
+        assertTrue(stages.stream().anyMatch(stage -> "IXSCAN".equals(stage.getString("stage"))
+                        && expectedIndex.equals(stage.getString("indexName"))),
+                "Expected IXSCAN on " + expectedIndex + " but plan was " + stageNames);
+        assertFalse(stageNames.contains("COLLSCAN"), "Collection scan in plan " + stageNames);
+        assertFalse(stageNames.contains("SORT"), "In-memory sort in plan " + stageNames);
+
+        // The hint only pins the index; these show the scan also stops after about a page
+        Document executionStats = explain.get("executionStats", Document.class);
+        int keysExamined = executionStats.get("totalKeysExamined", Number.class).intValue();
+        int docsExamined = executionStats.get("totalDocsExamined", Number.class).intValue();
+        assertTrue(keysExamined <= 4 * PAGE_LIMIT,
+                "Examined " + keysExamined + " keys for a page of " + PAGE_LIMIT);
+        assertTrue(docsExamined <= 3 * PAGE_LIMIT,
+                "Examined " + docsExamined + " documents for a page of " + PAGE_LIMIT);
+    }
+
+    /**
+     * Walk the plan tree (inputStage, inputStages, queryPlan, ...) and collect every stage.
+     */
+    private static void collectStages(Object node, List<Document> stages) {
+        if (node instanceof Document document) {
+            if (document.containsKey("stage")) {
+                stages.add(document);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
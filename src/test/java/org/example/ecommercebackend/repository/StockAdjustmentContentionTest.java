@@ -0,0 +1,102 @@
+package org.example.ecommercebackend.repository;
+
+import org.example.ecommercebackend.MongoContainerTest;
+import org.example.ecommercebackend.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs many concurrent batches, each with several lines for the same product, against
+ * little stock, and checks that the stock left is exactly what the lines reported as
+ * applied imply: no line is reported applied without changing stock, nor the reverse.
+ */
+@SpringBootTest
+class StockAdjustmentContentionTest extends MongoContainerTest {
+
+    private static final int INITIAL_STOCK = 200;
+    private static final int THREADS = 8;
+    private static final int BATCHES_PER_THREAD = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<String> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedProducts() {
+        for (int i = 0; i < 2; i++) {
+            productIds.add(productRepository.save(
+                    new Product("Contention test product " + i, null, 10.0, INITIAL_STOCK)).getId());
+        }
+    }
+
+    @AfterEach
+    void removeProducts() {
+        productRepository.deleteAllById(productIds);
+    }
+
+    @Test
+    void appliedLinesMatchStockLeft() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<int[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(this::runBatches));
+        }
+
+        int[] netApplied = new int[productIds.size()];
+        try {
+            for (Future<int[]> future : futures) {
+                int[] applied = future.get();
+                for (int p = 0; p < netApplied.length; p++) {
+                    netApplied[p] += applied[p];
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int p = 0; p < productIds.size(); p++) {
+            int stock = productRepository.findStockById(productIds.get(p)).orElseThrow();
+            assertEquals(INITIAL_STOCK + netApplied[p], stock, "Stock of product " + p);
+        }
+    }
+
+    /**
+     * Send batches that mix deductions (most of which run out of stock) and restores,
+     * with repeated lines per product, and sum the deltas of the lines reported applied.
+     */
+    private int[] runBatches() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] netApplied = new int[productIds.size()];
+        for (int b = 0; b < BATCHES_PER_THREAD; b++) {
+            List<StockAdjustment> batch = new ArrayList<>();
+            for (int line = 0; line < 4; line++) {
+                String productId = productIds.get(random.nextInt(productIds.size()));
+                batch.add(random.nextInt(4) == 0
+                        ? StockAdjustment.restore(productId, 1 + random.nextInt(3))
+                        : StockAdjustment.deduct(productId, 1 + random.nextInt(5)));
+            }
+
+            StockAdjustmentResult result = productRepository.applyStockAdjustments(batch);
+            for (int line = 0; line < batch.size(); line++) {
+                if (result.isApplied(line)) {
+                    StockAdjustment adjustment = batch.get(line);
+                    netApplied[productIds.indexOf(adjustment.getProductId())] += adjustment.getDelta();
+                }
+            }
+        }
+        return netApplied;
+    }
+}
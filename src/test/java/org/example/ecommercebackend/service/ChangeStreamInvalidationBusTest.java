@@ -0,0 +1,112 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.MongoContainerTest;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.repository.ChangeStreamCheckpointRepository;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Writes products straight to MongoDB, as another node would (no local event is
+ * published), and checks that the change stream evicts them from the local cache.
+ * Change streams need a replica set, so this runs against the single-node replica
+ * set of MongoContainerTest.
+ */
+@SpringBootTest(properties = {
+        "cache.invalidation.change-streams.enabled=true",
+        "cache.invalidation.node-id=change-stream-test",
+        "cache.invalidation.checkpoint-interval-ms=0"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChangeStreamInvalidationBusTest extends MongoContainerTest {
+
+    private static final String NODE_ID = "change-stream-test";
+    private static final long TIMEOUT_MS = 15_000;
+
+    private final List<String> savedProductIds = new ArrayList<>();
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ChangeStreamCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void deleteProducts() {
+        productRepository.deleteAllById(savedProductIds);
+        savedProductIds.clear();
+    }
+
+    // Every test waits for the checkpoint, so it is only removed once they have all run
+    @AfterAll
+    void deleteCheckpoint() {
+        checkpointRepository.deleteById(NODE_ID);
+    }
+
+    @Test
+    void remoteWriteEvictsCachedProduct() {
+        // A checkpoint means the stream is open, so the write below cannot be missed
+        awaitTrue(() -> checkpointRepository.existsById(NODE_ID));
+
+        Product product = save(new Product("change-stream-test", "remote write", 10.0, 5));
+        assertEquals(10.0, productCache.get(product.getId()).orElseThrow().getPrice());
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(product.getId())),
+                new Update().set("price", 20.0), Product.class);
+
+        awaitTrue(() -> productCache.get(product.getId()).orElseThrow().getPrice() == 20.0);
+    }
+
+    @Test
+    void resumeTokenIsCheckpointedAsEventsArrive() {
+        awaitTrue(() -> checkpointRepository.existsById(NODE_ID));
+        String before = checkpointRepository.findById(NODE_ID).orElseThrow().getResumeToken();
+
+        Product product = save(new Product("change-stream-test", "checkpoint", 1.0, 1));
+
+        awaitTrue(() -> !checkpointRepository.findById(NODE_ID).orElseThrow().getResumeToken().equals(before));
+    }
+
+    private Product save(Product product) {
+        Product saved = productRepository.save(product);
+        savedProductIds.add(saved.getId());
+        return saved;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within " + TIMEOUT_MS + " ms");
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.MongoContainerTest;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrency benchmark comparing the read-modify-save stock path with the
+ * striped in-memory HotInventoryEngine on a single hot product, against the
+ * MongoDB of MongoContainerTest.
+ */
+@SpringBootTest
+class HotInventoryEngineBenchmark extends MongoContainerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotInventoryEngineBenchmark.class);
+
+    private static final int THREADS = 16;
+    private static final int OPS_PER_THREAD = 200;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @TempDir
+    Path journalDir;
+
+    private final List<String> productIds = new ArrayList<>();
+
+    @AfterEach
+    void removeProducts() {
+        productRepository.deleteAllById(productIds);
+        productIds.clear();
+    }
+
+    @Test
+    void compareSavePathWithHotInventoryEngine() throws Exception {
+        int totalOps = THREADS * OPS_PER_THREAD;
+
+        // Baseline: findById + reduceStock + save, as createOrder used to do
+        Product saveProduct = productRepository.save(new Product("bench-save", "benchmark", 1.0, totalOps));
+        productIds.add(saveProduct.getId());
+        long saveNanos = run(() -> {
+            Product product = productRepository.findById(saveProduct.getId()).orElseThrow();
+            product.reduceStock(1);
+            productRepository.save(product);
+            return true;
+        });
+        int saveStock = productRepository.findById(saveProduct.getId()).orElseThrow().getStock();
+        int lostUpdates = saveStock; // every op sold one unit, so anything left was overwritten
+
+        // Hot engine: striped counters + journal + write-behind flush
+        Product hotProduct = productRepository.save(new Product("bench-hot", "benchmark", 1.0, totalOps));
+        productIds.add(hotProduct.getId());
+        HotInventoryEngine engine = new HotInventoryEngine(mongoTemplate, hotProduct.getId(), 8,
+                journalDir.resolve("bench.journal").toString(), true);
+        engine.start();
+        AtomicInteger sold = new AtomicInteger();
+        long hotNanos = run(() -> {
+            if (engine.tryAcquire(hotProduct.getId(), 1)) {
+                sold.incrementAndGet();
+            }
+            return true;
+        });
+        engine.stop();
+        int hotStock = productRepository.findById(hotProduct.getId()).orElseThrow().getStock();
+
+        logger.info("save path : {} ops in {} ms ({} ops/s), lost updates: {}",
+                totalOps, saveNanos / 1_000_000, Math.round(totalOps / (saveNanos / 1e9)), lostUpdates);
+        logger.info("hot engine: {} ops in {} ms ({} ops/s), lost updates: {}",
+                totalOps, hotNanos / 1_000_000, Math.round(totalOps / (hotNanos / 1e9)), hotStock);
+
+        assertEquals(totalOps, sold.get());
+        assertEquals(0, hotStock);
+    }
+
+    private long run(Callable<Boolean> operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        operation.call();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.dto.response.ProductSuggestionResponse;
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Builds the suggest index over a large generated catalog and checks short prefixes,
+ * answered from the precomputed rankings, and longer ones, answered by a range scan,
+ * against a brute-force ranking of every product; also checks that a stock change
+ * lifts a product into the ranking of its short prefixes.
+ */
+class ProductSuggesterTest {
+
+    private static final int PRODUCTS = 20_000;
+    private static final String[] WORDS = {
+            "apple", "amber", "anchor", "bamboo", "basket", "blender", "cable", "camera", "candle",
+            "desk", "drill", "ember", "espresso", "fan", "frame", "glass", "grill", "lamp", "laptop"
+    };
+
+    private final List<Product> catalog = new ArrayList<>();
+    private ProductRepository productRepository;
+    private ProductSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < PRODUCTS; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + (random.nextBoolean() ? " " + WORDS[random.nextInt(WORDS.length)] : "");
+            Product product = new Product(name, null, 10.0, random.nextInt(1000));
+            product.setId(String.format("p%05d", i));
+            catalog.add(product);
+        }
+
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.streamAllByOrderByIdAsc()).thenAnswer(invocation -> catalog.stream());
+        suggester = new ProductSuggester(productRepository, mock(HotInventoryEngine.class));
+        suggester.build();
+    }
+
+    @Test
+    void shortPrefixesMatchAFullRanking() {
+        for (String prefix : List.of("a", "b", "c", "e", "l", "am", "ca", "la", "z", "A")) {
+            assertEquals(expected(prefix, 10), suggested(prefix, 10), "prefix " + prefix);
+        }
+        assertEquals(expected("d", 50), suggested("d", 50));
+    }
+
+    @Test
+    void longerPrefixesMatchAFullRanking() {
+        for (String prefix : List.of("app", "lapt", "espresso", "grill l")) {
+            assertEquals(expected(prefix, 10), suggested(prefix, 10), "prefix " + prefix);
+        }
+    }
+
+    @Test
+    void stockChangesReachShortPrefixRankings() {
+        Product restocked = catalog.stream()
+                .filter(product -> product.getName().startsWith("fan"))
+                .min(Comparator.comparingInt(Product::getStock))
+                .orElseThrow();
+        restocked.setStock(5000);
+        when(productRepository.findStockByIds(anyCollection()))
+                .thenReturn(Map.of(restocked.getId(), 5000));
+
+        suggester.onProductChanged(ProductChangedEvent.stockChanged(List.of(restocked.getId())));
+        suggester.refresh();
+
+        assertEquals(restocked.getId(), suggested("f", 1).get(0));
+        assertEquals(expected("fa", 10), suggested("fa", 10));
+    }
+
+    private List<String> suggested(String prefix, int limit) {
+        return suggester.suggest(prefix, limit).stream()
+                .map(ProductSuggestionResponse::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Rank every product with a name word starting with the prefix: highest stock, then
+     * shortest name, then lowest ID.
+     */
+    private List<String> expected(String prefix, int limit) {
+        String normalizedPrefix = prefix.toLowerCase();
+        return catalog.stream()
+                .filter(product -> (" " + product.getName()).contains(" " + normalizedPrefix))
+                .sorted(Comparator.comparing(Product::getStock, Comparator.reverseOrder())
+                        .thenComparing(product -> product.getName().length())
+                        .thenComparing(Product::getId))
+                .limit(limit)
+                .map(Product::getId)
+                .collect(Collectors.toList());
+    }
+}
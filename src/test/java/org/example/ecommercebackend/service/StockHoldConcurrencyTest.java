@@ -0,0 +1,104 @@
+package org.example.ecommercebackend.service;
+
+import org.example.ecommercebackend.MongoContainerTest;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.model.StockHold;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Places many concurrent holds on a product with little stock and checks that the
+ * holds kept never add up to more than the stock; also checks available-to-promise,
+ * rejected refreshes and consuming a buyer's holds.
+ */
+@SpringBootTest
+class StockHoldConcurrencyTest extends MongoContainerTest {
+
+    private static final int STOCK = 10;
+    private static final int USERS = 40;
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private String productId;
+
+    @BeforeEach
+    void seedProduct() {
+        productId = productRepository.save(new Product("Hold test product", null, 10.0, STOCK)).getId();
+    }
+
+    @AfterEach
+    void removeProduct() {
+        productRepository.deleteById(productId);
+        mongoTemplate.remove(Query.query(Criteria.where("productId").is(productId)), StockHold.class);
+    }
+
+    @Test
+    void concurrentHoldsNeverExceedStock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int user = 0; user < USERS; user++) {
+            String userId = "hold-test-user-" + user;
+            int quantity = 1 + user % 3;
+            futures.add(executor.submit(() -> stockHoldService.tryHold(userId, productId, quantity)));
+        }
+        int placed = 0;
+        try {
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    placed++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int held = stockHoldService.getActiveHolds(List.of(productId)).getOrDefault(productId, Map.of())
+                .values().stream().mapToInt(Integer::intValue).sum();
+        assertTrue(placed > 0, "No hold was placed");
+        assertTrue(held <= STOCK, "Holds of " + held + " exceed stock of " + STOCK);
+    }
+
+    @Test
+    void holdsOfOthersReduceAvailableToPromise() {
+        assertTrue(stockHoldService.tryHold("hold-test-a", productId, 7));
+        assertFalse(stockHoldService.tryHold("hold-test-b", productId, 4));
+        assertTrue(stockHoldService.tryHold("hold-test-b", productId, 3));
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(3, stockHoldService.getAvailableToPromise(product, "hold-test-a"));
+        assertEquals(7, stockHoldService.getAvailableToPromise(product, "hold-test-b"));
+
+        // A rejected refresh leaves the existing hold as it was
+        assertFalse(stockHoldService.tryHold("hold-test-a", productId, 8));
+        assertEquals(Map.of("hold-test-a", 7, "hold-test-b", 3),
+                stockHoldService.getActiveHolds(List.of(productId)).get(productId));
+
+        stockHoldService.consumeHolds(Map.of("hold-test-a", List.of(productId)));
+        assertEquals(Map.of("hold-test-b", 3), stockHoldService.getActiveHolds(List.of(productId)).get(productId));
+    }
+}
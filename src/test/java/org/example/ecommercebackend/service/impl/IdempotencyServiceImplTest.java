@@ -0,0 +1,92 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.dto.request.CreateOrderRequest;
+import org.example.ecommercebackend.dto.response.OrderResponse;
+import org.example.ecommercebackend.model.IdempotencyRecord;
+import org.example.ecommercebackend.model.Order;
+import org.example.ecommercebackend.model.OrderItem;
+import org.example.ecommercebackend.model.enums.IdempotencyStatus;
+import org.example.ecommercebackend.repository.IdempotencyRecordRepository;
+import org.example.ecommercebackend.repository.OrderRepository;
+import org.example.ecommercebackend.service.CartService;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.example.ecommercebackend.service.InventoryService;
+import org.example.ecommercebackend.service.ProductCache;
+import org.example.ecommercebackend.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Takes over a stale claim whose first attempt placed the order and emptied the cart
+ * but never recorded the outcome, checking that the retry returns that order.
+ */
+class IdempotencyServiceImplTest {
+
+    private static final String USER_ID = "idempotency-test-user";
+    private static final String ORDER_ID = "65f0c0ffee00000000000001";
+
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    private OrderRepository orderRepository;
+    private CartService cartService;
+    private InventoryService inventoryService;
+    private OrderServiceImpl orderService;
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        cartService = mock(CartService.class);
+        inventoryService = mock(InventoryService.class);
+
+        orderService = new OrderServiceImpl(orderRepository, mock(ProductCache.class), cartService,
+                mock(UserService.class), inventoryService, mock(HotInventoryEngine.class));
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, orderService, 100);
+    }
+
+    @Test
+    void takeoverReturnsTheOrderPlacedUnderTheClaim() {
+        String scopedKey = USER_ID + ":key-1";
+        Instant claimedAt = Instant.now().minusSeconds(120);
+        IdempotencyRecord staleClaim = new IdempotencyRecord(scopedKey, USER_ID, ORDER_ID,
+                claimedAt, claimedAt.plusSeconds(3600));
+
+        when(idempotencyRecordRepository.insert(any(IdempotencyRecord.class)))
+                .thenThrow(new DuplicateKeyException("claimed"));
+        when(idempotencyRecordRepository.findById(scopedKey)).thenReturn(Optional.of(staleClaim));
+        when(idempotencyRecordRepository.takeOverStaleClaim(eq(scopedKey), any(), any()))
+                .thenReturn(Optional.of(staleClaim));
+
+        // The first attempt placed the order and cleared the cart before it crashed
+        Order placed = new Order(USER_ID, 20.0);
+        placed.setId(ORDER_ID);
+        placed.setItems(List.of(new OrderItem("product-1", "Mug", 2, 10.0)));
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(placed));
+        when(cartService.getCartItemsByUserId(USER_ID)).thenReturn(List.of());
+
+        OrderResponse response = idempotencyService.executeOnce("key-1", USER_ID,
+                orderId -> orderService.createOrder(new CreateOrderRequest(USER_ID), orderId));
+
+        assertEquals(ORDER_ID, response.getId());
+        assertEquals(IdempotencyStatus.COMPLETED, staleClaim.getStatus());
+        verify(idempotencyRecordRepository).save(staleClaim);
+        verify(idempotencyRecordRepository, never()).releaseClaim(anyString(), any());
+        verify(inventoryService, never()).reserveStock(anyString(), anyList());
+        verify(cartService, never()).clearCart(anyString());
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.ecommercebackend.service.impl;
+
+import jakarta.validation.Validation;
+import org.example.ecommercebackend.dto.response.ProductImportErrorResponse;
+import org.example.ecommercebackend.dto.response.ProductImportResponse;
+import org.example.ecommercebackend.exception.BadRequestException;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.model.enums.ProductImportFormat;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.example.ecommercebackend.repository.ProductUpsertResult;
+import org.example.ecommercebackend.service.HotInventoryEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parses CSV and NDJSON import bodies against a mocked repository, checking which
+ * rows reach the bulk write and which are reported, at which line, and why.
+ */
+class ProductImportServiceImplTest {
+
+    private final List<Product> upserted = new ArrayList<>();
+    private ProductImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.upsertAllBySku(anyList())).thenAnswer(invocation -> {
+            List<Product> batch = invocation.getArgument(0);
+            // The service clears its batch after the write, so keep copies
+            batch.forEach(product -> upserted.add(copyOf(product)));
+            return new ProductUpsertResult(batch.size(), 0, Map.of());
+        });
+
+        importService = new ProductImportServiceImpl(productRepository, mock(HotInventoryEngine.class),
+                JsonMapper.builder().build(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                event -> { },
+                1000, 100);
+    }
+
+    @Test
+    void csvRowsAreImportedWithQuotedFields() {
+        ProductImportResponse response = importCsv(
+                "sku,name,description,price,stock",
+                "a-1,Mug,\"Large, blue\",9.5,3",
+                "a-2,\"12\"\" pan\",,20,0");
+
+        assertEquals(2, response.getRowsRead());
+        assertEquals(0, response.getFailed());
+        assertEquals(List.of("a-1", "a-2"), skus());
+        assertEquals("Large, blue", upserted.get(0).getDescription());
+        assertEquals("12\" pan", upserted.get(1).getName());
+        assertNull(upserted.get(1).getDescription());
+    }
+
+    @Test
+    void csvColumnsMayComeInAnyOrder() {
+        importCsv("Stock,Price,Name,SKU", "3,9.5,Mug,a-1");
+
+        assertEquals(3, upserted.get(0).getStock());
+        assertEquals(9.5, upserted.get(0).getPrice());
+    }
+
+    @Test
+    void blankCsvLinesAreSkippedAndShortRowsRejected() {
+        ProductImportResponse response = importCsv(
+                "sku,name,price,stock",
+                "",
+                "a-1,Mug,9.5",
+                "   ",
+                "a-2,Pan,20,1");
+
+        assertEquals(2, response.getRowsRead());
+        assertEquals(List.of("a-2"), skus());
+        assertEquals(List.of("3: Expected 4 field(s), found 3"), errors(response));
+    }
+
+    @Test
+    void invalidCsvNumbersAreRejected() {
+        ProductImportResponse response = importCsv(
+                "sku,name,price,stock",
+                "a-1,Mug,cheap,3",
+                "a-2,Pan,20,1.5",
+                "a-3,Pot,-1,1");
+
+        assertTrue(upserted.isEmpty());
+        assertEquals(List.of(
+                "2: Invalid price: cheap",
+                "3: Invalid stock: 1.5",
+                "4: Price must be positive"), errors(response));
+    }
+
+    @Test
+    void csvLineBreakInQuotedFieldIsReportedOnceAtItsFirstLine() {
+        ProductImportResponse response = importCsv(
+                "sku,name,description,price,stock",
+                "a-1,Mug,\"first line",
+                "second line",
+                "last line\",9.5,3",
+                "a-2,Pan,,20,1");
+
+        assertEquals(List.of("a-2"), skus());
+        assertEquals(1, response.getFailed());
+        ProductImportErrorResponse error = response.getErrors().get(0);
+        assertEquals(2, error.getRow());
+        assertTrue(error.getMessage().startsWith("Unterminated quoted field"));
+    }
+
+    @Test
+    void csvHeaderMustNameRequiredColumns() {
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> importCsv("sku,name,price"));
+        assertTrue(e.getMessage().contains("stock"));
+    }
+
+    @Test
+    void ndjsonRowsAreImported() {
+        ProductImportResponse response = importNdjson(
+                "{\"sku\":\"a-1\",\"name\":\"Mug\",\"price\":9.5,\"stock\":3}",
+                "",
+                "{\"sku\":\"a-2\",\"name\":\"Pan\",\"description\":\"Steel\",\"price\":20,\"stock\":0}");
+
+        assertEquals(2, response.getRowsRead());
+        assertEquals(List.of("a-1", "a-2"), skus());
+        assertEquals("Steel", upserted.get(1).getDescription());
+    }
+
+    @Test
+    void malformedAndInvalidJsonRowsAreRejected() {
+        ProductImportResponse response = importNdjson(
+                "{\"sku\":\"a-1\",\"name\":\"Mug\"",
+                "{\"sku\":\"a-2\",\"name\":\"Pan\",\"price\":\"cheap\",\"stock\":1}",
+                "{\"name\":\"Pot\",\"price\":5,\"stock\":1}",
+                "null",
+                "{\"sku\":\"a-5\",\"name\":\"Cup\",\"price\":2,\"stock\":4}");
+
+        assertEquals(List.of("a-5"), skus());
+        List<ProductImportErrorResponse> errors = response.getErrors();
+        assertEquals(List.of(1L, 2L, 3L, 4L), errors.stream().map(ProductImportErrorResponse::getRow)
+                .collect(Collectors.toList()));
+        assertTrue(errors.get(0).getMessage().startsWith("Malformed JSON"));
+        assertTrue(errors.get(1).getMessage().startsWith("Malformed JSON"));
+        assertEquals("SKU is required", errors.get(2).getMessage());
+        assertEquals("Row is empty", errors.get(3).getMessage());
+    }
+
+    @Test
+    void laterRowForTheSameSkuWins() {
+        importNdjson(
+                "{\"sku\":\"a-1\",\"name\":\"Mug\",\"price\":9.5,\"stock\":3}",
+                "{\"sku\":\"a-1\",\"name\":\"Mug\",\"price\":9.5,\"stock\":7}");
+
+        assertEquals(2, upserted.size());
+        assertEquals(7, upserted.get(1).getStock());
+    }
+
+    private ProductImportResponse importCsv(String... lines) {
+        return importService.importProducts(body(lines), ProductImportFormat.CSV);
+    }
+
+    private ProductImportResponse importNdjson(String... lines) {
+        return importService.importProducts(body(lines), ProductImportFormat.NDJSON);
+    }
+
+    private static ByteArrayInputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> skus() {
+        return upserted.stream().map(Product::getSku).collect(Collectors.toList());
+    }
+
+    private static List<String> errors(ProductImportResponse response) {
+        return response.getErrors().stream()
+                .map(error -> error.getRow() + ": " + error.getMessage())
+                .collect(Collectors.toList());
+    }
+
+    private static Product copyOf(Product product) {
+        Product copy = new Product(product.getName(), product.getDescription(), product.getPrice(),
+                product.getStock());
+        copy.setSku(product.getSku());
+        return copy;
+    }
+}
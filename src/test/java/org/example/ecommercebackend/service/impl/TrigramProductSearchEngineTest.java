@@ -0,0 +1,157 @@
+package org.example.ecommercebackend.service.impl;
+
+import org.example.ecommercebackend.event.ProductChangedEvent;
+import org.example.ecommercebackend.model.Product;
+import org.example.ecommercebackend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ranks products from an index built over a mocked repository, and checks that
+ * changed and deleted products are tombstoned and stale re-reads are ignored.
+ */
+class TrigramProductSearchEngineTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final Map<String, Product> catalog = new LinkedHashMap<>();
+    private ProductRepository productRepository;
+    private TrigramProductSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.streamAllByOrderByIdAsc())
+                .thenAnswer(invocation -> new ArrayList<>(catalog.values()).stream());
+        when(productRepository.findAllById(any())).thenAnswer(this::readCatalog);
+        searchEngine = new TrigramProductSearchEngine(productRepository);
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        put("p1", "Kitchen towel", "Cotton, fits any blue mug", T0);
+        put("p2", "Blue mug", null, T0);
+        put("p3", "Blue mug with lid", null, T0);
+        put("p4", "Teapot", null, T0);
+        searchEngine.buildIndex();
+
+        // Whole-phrase name matches first, the shorter name ahead, then the description match
+        assertEquals(List.of("p2", "p3", "p1"), search("blue mug"));
+    }
+
+    @Test
+    void partiallyTypedWordsAndAccentsMatch() {
+        put("p1", "Crème brûlée torch", null, T0);
+        searchEngine.buildIndex();
+
+        assertEquals(List.of("p1"), search("creme bru"));
+    }
+
+    @Test
+    void changedAndDeletedProductsAreTombstoned() {
+        put("p1", "Blue mug", null, T0);
+        put("p2", "Green mug", null, T0);
+        searchEngine.buildIndex();
+
+        put("p1", "Red kettle", null, T0.plusSeconds(60));
+        catalog.remove("p2");
+        searchEngine.onProductChanged(ProductChangedEvent.productsChanged(List.of("p1", "p2")));
+
+        assertTrue(search("mug").isEmpty());
+        assertEquals(List.of("p1"), search("kettle"));
+        assertEquals(0, searchEngine.search("mug", 0, 10).getTotal());
+    }
+
+    @Test
+    void olderReadDoesNotOverwriteNewerVersion() {
+        put("p1", "Red kettle", null, T0.plusSeconds(60));
+        searchEngine.buildIndex();
+
+        // A change event whose read returns an older version, as when reads race
+        put("p1", "Blue mug", null, T0);
+        searchEngine.onProductChanged(ProductChangedEvent.productsChanged(List.of("p1")));
+
+        assertEquals(List.of("p1"), search("kettle"));
+        assertTrue(search("mug").isEmpty());
+    }
+
+    @Test
+    void deletedProductIsNotReAddedByLaterRead() {
+        put("p1", "Blue mug", null, T0);
+        searchEngine.buildIndex();
+
+        // A read that started before the delete is applied after it
+        Product stale = catalog.get("p1");
+        when(productRepository.findAllById(any()))
+                .thenAnswer(invocation -> {
+                    catalog.remove("p1");
+                    searchEngine.onProductChanged(ProductChangedEvent.productsChanged(List.of("p1")));
+                    return List.of(stale);
+                })
+                .thenAnswer(this::readCatalog);
+        searchEngine.onProductChanged(ProductChangedEvent.productsChanged(List.of("p1")));
+
+        assertTrue(search("mug").isEmpty());
+    }
+
+    @Test
+    void deletionsAreForgottenOnceNoReadIsInFlight() {
+        put("p1", "Blue mug", null, T0);
+        searchEngine.buildIndex();
+
+        Product deleted = catalog.remove("p1");
+        searchEngine.onProductChanged(ProductChangedEvent.productsChanged(List.of("p1")));
+        assertTrue(search("mug").isEmpty());
+
+        // No read overlapped the delete, so nothing is kept to reject this one
+        catalog.put("p1", deleted);
+        searchEngine.onProductChanged(ProductChangedEvent.productsChanged(List.of("p1")));
+        assertEquals(List.of("p1"), search("mug"));
+    }
+
+    @Test
+    void stockOnlyChangesAreIgnored() {
+        put("p1", "Blue mug", null, T0);
+        searchEngine.buildIndex();
+
+        catalog.remove("p1");
+        searchEngine.onProductChanged(ProductChangedEvent.stockChanged(List.of("p1")));
+
+        assertEquals(List.of("p1"), search("mug"));
+    }
+
+    private List<Product> readCatalog(InvocationOnMock invocation) {
+        Iterable<String> ids = invocation.getArgument(0);
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(catalog::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<String> search(String query) {
+        return searchEngine.search(query, 0, 10).getProductIds();
+    }
+
+    private void put(String id, String name, String description, Instant updatedAt) {
+        Product product = new Product(name, description, 10.0, 1);
+        product.setId(id);
+        product.setUpdatedAt(updatedAt);
+        catalog.put(id, product);
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.ecommercebackend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AppendOnlyJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsSurviveReopen() {
+        Path path = dir.resolve("journal");
+        try (AppendOnlyJournal journal = new AppendOnlyJournal(path, true)) {
+            journal.append("1|a");
+            journal.sync(journal.write("2|b"));
+        }
+
+        try (AppendOnlyJournal reopened = new AppendOnlyJournal(path, true)) {
+            assertEquals(List.of("1|a", "2|b"), reopened.readAll());
+        }
+    }
+
+    @Test
+    void tornLastRecordIsDroppedOnReopen() throws Exception {
+        Path path = dir.resolve("journal");
+        // A crash in the middle of writing the third record
+        Files.writeString(path, "1|a\n2|b\n3|", StandardCharsets.UTF_8);
+
+        try (AppendOnlyJournal journal = new AppendOnlyJournal(path, true)) {
+            assertEquals(List.of("1|a", "2|b"), journal.readAll());
+            journal.append("3|c");
+            assertEquals(List.of("1|a", "2|b", "3|c"), journal.readAll());
+        }
+    }
+
+    @Test
+    void journalWithOnlyATornRecordIsEmptied() throws Exception {
+        Path path = dir.resolve("journal");
+        Files.writeString(path, "1|", StandardCharsets.UTF_8);
+
+        try (AppendOnlyJournal journal = new AppendOnlyJournal(path, false)) {
+            assertEquals(List.of(), journal.readAll());
+        }
+    }
+
+    @Test
+    void compactionKeepsMatchingRecordsAndLaterAppends() {
+        Path path = dir.resolve("journal");
+        try (AppendOnlyJournal journal = new AppendOnlyJournal(path, true)) {
+            IntStream.rangeClosed(1, 10).forEach(seq -> journal.append(seq + "|x"));
+            journal.compact(record -> sequenceOf(record) > 7);
+            journal.append("11|x");
+
+            assertEquals(List.of("8|x", "9|x", "10|x", "11|x"), journal.readAll());
+        }
+        try (AppendOnlyJournal reopened = new AppendOnlyJournal(path, true)) {
+            assertEquals(4, reopened.readAll().size());
+        }
+    }
+
+    @Test
+    void appendsDuringCompactionAreKept() throws Exception {
+        Path path = dir.resolve("journal");
+        int writers = 4;
+        int recordsPerWriter = 500;
+        try (AppendOnlyJournal journal = new AppendOnlyJournal(path, true)) {
+            ExecutorService executor = Executors.newFixedThreadPool(writers);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    int writer = w;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < recordsPerWriter; i++) {
+                            journal.append(writer + "|" + i);
+                        }
+                    }));
+                }
+                // Compact repeatedly while the writers append, keeping every record
+                for (int i = 0; i < 20; i++) {
+                    journal.compact(record -> true);
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            List<String> records = journal.readAll();
+            assertEquals(writers * recordsPerWriter, records.size());
+            for (int w = 0; w < writers; w++) {
+                String prefix = w + "|";
+                List<String> ofWriter = records.stream()
+                        .filter(record -> record.startsWith(prefix))
+                        .collect(Collectors.toList());
+                assertEquals(IntStream.range(0, recordsPerWriter).mapToObj(i -> prefix + i)
+                        .collect(Collectors.toList()), ofWriter);
+            }
+        }
+    }
+
+    private static long sequenceOf(String record) {
+        return Long.parseLong(record.substring(0, record.indexOf('|')));
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.ecommercebackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvLineParserTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertEquals(List.of("sku-1", "Mug", "9.5", "3"), CsvLineParser.parse("sku-1,Mug,9.5,3"));
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertEquals(List.of("", "b", "", ""), CsvLineParser.parse(",b,,"));
+        assertEquals(List.of(""), CsvLineParser.parse(""));
+    }
+
+    @Test
+    void quotedFieldMayContainCommas() {
+        assertEquals(List.of("sku-1", "Mug, large", "9.5"), CsvLineParser.parse("sku-1,\"Mug, large\",9.5"));
+    }
+
+    @Test
+    void doubledQuoteIsALiteralQuote() {
+        assertEquals(List.of("12\" pan", "say \"hi\""),
+                CsvLineParser.parse("\"12\"\" pan\",\"say \"\"hi\"\"\""));
+        assertEquals(List.of("\""), CsvLineParser.parse("\"\"\"\""));
+    }
+
+    @Test
+    void whitespaceIsKept() {
+        assertEquals(List.of(" a ", " b"), CsvLineParser.parse(" a , b"));
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CsvLineParser.parse("sku-1,\"Mug,9.5"));
+        assertTrue(e.getMessage().startsWith("Unterminated quoted field"));
+    }
+
+    @Test
+    void oddQuoteCountTogglesQuotedField() {
+        assertTrue(CsvLineParser.togglesQuote("sku-1,\"first line"));
+        assertTrue(CsvLineParser.togglesQuote("second line\",9.5,3"));
+        assertFalse(CsvLineParser.togglesQuote("sku-1,\"say \"\"hi\"\"\",9.5,3"));
+        assertFalse(CsvLineParser.togglesQuote("middle line"));
+    }
+}
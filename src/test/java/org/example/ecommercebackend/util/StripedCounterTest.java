@@ -0,0 +1,124 @@
+package org.example.ecommercebackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedCounterTest {
+
+    @Test
+    void resetSpreadsTheValueOverStripes() {
+        StripedCounter counter = new StripedCounter(4, 10);
+        assertEquals(10, counter.sum());
+
+        counter.reset(3);
+        assertEquals(3, counter.sum());
+    }
+
+    @Test
+    void negativeValueResetsToZero() {
+        assertEquals(0, new StripedCounter(4, -5).sum());
+    }
+
+    @Test
+    void acquireGathersAcrossStripes() {
+        // One unit per stripe, so taking three needs three stripes
+        StripedCounter counter = new StripedCounter(4, 4);
+
+        assertTrue(counter.tryAcquire(3));
+        assertEquals(1, counter.sum());
+    }
+
+    @Test
+    void shortAcquireLeavesCounterUnchanged() {
+        StripedCounter counter = new StripedCounter(4, 4);
+
+        assertFalse(counter.tryAcquire(5));
+        assertEquals(4, counter.sum());
+        assertTrue(counter.tryAcquire(4));
+        assertEquals(0, counter.sum());
+        assertFalse(counter.tryAcquire(1));
+    }
+
+    @Test
+    void releaseGivesBack() {
+        StripedCounter counter = new StripedCounter(8, 0);
+        counter.release(2);
+
+        assertEquals(2, counter.sum());
+        assertTrue(counter.tryAcquire(2));
+    }
+
+    @Test
+    void concurrentAcquiresNeverOversell() throws Exception {
+        int stock = 1000;
+        StripedCounter counter = new StripedCounter(8, stock);
+        AtomicInteger acquired = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        int amount = 1 + i % 3;
+                        if (counter.tryAcquire(amount)) {
+                            acquired.addAndGet(amount);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(stock, acquired.get() + counter.sum());
+        assertTrue(counter.sum() < 3, "Units left unsold: " + counter.sum());
+    }
+
+    @Test
+    void acquireSucceedsWheneverTheTotalCoversIt() throws Exception {
+        // Each thread holds at most one amount at a time and the total covers all of
+        // them, so every acquire must succeed, however the units move between stripes
+        int threads = 4;
+        int amount = 6;
+        StripedCounter counter = new StripedCounter(8, threads * amount);
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        if (counter.tryAcquire(amount)) {
+                            counter.release(amount);
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, failures.get());
+        assertEquals(threads * amount, counter.sum());
+    }
+}